@@ -18,27 +18,63 @@ import com.liferay.portal.kernel.cache.CacheListener;
 import com.liferay.portal.kernel.cache.CacheListenerScope;
 import com.liferay.portal.kernel.cache.PortalCache;
 import com.liferay.portal.kernel.concurrent.ConcurrentHashSet;
+import com.liferay.portal.kernel.util.Time;
 
 import java.io.Serializable;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * <p>
+ * Keeps at most a maximum number of entries and evicts the least recently
+ * used ones with a segmented LRU policy. New entries start in a probation
+ * segment and are only promoted to the protected segment when they are read
+ * again, so that a scan over many entries that are read once cannot push the
+ * frequently read entries out of the cache.
+ * </p>
+ *
+ * <p>
+ * Reads never lock. They record the accessed entries in a buffer that is
+ * applied to the segments by the next write, or by the read that fills the
+ * buffer if no write comes along.
+ * </p>
+ *
  * @author Brian Wing Shun Chan
  * @author Edward Han
  * @author Shuyang Zhou
  */
 public class MemoryPortalCache<K extends Serializable, V>
-	implements PortalCache<K, V> {
+	implements MemoryPortalCacheMBean, PortalCache<K, V> {
 
 	public MemoryPortalCache(String name, int initialCapacity) {
+		this(name, initialCapacity, 0, 0);
+	}
+
+	/**
+	 * @param maxSize the maximum number of entries, or <code>0</code> for no
+	 *        limit
+	 * @param timeToLive the default number of seconds an entry lives, or
+	 *        <code>0</code> to keep entries until they are evicted
+	 */
+	public MemoryPortalCache(
+		String name, int initialCapacity, int maxSize, int timeToLive) {
+
 		_name = name;
-		_map = new ConcurrentHashMap<K, V>(initialCapacity);
+		_map = new ConcurrentHashMap<K, Entry<K, V>>(initialCapacity);
+		_maxSize = maxSize;
+		_timeToLive = timeToLive;
+
+		_protectedMaxSize = (int)(maxSize * _PROTECTED_RATIO);
 	}
 
 	public void destroy() {
@@ -60,23 +96,98 @@ public class MemoryPortalCache<K extends Serializable, V>
 	}
 
 	public V get(K key) {
-		return _map.get(key);
+		Entry<K, V> entry = _map.get(key);
+
+		if (entry == null) {
+			_missCount.incrementAndGet();
+
+			return null;
+		}
+
+		if (entry.isExpired(System.currentTimeMillis())) {
+			if (_map.remove(key, entry)) {
+				_expireCount.incrementAndGet();
+
+				_unlink(entry);
+
+				for (CacheListener<K, V> cacheListener : _cacheListeners) {
+					cacheListener.notifyEntryExpired(this, key, entry._value);
+				}
+			}
+
+			_missCount.incrementAndGet();
+
+			return null;
+		}
+
+		_hitCount.incrementAndGet();
+
+		if (_maxSize > 0) {
+			_recordAccess(entry);
+		}
+
+		return entry._value;
+	}
+
+	public long getCacheEvictions() {
+		return _evictCount.get();
+	}
+
+	public long getCacheExpirations() {
+		return _expireCount.get();
+	}
+
+	public long getCacheHits() {
+		return _hitCount.get();
+	}
+
+	public long getCacheMisses() {
+		return _missCount.get();
+	}
+
+	public long getCachePuts() {
+		return _putCount.get();
+	}
+
+	public int getMaxSize() {
+		return _maxSize;
 	}
 
 	public String getName() {
 		return _name;
 	}
 
-	public void put(K key, V value) {
-		V oldValue = _map.put(key, value);
+	public int getSize() {
+		return _map.size();
+	}
 
-		notifyPutEvents(key, value, oldValue != null);
+	public int getTimeToLive() {
+		return _timeToLive;
+	}
+
+	public void put(K key, V value) {
+		put(key, value, _timeToLive);
 	}
 
 	public void put(K key, V value, int timeToLive) {
-		V oldValue = _map.put(key, value);
+		long expirationTime = 0;
+
+		if (timeToLive > 0) {
+			expirationTime =
+				System.currentTimeMillis() + (timeToLive * Time.SECOND);
+		}
 
-		notifyPutEvents(key, value, oldValue != null);
+		Entry<K, V> entry = new Entry<K, V>(key, value, expirationTime);
+
+		Entry<K, V> oldEntry = _map.put(key, entry);
+
+		_putCount.incrementAndGet();
+
+		if (_maxSize > 0) {
+			_link(entry, oldEntry);
+		}
+
+		notifyPutEvents(key, value, oldEntry != null);
 	}
 
 	public void registerCacheListener(CacheListener<K, V> cacheListener) {
@@ -91,7 +202,15 @@ public class MemoryPortalCache<K extends Serializable, V>
 	}
 
 	public void remove(K key) {
-		V value = _map.remove(key);
+		Entry<K, V> entry = _map.remove(key);
+
+		V value = null;
+
+		if (entry != null) {
+			value = entry._value;
+
+			_unlink(entry);
+		}
 
 		for (CacheListener<K, V> cacheListener : _cacheListeners) {
 			cacheListener.notifyEntryRemoved(this, key, value);
@@ -99,13 +218,34 @@ public class MemoryPortalCache<K extends Serializable, V>
 	}
 
 	public void removeAll() {
-		_map.clear();
+		_lock.lock();
+
+		try {
+			_map.clear();
+
+			_readBuffer.clear();
+			_readBufferSize.set(0);
+
+			_probation.clear();
+			_protected.clear();
+		}
+		finally {
+			_lock.unlock();
+		}
 
 		for (CacheListener<K, V> cacheListener : _cacheListeners) {
 			cacheListener.notifyRemoveAll(this);
 		}
 	}
 
+	public void resetStatistics() {
+		_evictCount.set(0);
+		_expireCount.set(0);
+		_hitCount.set(0);
+		_missCount.set(0);
+		_putCount.set(0);
+	}
+
 	public void unregisterCacheListener(CacheListener<K, V> cacheListener) {
 		_cacheListeners.remove(cacheListener);
 	}
@@ -127,9 +267,252 @@ public class MemoryPortalCache<K extends Serializable, V>
 		}
 	}
 
+	private void _drainReadBuffer() {
+		Entry<K, V> entry = null;
+
+		while ((entry = _readBuffer.poll()) != null) {
+			_readBufferSize.decrementAndGet();
+
+			Segment<K, V> segment = entry._segment;
+
+			if (segment != null) {
+				segment.unlink(entry);
+
+				_promote(entry);
+			}
+		}
+	}
+
+	private void _link(Entry<K, V> entry, Entry<K, V> oldEntry) {
+		List<Entry<K, V>> evictedEntries = null;
+
+		_lock.lock();
+
+		try {
+			_drainReadBuffer();
+
+			if (oldEntry != null) {
+				_unlink(oldEntry);
+			}
+
+			// Another thread may have replaced or removed the entry before the
+			// lock was acquired, in which case it must not be linked
+
+			if (_map.get(entry._key) != entry) {
+				return;
+			}
+
+			if (oldEntry != null) {
+				_promote(entry);
+			}
+			else {
+				_probation.linkFirst(entry);
+			}
+
+			while ((_probation._size + _protected._size) > _maxSize) {
+				Entry<K, V> evictedEntry = _probation._tail;
+
+				if (evictedEntry == null) {
+					evictedEntry = _protected._tail;
+				}
+
+				_unlink(evictedEntry);
+
+				if (!_map.remove(evictedEntry._key, evictedEntry)) {
+					continue;
+				}
+
+				if (evictedEntries == null) {
+					evictedEntries = new ArrayList<Entry<K, V>>();
+				}
+
+				evictedEntries.add(evictedEntry);
+			}
+		}
+		finally {
+			_lock.unlock();
+		}
+
+		if (evictedEntries == null) {
+			return;
+		}
+
+		_evictCount.addAndGet(evictedEntries.size());
+
+		for (Entry<K, V> evictedEntry : evictedEntries) {
+			for (CacheListener<K, V> cacheListener : _cacheListeners) {
+				cacheListener.notifyEntryEvicted(
+					this, evictedEntry._key, evictedEntry._value);
+			}
+		}
+	}
+
+	private void _promote(Entry<K, V> entry) {
+		_protected.linkFirst(entry);
+
+		while (_protected._size > _protectedMaxSize) {
+			Entry<K, V> demotedEntry = _protected._tail;
+
+			_protected.unlink(demotedEntry);
+			_probation.linkFirst(demotedEntry);
+		}
+	}
+
+	private void _recordAccess(Entry<K, V> entry) {
+		if (_readBufferSize.get() >= _READ_BUFFER_MAX_SIZE) {
+			if (_lock.tryLock()) {
+				try {
+					_drainReadBuffer();
+				}
+				finally {
+					_lock.unlock();
+				}
+			}
+
+			return;
+		}
+
+		_readBufferSize.incrementAndGet();
+
+		_readBuffer.offer(entry);
+	}
+
+	private void _unlink(Entry<K, V> entry) {
+		if (_maxSize <= 0) {
+			return;
+		}
+
+		boolean locked = _lock.isHeldByCurrentThread();
+
+		if (!locked) {
+			_lock.lock();
+		}
+
+		try {
+			Segment<K, V> segment = entry._segment;
+
+			if (segment != null) {
+				segment.unlink(entry);
+			}
+		}
+		finally {
+			if (!locked) {
+				_lock.unlock();
+			}
+		}
+	}
+
+	private static final float _PROTECTED_RATIO = 0.8F;
+
+	private static final int _READ_BUFFER_MAX_SIZE = 128;
+
 	private Set<CacheListener<K, V>> _cacheListeners =
 		new ConcurrentHashSet<CacheListener<K, V>>();
-	private Map<K, V> _map;
+	private final AtomicLong _evictCount = new AtomicLong();
+	private final AtomicLong _expireCount = new AtomicLong();
+	private final AtomicLong _hitCount = new AtomicLong();
+	private final ReentrantLock _lock = new ReentrantLock();
+	private ConcurrentMap<K, Entry<K, V>> _map;
+	private final int _maxSize;
+	private final AtomicLong _missCount = new AtomicLong();
 	private String _name;
+	private final Segment<K, V> _probation = new Segment<K, V>();
+	private final Segment<K, V> _protected = new Segment<K, V>();
+	private final int _protectedMaxSize;
+	private final AtomicLong _putCount = new AtomicLong();
+	private final Queue<Entry<K, V>> _readBuffer =
+		new ConcurrentLinkedQueue<Entry<K, V>>();
+	private final AtomicInteger _readBufferSize = new AtomicInteger();
+	private final int _timeToLive;
+
+	private static class Entry<K, V> {
+
+		public Entry(K key, V value, long expirationTime) {
+			_key = key;
+			_value = value;
+			_expirationTime = expirationTime;
+		}
+
+		public boolean isExpired(long now) {
+			if ((_expirationTime > 0) && (_expirationTime <= now)) {
+				return true;
+			}
+			else {
+				return false;
+			}
+		}
+
+		private final long _expirationTime;
+		private final K _key;
+		private Entry<K, V> _next;
+		private Entry<K, V> _previous;
+		private Segment<K, V> _segment;
+		private final V _value;
+
+	}
+
+	private static class Segment<K, V> {
+
+		public void clear() {
+			Entry<K, V> entry = _head;
+
+			while (entry != null) {
+				Entry<K, V> nextEntry = entry._next;
+
+				entry._next = null;
+				entry._previous = null;
+				entry._segment = null;
+
+				entry = nextEntry;
+			}
+
+			_head = null;
+			_size = 0;
+			_tail = null;
+		}
+
+		public void linkFirst(Entry<K, V> entry) {
+			entry._next = _head;
+			entry._previous = null;
+			entry._segment = this;
+
+			if (_head != null) {
+				_head._previous = entry;
+			}
+			else {
+				_tail = entry;
+			}
+
+			_head = entry;
+			_size++;
+		}
+
+		public void unlink(Entry<K, V> entry) {
+			if (entry._previous != null) {
+				entry._previous._next = entry._next;
+			}
+			else {
+				_head = entry._next;
+			}
+
+			if (entry._next != null) {
+				entry._next._previous = entry._previous;
+			}
+			else {
+				_tail = entry._previous;
+			}
+
+			entry._next = null;
+			entry._previous = null;
+			entry._segment = null;
+
+			_size--;
+		}
+
+		private Entry<K, V> _head;
+		private int _size;
+		private Entry<K, V> _tail;
+
+	}
 
 }
\ No newline at end of file
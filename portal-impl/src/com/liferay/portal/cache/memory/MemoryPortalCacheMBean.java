@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.cache.memory;
+
+public interface MemoryPortalCacheMBean {
+
+	public long getCacheEvictions();
+
+	public long getCacheExpirations();
+
+	public long getCacheHits();
+
+	public long getCacheMisses();
+
+	public long getCachePuts();
+
+	public int getMaxSize();
+
+	public String getName();
+
+	public int getSize();
+
+	public int getTimeToLive();
+
+	public void resetStatistics();
+
+}
@@ -16,13 +16,22 @@ package com.liferay.portal.cache.memory;
 
 import com.liferay.portal.kernel.cache.PortalCache;
 import com.liferay.portal.kernel.cache.PortalCacheManager;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
 
 import java.io.Serializable;
 
 import java.net.URL;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * @author Brian Wing Shun Chan
@@ -31,12 +40,18 @@ public class MemoryPortalCacheManager<K extends Serializable, V>
 	implements PortalCacheManager<K, V> {
 
 	public void afterPropertiesSet() {
-		_portalCaches = new ConcurrentHashMap<String, PortalCache<K, V>>(
+		_portalCaches = new ConcurrentHashMap<String, MemoryPortalCache<K, V>>(
 			_cacheManagerInitialCapacity);
 	}
 
 	public void clearAll() {
-		_portalCaches.clear();
+		for (String name : _portalCaches.keySet()) {
+			removeCache(name);
+		}
+	}
+
+	public void destroy() {
+		clearAll();
 	}
 
 	public PortalCache<K, V> getCache(String name) {
@@ -44,15 +59,30 @@ public class MemoryPortalCacheManager<K extends Serializable, V>
 	}
 
 	public PortalCache<K, V> getCache(String name, boolean blocking) {
-		PortalCache<K, V> portalCache = _portalCaches.get(name);
+		MemoryPortalCache<K, V> portalCache = _portalCaches.get(name);
+
+		if (portalCache != null) {
+			return portalCache;
+		}
 
-		if (portalCache == null) {
-			portalCache = new MemoryPortalCache<K, V>(
-				name, _cacheInitialCapacity);
+		Integer maxSize = _cacheMaxSizes.get(name);
 
-			_portalCaches.put(name, portalCache);
+		if (maxSize == null) {
+			maxSize = _cacheMaxSize;
 		}
 
+		portalCache = new MemoryPortalCache<K, V>(
+			name, _cacheInitialCapacity, maxSize, _cacheTimeToLive);
+
+		MemoryPortalCache<K, V> previousPortalCache =
+			_portalCaches.putIfAbsent(name, portalCache);
+
+		if (previousPortalCache != null) {
+			return previousPortalCache;
+		}
+
+		registerMBean(portalCache);
+
 		return portalCache;
 	}
 
@@ -60,7 +90,11 @@ public class MemoryPortalCacheManager<K extends Serializable, V>
 	}
 
 	public void removeCache(String name) {
-		_portalCaches.remove(name);
+		MemoryPortalCache<K, V> portalCache = _portalCaches.remove(name);
+
+		if (portalCache != null) {
+			unregisterMBean(portalCache);
+		}
 	}
 
 	public void setCacheInitialCapacity(int cacheInitialCapacity) {
@@ -73,8 +107,103 @@ public class MemoryPortalCacheManager<K extends Serializable, V>
 		_cacheManagerInitialCapacity = cacheManagerInitialCapacity;
 	}
 
+	/**
+	 * Sets the maximum number of entries of each cache, or <code>0</code> to
+	 * let the caches grow without limit.
+	 */
+	public void setCacheMaxSize(int cacheMaxSize) {
+		_cacheMaxSize = cacheMaxSize;
+	}
+
+	/**
+	 * Sets the maximum number of entries of specific caches, keyed by cache
+	 * name, overriding the maximum set with {@link #setCacheMaxSize(int)}.
+	 */
+	public void setCacheMaxSizes(Map<String, String> cacheMaxSizes) {
+		for (Map.Entry<String, String> entry : cacheMaxSizes.entrySet()) {
+			_cacheMaxSizes.put(
+				entry.getKey(), GetterUtil.getInteger(entry.getValue()));
+		}
+	}
+
+	public void setCacheTimeToLive(int cacheTimeToLive) {
+		_cacheTimeToLive = cacheTimeToLive;
+	}
+
+	public void setMBeanServer(MBeanServer mBeanServer) {
+		_mBeanServer = mBeanServer;
+	}
+
+	/**
+	 * Sets the name that distinguishes the caches of this manager from the
+	 * caches of other managers when they are registered with JMX.
+	 */
+	public void setName(String name) {
+		_name = name;
+	}
+
+	protected ObjectName getObjectName(MemoryPortalCache<K, V> portalCache)
+		throws Exception {
+
+		return new ObjectName(
+			"com.liferay.portal.cache.memory:type=MemoryPortalCache,manager=" +
+				ObjectName.quote(_name) + ",name=" +
+					ObjectName.quote(portalCache.getName()));
+	}
+
+	protected void registerMBean(MemoryPortalCache<K, V> portalCache) {
+		if (_mBeanServer == null) {
+			return;
+		}
+
+		try {
+			_mBeanServer.registerMBean(portalCache, getObjectName(portalCache));
+		}
+		catch (InstanceAlreadyExistsException iaee) {
+		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(
+					"Unable to register MBean for cache " +
+						portalCache.getName(),
+					e);
+			}
+		}
+	}
+
+	protected void unregisterMBean(MemoryPortalCache<K, V> portalCache) {
+		if (_mBeanServer == null) {
+			return;
+		}
+
+		try {
+			ObjectName objectName = getObjectName(portalCache);
+
+			if (_mBeanServer.isRegistered(objectName)) {
+				_mBeanServer.unregisterMBean(objectName);
+			}
+		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(
+					"Unable to unregister MBean for cache " +
+						portalCache.getName(),
+					e);
+			}
+		}
+	}
+
+	private static Log _log = LogFactoryUtil.getLog(
+		MemoryPortalCacheManager.class);
+
 	private int _cacheInitialCapacity = 10000;
 	private int _cacheManagerInitialCapacity = 10000;
-	private Map<String, PortalCache<K, V>> _portalCaches;
+	private int _cacheMaxSize;
+	private Map<String, Integer> _cacheMaxSizes =
+		new HashMap<String, Integer>();
+	private int _cacheTimeToLive;
+	private MBeanServer _mBeanServer;
+	private String _name = MemoryPortalCacheManager.class.getName();
+	private ConcurrentMap<String, MemoryPortalCache<K, V>> _portalCaches;
 
 }
\ No newline at end of file
@@ -22,8 +22,11 @@ import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.template.TemplateManager;
 import com.liferay.portal.kernel.template.TemplateResourceLoaderUtil;
 import com.liferay.portal.kernel.util.HttpUtil;
+import com.liferay.portal.model.Theme;
 import com.liferay.portal.security.pacl.PACLClassLoaderUtil;
 import com.liferay.portal.service.ThemeLocalServiceUtil;
+import com.liferay.portal.servlet.filters.dynamiccss.DynamicCSSUtil;
+import com.liferay.portal.util.PropsValues;
 
 import java.util.HashMap;
 import java.util.List;
@@ -93,6 +96,14 @@ public class ThemeHotDeployListener extends BaseHotDeployListener {
 
 		_themeIds.put(servletContextName, themeIds);
 
+		if (PropsValues.THEME_CSS_PRECOMPILE_ENABLED) {
+			for (Theme theme : ThemeLocalServiceUtil.getWARThemes()) {
+				if (themeIds.contains(theme.getThemeId())) {
+					DynamicCSSUtil.precompile(servletContext, theme);
+				}
+			}
+		}
+
 		if (_log.isInfoEnabled()) {
 			if (themeIds.size() == 1) {
 				_log.info(
@@ -35,6 +35,7 @@ import freemarker.template.Configuration;
 
 import java.lang.reflect.Field;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -59,12 +60,7 @@ public class FreeMarkerManager implements TemplateManager {
 
 		_configuration = null;
 
-		_restrictedHelperUtilities.clear();
-
 		_restrictedHelperUtilities = null;
-
-		_standardHelperUtilities.clear();
-
 		_standardHelperUtilities = null;
 
 		_templateContextHelper = null;
@@ -112,8 +108,8 @@ public class FreeMarkerManager implements TemplateManager {
 					_classLoaderHelperUtilities.get(contextClassLoader);
 
 				if (helperUtilities == null) {
-					helperUtilities =
-						_templateContextHelper.getHelperUtilities();
+					helperUtilities = Collections.unmodifiableMap(
+						_templateContextHelper.getHelperUtilities());
 
 					_classLoaderHelperUtilities.put(
 						contextClassLoader, helperUtilities);
@@ -191,9 +187,10 @@ public class FreeMarkerManager implements TemplateManager {
 			throw new TemplateException("Unable to init freemarker manager", e);
 		}
 
-		_standardHelperUtilities = _templateContextHelper.getHelperUtilities();
-		_restrictedHelperUtilities =
-			_templateContextHelper.getRestrictedHelperUtilities();
+		_standardHelperUtilities = Collections.unmodifiableMap(
+			_templateContextHelper.getHelperUtilities());
+		_restrictedHelperUtilities = Collections.unmodifiableMap(
+			_templateContextHelper.getRestrictedHelperUtilities());
 	}
 
 	public void setTemplateContextHelper(
@@ -51,18 +51,18 @@ public class FreeMarkerTemplate extends AbstractTemplate {
 			PropsValues.FREEMARKER_ENGINE_RESOURCE_MODIFICATION_CHECK_INTERVAL);
 
 		_context = new HashMap<String, Object>();
-
-		if (context != null) {
-			for (Map.Entry<String, Object> entry : context.entrySet()) {
-				put(entry.getKey(), entry.getValue());
-			}
-		}
-
+		_helperUtilities = context;
 		_configuration = configuration;
 	}
 
 	public Object get(String key) {
-		return _context.get(key);
+		Object value = _context.get(key);
+
+		if ((value == null) && (_helperUtilities != null)) {
+			value = _helperUtilities.get(key);
+		}
+
+		return value;
 	}
 
 	public void put(String key, Object value) {
@@ -127,7 +127,11 @@ public class FreeMarkerTemplate extends AbstractTemplate {
 				getTemplateResourceUUID(templateResource),
 				TemplateResource.DEFAUT_ENCODING);
 
-			template.process(_context, writer);
+			template.process(
+				new LiferayTemplateHashModel(
+					_context, _helperUtilities,
+					_configuration.getObjectWrapper()),
+				writer);
 		}
 		finally {
 			TemplateResourceThreadLocal.setTemplateResource(
@@ -137,5 +141,6 @@ public class FreeMarkerTemplate extends AbstractTemplate {
 
 	private Configuration _configuration;
 	private Map<String, Object> _context;
+	private Map<String, Object> _helperUtilities;
 
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.freemarker;
+
+import freemarker.template.ObjectWrapper;
+import freemarker.template.SimpleCollection;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateHashModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exposes a per request context layered over the shared helper utilities
+ * without copying the shared map. Values are wrapped lazily and only once per
+ * model, so a render only pays for the variables it actually reads. The keys
+ * and values are those of the merged view, where the context shadows the
+ * helper utilities.
+ */
+public class LiferayTemplateHashModel implements TemplateHashModelEx {
+
+	public LiferayTemplateHashModel(
+		Map<String, Object> context, Map<String, Object> helperUtilities,
+		ObjectWrapper objectWrapper) {
+
+		_context = context;
+		_helperUtilities = helperUtilities;
+		_objectWrapper = objectWrapper;
+	}
+
+	public TemplateModel get(String key) throws TemplateModelException {
+		TemplateModel templateModel = _templateModels.get(key);
+
+		if (templateModel != null) {
+			return templateModel;
+		}
+
+		Object value = _getValue(key);
+
+		if (value == null) {
+			return null;
+		}
+
+		templateModel = _objectWrapper.wrap(value);
+
+		_templateModels.put(key, templateModel);
+
+		return templateModel;
+	}
+
+	public boolean isEmpty() {
+		if (!_context.isEmpty()) {
+			return false;
+		}
+
+		if ((_helperUtilities != null) && !_helperUtilities.isEmpty()) {
+			return false;
+		}
+
+		return true;
+	}
+
+	public TemplateCollectionModel keys() {
+		return new SimpleCollection(_getKeys(), _objectWrapper);
+	}
+
+	public int size() {
+		Set<String> keys = _getKeys();
+
+		return keys.size();
+	}
+
+	public TemplateCollectionModel values() throws TemplateModelException {
+		Set<String> keys = _getKeys();
+
+		List<TemplateModel> templateModels = new ArrayList<TemplateModel>(
+			keys.size());
+
+		for (String key : keys) {
+			templateModels.add(get(key));
+		}
+
+		return new SimpleCollection(templateModels, _objectWrapper);
+	}
+
+	private Set<String> _getKeys() {
+		Set<String> keys = new LinkedHashSet<String>();
+
+		for (String key : _context.keySet()) {
+			if (_getValue(key) != null) {
+				keys.add(key);
+			}
+		}
+
+		if (_helperUtilities != null) {
+			for (Map.Entry<String, Object> entry :
+					_helperUtilities.entrySet()) {
+
+				if (entry.getValue() != null) {
+					keys.add(entry.getKey());
+				}
+			}
+		}
+
+		return keys;
+	}
+
+	private Object _getValue(String key) {
+		Object value = _context.get(key);
+
+		if ((value == null) && (_helperUtilities != null)) {
+			value = _helperUtilities.get(key);
+		}
+
+		return value;
+	}
+
+	private Map<String, Object> _context;
+	private Map<String, Object> _helperUtilities;
+	private ObjectWrapper _objectWrapper;
+	private Map<String, TemplateModel> _templateModels =
+		new HashMap<String, TemplateModel>();
+
+}
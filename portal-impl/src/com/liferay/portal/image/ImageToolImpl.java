@@ -44,12 +44,16 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import javax.media.jai.RenderedImageAdapter;
 
@@ -245,6 +249,76 @@ public class ImageToolImpl implements ImageTool {
 		return read(_fileUtil.getBytes(file));
 	}
 
+	public ImageBag read(File file, int maxHeight, int maxWidth)
+		throws IOException {
+
+		ImageInputStream imageInputStream = ImageIO.createImageInputStream(
+			file);
+
+		if (imageInputStream == null) {
+			return read(file);
+		}
+
+		try {
+			Iterator<ImageReader> itr = ImageIO.getImageReaders(
+				imageInputStream);
+
+			if (!itr.hasNext()) {
+				return read(file);
+			}
+
+			ImageReader imageReader = itr.next();
+
+			try {
+				imageReader.setInput(imageInputStream, true, true);
+
+				int subsampling = getSubsampling(
+					imageReader.getHeight(0), imageReader.getWidth(0),
+					maxHeight, maxWidth);
+
+				if (subsampling <= 1) {
+					return read(file);
+				}
+
+				ImageReadParam imageReadParam =
+					imageReader.getDefaultReadParam();
+
+				imageReadParam.setSourceSubsampling(
+					subsampling, subsampling, 0, 0);
+
+				BufferedImage bufferedImage = imageReader.read(
+					0, imageReadParam);
+
+				String type = imageReader.getFormatName();
+
+				type = type.toLowerCase();
+
+				if (type.equals("jpeg")) {
+					type = TYPE_JPEG;
+				}
+
+				return new ImageBag(bufferedImage, type);
+			}
+			catch (IOException ioe) {
+
+				// Formats such as CMYK JPEGs cannot be decoded by ImageIO and
+				// are read the regular way so that they can be converted
+
+				if (_log.isDebugEnabled()) {
+					_log.debug(ioe, ioe);
+				}
+
+				return read(file);
+			}
+			finally {
+				imageReader.dispose();
+			}
+		}
+		finally {
+			imageInputStream.close();
+		}
+	}
+
 	public ImageBag read(InputStream inputStream) throws IOException {
 		return read(_fileUtil.getBytes(inputStream));
 	}
@@ -407,6 +481,28 @@ public class ImageToolImpl implements ImageTool {
 		return _imageMagick;
 	}
 
+	/**
+	 * Returns the subsampling factor to decode an image with so that it is
+	 * still at least twice as large as the image that results from scaling it
+	 * to the maximum height and width, which keeps the quality of the smooth
+	 * scaling done afterwards.
+	 */
+	protected int getSubsampling(
+		int height, int width, int maxHeight, int maxWidth) {
+
+		double ratio = 1;
+
+		if (maxHeight > 0) {
+			ratio = Math.max(ratio, (double)height / maxHeight);
+		}
+
+		if (maxWidth > 0) {
+			ratio = Math.max(ratio, (double)width / maxWidth);
+		}
+
+		return Math.max(1, (int)(ratio / 2));
+	}
+
 	protected RenderedImage read(byte[] bytes, String type) {
 		RenderedImage renderedImage = null;
 
@@ -14,6 +14,9 @@
 
 package com.liferay.portal.jsonwebservice.action;
 
+import com.liferay.portal.kernel.concurrent.ThreadPoolExecutor;
+import com.liferay.portal.kernel.executor.CopyThreadLocalCallable;
+import com.liferay.portal.kernel.executor.PortalExecutorManagerUtil;
 import com.liferay.portal.kernel.json.JSONFactoryUtil;
 import com.liferay.portal.kernel.json.JSONSerializable;
 import com.liferay.portal.kernel.json.JSONSerializer;
@@ -22,6 +25,7 @@ import com.liferay.portal.kernel.jsonwebservice.JSONWebServiceActionMapping;
 import com.liferay.portal.kernel.jsonwebservice.JSONWebServiceActionsManagerUtil;
 import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.util.PropsValues;
 
 import java.io.IOException;
 
@@ -31,6 +35,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -88,28 +95,22 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 			throw new IllegalArgumentException();
 		}
 
-		for (int i = 0; i < list.size(); i++) {
-			Map<String, Map<String, Object>> map =
-				(Map<String, Map<String, Object>>)list.get(i);
+		if (batchMode && (list.size() > 1) && _parallelEnabled) {
 
-			if (map.isEmpty()) {
-				throw new IllegalArgumentException();
-			}
-
-			Set<Map.Entry<String, Map<String, Object>>> entrySet =
-				map.entrySet();
-
-			Iterator<Map.Entry<String, Map<String, Object>>> iterator =
-				entrySet.iterator();
+			_executeParallel(list);
+		}
+		else {
+			for (int i = 0; i < list.size(); i++) {
+				List<Statement> statements = new ArrayList<Statement>();
 
-			Map.Entry<String, Map<String, Object>> entry = iterator.next();
+				Statement statement = _parseStatement(statements, list.get(i));
 
-			Statement statement = _parseStatement(
-				entry.getKey(), entry.getValue());
+				_statements.addAll(statements);
 
-			Object result = _executeStatement(statement);
+				Object result = _executeStatement(statements, statement);
 
-			list.set(i, result);
+				list.set(i, result);
+			}
 		}
 
 		Object result = null;
@@ -124,6 +125,15 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 		return new InvokerResult(result);
 	}
 
+	/**
+	 * Sets whether the commands of a batch are executed in parallel. Defaults
+	 * to the value of the property
+	 * "jsonws.web.service.invoker.parallel.enabled".
+	 */
+	public void setParallelEnabled(boolean parallelEnabled) {
+		_parallelEnabled = parallelEnabled;
+	}
+
 	public class InvokerResult implements JSONSerializable {
 
 		public String toJSONString() {
@@ -162,12 +172,14 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 	}
 
 	private Object _addVariableStatement(
-			Statement variableStatement, Object result)
+			List<Statement> statements, Statement variableStatement,
+			Object result)
 		throws Exception {
 
 		String name = variableStatement.getName();
 
-		Object variableResult = _executeStatement(variableStatement);
+		Object variableResult = _executeStatement(
+			statements, variableStatement);
 
 		Map<String, Object> map = _convertObjectToMap(result);
 
@@ -177,7 +189,8 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 	}
 
 	private Object _addVariableStatementList(
-			Statement variableStatement, Object result, List<Object> results)
+			List<Statement> statements, Statement variableStatement,
+			Object result, List<Object> results)
 		throws Exception {
 
 		List<Object> list = _convertObjectToList(result);
@@ -185,12 +198,13 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 		for (Object object : list) {
 			if (object instanceof List) {
 				Object value = _addVariableStatementList(
-					variableStatement, object, results);
+					statements, variableStatement, object, results);
 
 				results.add(value);
 			}
 			else {
-				Object value = _addVariableStatement(variableStatement, object);
+				Object value = _addVariableStatement(
+					statements, variableStatement, object);
 
 				results.add(value);
 			}
@@ -199,6 +213,14 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 		return results;
 	}
 
+	private void _cancel(List<Future<Object>> futures) {
+		for (Future<Object> future : futures) {
+			if (future != null) {
+				future.cancel(false);
+			}
+		}
+	}
+
 	private List<Object> _convertObjectToList(Object object) {
 		if (!(object instanceof List)) {
 			String json = JSONFactoryUtil.looseSerialize(object);
@@ -219,23 +241,135 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 		return (Map<String, Object>)object;
 	}
 
-	private Object _executeStatement(Statement statement) throws Exception {
-		JSONWebServiceAction jsonWebServiceAction =
-			JSONWebServiceActionsManagerUtil.getJSONWebServiceAction(
-				_request, statement.getMethod(), null,
-				statement.getParameterMap());
+	/**
+	 * Executes the commands of a batch in parallel. The request is not thread
+	 * safe, so the action of every command is looked up on the request thread
+	 * and only its invocation runs on the portal executor. Commands with
+	 * variable statements need the request to look up their nested actions,
+	 * so they run entirely on the request thread. After the first failure,
+	 * the commands that have not started yet are cancelled.
+	 */
+	private void _executeParallel(List<Object> list) throws Exception {
+		int size = list.size();
+
+		ThreadPoolExecutor threadPoolExecutor =
+			PortalExecutorManagerUtil.getPortalExecutor(
+				JSONWebServiceInvokerAction.class.getName());
+
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(size);
+		List<List<Statement>> statementsList = new ArrayList<List<Statement>>(
+			size);
+
+		Exception exception = null;
+
+		try {
+			for (int i = 0; i < size; i++) {
+				final List<Statement> statements = new ArrayList<Statement>();
+
+				final Statement statement = _parseStatement(
+					statements, list.get(i));
+
+				_statements.addAll(statements);
+
+				statementsList.add(statements);
+
+				if (statement.getVariableStatements() != null) {
+					futures.add(null);
+
+					continue;
+				}
+
+				final JSONWebServiceAction jsonWebServiceAction =
+					_getJSONWebServiceAction(statement);
+
+				Callable<Object> callable = new CopyThreadLocalCallable<Object>(
+					false, true) {
+
+					@Override
+					public Object doCall() throws Exception {
+						return _executeStatement(
+							statements, statement, jsonWebServiceAction);
+					}
+
+				};
+
+				futures.add(threadPoolExecutor.submit(callable));
+			}
+
+			for (int i = 0; i < size; i++) {
+				if (futures.get(i) != null) {
+					continue;
+				}
+
+				List<Statement> statements = statementsList.get(i);
+
+				list.set(i, _executeStatement(statements, statements.get(0)));
+			}
+		}
+		catch (Exception e) {
+			exception = e;
+
+			_cancel(futures);
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			Future<Object> future = futures.get(i);
+
+			if ((future == null) || future.isCancelled()) {
+				continue;
+			}
+
+			try {
+				list.set(i, future.get());
+			}
+			catch (ExecutionException ee) {
+				if (exception != null) {
+					continue;
+				}
+
+				Throwable cause = ee.getCause();
+
+				if (cause instanceof Exception) {
+					exception = (Exception)cause;
+				}
+				else {
+					exception = ee;
+				}
+
+				_cancel(futures);
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	private Object _executeStatement(
+			List<Statement> statements, Statement statement)
+		throws Exception {
+
+		return _executeStatement(
+			statements, statement, _getJSONWebServiceAction(statement));
+	}
+
+	private Object _executeStatement(
+			List<Statement> statements, Statement statement,
+			JSONWebServiceAction jsonWebServiceAction)
+		throws Exception {
 
 		Object result = jsonWebServiceAction.invoke();
 
 		if (result instanceof List) {
 			result = _populateFlagsList(
-				statement.getName(), result, new ArrayList<Object>());
+				statements, statement.getName(), result,
+				new ArrayList<Object>());
 
 			result = _filterResultList(
 				statement, result, new ArrayList<Object>());
 		}
 		else {
-			_populateFlags(statement.getName(), result);
+			_populateFlags(statements, statement.getName(), result);
 
 			result = _filterResult(statement, result);
 		}
@@ -246,10 +380,12 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 			for (Statement variableStatement : variableStatements) {
 				if (result instanceof List) {
 					result = _addVariableStatementList(
-						variableStatement, result, new ArrayList<Object>());
+						statements, variableStatement, result,
+						new ArrayList<Object>());
 				}
 				else {
-					result = _addVariableStatement(variableStatement, result);
+					result = _addVariableStatement(
+						statements, variableStatement, result);
 				}
 			}
 		}
@@ -296,12 +432,40 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 		return results;
 	}
 
+	private JSONWebServiceAction _getJSONWebServiceAction(Statement statement)
+		throws Exception {
+
+		return JSONWebServiceActionsManagerUtil.getJSONWebServiceAction(
+			_request, statement.getMethod(), null, statement.getParameterMap());
+	}
+
+	private Statement _parseStatement(
+		List<Statement> statements, Object command) {
+
+		Map<String, Map<String, Object>> map =
+			(Map<String, Map<String, Object>>)command;
+
+		if (map.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+
+		Set<Map.Entry<String, Map<String, Object>>> entrySet = map.entrySet();
+
+		Iterator<Map.Entry<String, Map<String, Object>>> iterator =
+			entrySet.iterator();
+
+		Map.Entry<String, Map<String, Object>> entry = iterator.next();
+
+		return _parseStatement(statements, entry.getKey(), entry.getValue());
+	}
+
 	private Statement _parseStatement(
-		String assignment, Map<String, Object> parameterMap) {
+		List<Statement> statements, String assignment,
+		Map<String, Object> parameterMap) {
 
 		Statement statement = new Statement();
 
-		_statements.add(statement);
+		statements.add(statement);
 
 		int x = assignment.indexOf(StringPool.EQUAL);
 
@@ -377,7 +541,8 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 					statement.setVariableStatements(variableStatements);
 				}
 
-				Statement variableStatement = _parseStatement(key, map);
+				Statement variableStatement = _parseStatement(
+					statements, key, map);
 
 				variableStatements.add(variableStatement);
 			}
@@ -386,14 +551,16 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 		return statement;
 	}
 
-	private void _populateFlags(String name, Object object) {
+	private void _populateFlags(
+		List<Statement> statements, String name, Object object) {
+
 		if (name == null) {
 			return;
 		}
 
 		name = name.concat(StringPool.PERIOD);
 
-		for (Statement statement : _statements) {
+		for (Statement statement : statements) {
 			List<Flag> flags = statement.getFlags();
 
 			if (flags == null) {
@@ -420,18 +587,20 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 	}
 
 	private List<Object> _populateFlagsList(
-		String name, Object result, List<Object> results) {
+		List<Statement> statements, String name, Object result,
+		List<Object> results) {
 
 		List<Object> list = _convertObjectToList(result);
 
 		for (Object object : list) {
 			if (object instanceof List) {
-				Object value = _populateFlagsList(name, object, results);
+				Object value = _populateFlagsList(
+					statements, name, object, results);
 
 				results.add(value);
 			}
 			else {
-				_populateFlags(name, object);
+				_populateFlags(statements, name, object);
 
 				results.add(object);
 			}
@@ -441,6 +610,8 @@ public class JSONWebServiceInvokerAction implements JSONWebServiceAction {
 	}
 
 	private String _command;
+	private boolean _parallelEnabled =
+		PropsValues.JSONWS_WEB_SERVICE_INVOKER_PARALLEL_ENABLED;
 	private HttpServletRequest _request;
 	private List<Statement> _statements = new ArrayList<Statement>();
 
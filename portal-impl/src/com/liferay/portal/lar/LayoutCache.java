@@ -36,6 +36,7 @@ import com.liferay.portal.service.UserLocalServiceUtil;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Charles May
@@ -218,15 +219,17 @@ public class LayoutCache {
 		return userRoles;
 	}
 
-	protected Map<String, Long> entityGroupIdMap = new HashMap<String, Long>();
+	protected Map<String, Long> entityGroupIdMap =
+		new ConcurrentHashMap<String, Long>();
 	protected Map<String, Map<String, Long>> entityMapMap =
-		new HashMap<String, Map<String, Long>>();
+		new ConcurrentHashMap<String, Map<String, Long>>();
 	protected Map<Long, List<Role>> groupRolesMap =
-		new HashMap<Long, List<Role>>();
+		new ConcurrentHashMap<Long, List<Role>>();
 	protected Map<Long, List<User>> groupUsersMap =
-		new HashMap<Long, List<User>>();
-	protected Map<String, Role> rolesMap = new HashMap<String, Role>();
+		new ConcurrentHashMap<Long, List<User>>();
+	protected Map<String, Role> rolesMap =
+		new ConcurrentHashMap<String, Role>();
 	protected Map<Long, List<Role>> userRolesMap =
-		new HashMap<Long, List<Role>>();
+		new ConcurrentHashMap<Long, List<Role>>();
 
 }
\ No newline at end of file
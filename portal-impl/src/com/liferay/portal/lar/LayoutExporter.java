@@ -15,6 +15,10 @@
 package com.liferay.portal.lar;
 
 import com.liferay.portal.NoSuchLayoutException;
+import com.liferay.portal.kernel.concurrent.ConcurrentHashSet;
+import com.liferay.portal.kernel.concurrent.ThreadPoolExecutor;
+import com.liferay.portal.kernel.executor.CopyThreadLocalCallable;
+import com.liferay.portal.kernel.executor.PortalExecutorManagerUtil;
 import com.liferay.portal.kernel.language.LanguageUtil;
 import com.liferay.portal.kernel.lar.ImportExportThreadLocal;
 import com.liferay.portal.kernel.lar.PortletDataContext;
@@ -27,6 +31,7 @@ import com.liferay.portal.kernel.staging.LayoutStagingUtil;
 import com.liferay.portal.kernel.util.CharPool;
 import com.liferay.portal.kernel.util.FileUtil;
 import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.KeyValuePair;
 import com.liferay.portal.kernel.util.LocaleUtil;
 import com.liferay.portal.kernel.util.MapUtil;
 import com.liferay.portal.kernel.util.ParamUtil;
@@ -53,6 +58,7 @@ import com.liferay.portal.model.LayoutSet;
 import com.liferay.portal.model.LayoutSetPrototype;
 import com.liferay.portal.model.LayoutStagingHandler;
 import com.liferay.portal.model.LayoutTypePortlet;
+import com.liferay.portal.model.Lock;
 import com.liferay.portal.model.Portlet;
 import com.liferay.portal.model.PortletConstants;
 import com.liferay.portal.model.Theme;
@@ -78,20 +84,27 @@ import com.liferay.portlet.asset.model.AssetCategory;
 import com.liferay.portlet.asset.model.AssetVocabulary;
 import com.liferay.portlet.asset.service.AssetVocabularyLocalServiceUtil;
 import com.liferay.portlet.asset.service.persistence.AssetCategoryUtil;
+import com.liferay.portlet.expando.model.ExpandoColumn;
 import com.liferay.portlet.journal.NoSuchArticleException;
 import com.liferay.portlet.journal.lar.JournalPortletDataHandlerImpl;
 import com.liferay.portlet.journal.model.JournalArticle;
 import com.liferay.portlet.journal.service.JournalArticleLocalServiceUtil;
+import com.liferay.portlet.messageboards.model.MBMessage;
+import com.liferay.portlet.ratings.model.RatingsEntry;
 import com.liferay.util.ContentUtil;
 
 import java.io.File;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.servlet.ServletContext;
 
@@ -197,6 +210,47 @@ public class LayoutExporter {
 		}
 	}
 
+	protected void addPortletElements(
+			List<Future<Element>> futures, Element portletsElement)
+		throws Exception {
+
+		Exception exception = null;
+
+		for (Future<Element> future : futures) {
+			Element curPortletsElement = null;
+
+			try {
+				curPortletsElement = future.get();
+			}
+			catch (ExecutionException ee) {
+				if (exception != null) {
+					continue;
+				}
+
+				Throwable cause = ee.getCause();
+
+				if (cause instanceof Exception) {
+					exception = (Exception)cause;
+				}
+				else {
+					exception = ee;
+				}
+
+				continue;
+			}
+
+			for (Element element : curPortletsElement.elements()) {
+				element.detach();
+
+				portletsElement.add(element);
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
 	protected File doExportLayoutsAsFile(
 			long groupId, boolean privateLayout, long[] layoutIds,
 			Map<String, String[]> parameterMap, Date startDate, Date endDate)
@@ -287,8 +341,8 @@ public class LayoutExporter {
 		ZipWriter zipWriter = ZipWriterFactoryUtil.getZipWriter();
 
 		PortletDataContext portletDataContext = new PortletDataContextImpl(
-			companyId, groupId, parameterMap, new HashSet<String>(), startDate,
-			endDate, zipWriter);
+			companyId, groupId, parameterMap, new ConcurrentHashSet<String>(),
+			startDate, endDate, zipWriter);
 
 		portletDataContext.setPortetDataContextListener(
 			new PortletDataContextListenerImpl(portletDataContext));
@@ -452,6 +506,8 @@ public class LayoutExporter {
 
 		Element portletsElement = rootElement.addElement("portlets");
 
+		List<Future<Element>> futures = new ArrayList<Future<Element>>();
+
 		for (Map.Entry<String, Object[]> portletIdsEntry :
 				portletIds.entrySet()) {
 
@@ -497,15 +553,28 @@ public class LayoutExporter {
 				layout.setCompanyId(companyId);
 			}
 
+			boolean[] exportPortletControls = getExportPortletControls(
+				companyId, portletId, portletDataContext, parameterMap, type);
+
+			if (PropsValues.STAGING_EXPORT_PARALLEL_ENABLED) {
+				futures.add(
+					exportPortletAsync(
+						portletDataContext, layoutCache, portletId, layout,
+						plid, scopeGroupId, scopeType, scopeLayoutUuid,
+						defaultUserId, exportPermissions,
+						exportPortletArchivedSetups, exportPortletControls[0],
+						exportPortletControls[1],
+						exportPortletUserPreferences));
+
+				continue;
+			}
+
 			portletDataContext.setPlid(plid);
 			portletDataContext.setOldPlid(plid);
 			portletDataContext.setScopeGroupId(scopeGroupId);
 			portletDataContext.setScopeType(scopeType);
 			portletDataContext.setScopeLayoutUuid(scopeLayoutUuid);
 
-			boolean[] exportPortletControls = getExportPortletControls(
-				companyId, portletId, portletDataContext, parameterMap, type);
-
 			_portletExporter.exportPortlet(
 				portletDataContext, layoutCache, portletId, layout,
 				portletsElement, defaultUserId, exportPermissions,
@@ -513,6 +582,8 @@ public class LayoutExporter {
 				exportPortletControls[1], exportPortletUserPreferences);
 		}
 
+		addPortletElements(futures, portletsElement);
+
 		portletDataContext.setScopeGroupId(previousScopeGroupId);
 
 		if (exportCategories || group.isCompany()) {
@@ -908,6 +979,77 @@ public class LayoutExporter {
 		portletDataContext.addZipEntry(path, layout);
 	}
 
+	protected Future<Element> exportPortletAsync(
+			final PortletDataContext portletDataContext,
+			final LayoutCache layoutCache, final String portletId,
+			final Layout layout, long plid, long scopeGroupId,
+			String scopeType, String scopeLayoutUuid, final long defaultUserId,
+			final boolean exportPermissions,
+			final boolean exportPortletArchivedSetups,
+			final boolean exportPortletData, final boolean exportPortletSetup,
+			final boolean exportPortletUserPreferences)
+		throws Exception {
+
+		// Each portlet is exported with its own context so that its scope does
+		// not leak into the portlets that are exported concurrently. The
+		// contexts share the processed paths and the zip writer. The new
+		// primary keys and the data keys that are not unique per layout are
+		// copied into each context and merged back after its export.
+
+		final PortletDataContextImpl curPortletDataContext =
+			new PortletDataContextImpl(
+				portletDataContext.getCompanyId(),
+				portletDataContext.getGroupId(),
+				portletDataContext.getParameterMap(),
+				portletDataContext.getPrimaryKeys(),
+				portletDataContext.getStartDate(),
+				portletDataContext.getEndDate(),
+				portletDataContext.getZipWriter());
+
+		curPortletDataContext.setOldPlid(plid);
+		curPortletDataContext.setPlid(plid);
+		curPortletDataContext.setPortetDataContextListener(
+			new PortletDataContextListenerImpl(curPortletDataContext));
+		curPortletDataContext.setScopeGroupId(scopeGroupId);
+		curPortletDataContext.setScopeLayoutUuid(scopeLayoutUuid);
+		curPortletDataContext.setScopeType(scopeType);
+
+		synchronized (portletDataContext) {
+			mergeNewPrimaryKeys(
+				curPortletDataContext,
+				(PortletDataContextImpl)portletDataContext);
+		}
+
+		Callable<Element> callable = new CopyThreadLocalCallable<Element>(
+			false, true) {
+
+			@Override
+			public Element doCall() throws Exception {
+				Document document = SAXReaderUtil.createDocument();
+
+				Element portletsElement = document.addElement("portlets");
+
+				_portletExporter.exportPortlet(
+					curPortletDataContext, layoutCache, portletId, layout,
+					portletsElement, defaultUserId, exportPermissions,
+					exportPortletArchivedSetups, exportPortletData,
+					exportPortletSetup, exportPortletUserPreferences);
+
+				mergePortletDataContext(
+					portletDataContext, curPortletDataContext);
+
+				return portletsElement;
+			}
+
+		};
+
+		ThreadPoolExecutor threadPoolExecutor =
+			PortalExecutorManagerUtil.getPortalExecutor(
+				LayoutExporter.class.getName());
+
+		return threadPoolExecutor.submit(callable);
+	}
+
 	protected void exportTheme(LayoutSet layoutSet, ZipWriter zipWriter)
 		throws Exception {
 
@@ -1169,6 +1311,89 @@ public class LayoutExporter {
 		return sb.toString();
 	}
 
+	protected void mergeNewPrimaryKeys(
+		PortletDataContextImpl portletDataContextImpl,
+		PortletDataContextImpl curPortletDataContextImpl) {
+
+		Map<String, Map<?, ?>> newPrimaryKeysMaps =
+			curPortletDataContextImpl.getNewPrimaryKeysMaps();
+
+		for (Map.Entry<String, Map<?, ?>> entry :
+				newPrimaryKeysMaps.entrySet()) {
+
+			Map<Object, Object> newPrimaryKeysMap =
+				(Map<Object, Object>)
+					portletDataContextImpl.getNewPrimaryKeysMap(entry.getKey());
+
+			newPrimaryKeysMap.putAll(entry.getValue());
+		}
+
+		Set<String> notUniquePerLayout =
+			portletDataContextImpl.getNotUniquePerLayout();
+
+		notUniquePerLayout.addAll(
+			curPortletDataContextImpl.getNotUniquePerLayout());
+	}
+
+	protected void mergePortletDataContext(
+		PortletDataContext portletDataContext,
+		PortletDataContext curPortletDataContext) {
+
+		synchronized (portletDataContext) {
+			Map<String, long[]> assetCategoryIdsMap =
+				portletDataContext.getAssetCategoryIdsMap();
+
+			assetCategoryIdsMap.putAll(
+				curPortletDataContext.getAssetCategoryIdsMap());
+
+			Map<String, String[]> assetCategoryUuidsMap =
+				portletDataContext.getAssetCategoryUuidsMap();
+
+			assetCategoryUuidsMap.putAll(
+				curPortletDataContext.getAssetCategoryUuidsMap());
+
+			Map<String, String[]> assetLinkUuidsMap =
+				portletDataContext.getAssetLinkUuidsMap();
+
+			assetLinkUuidsMap.putAll(
+				curPortletDataContext.getAssetLinkUuidsMap());
+
+			Map<String, String[]> assetTagNamesMap =
+				portletDataContext.getAssetTagNamesMap();
+
+			assetTagNamesMap.putAll(
+				curPortletDataContext.getAssetTagNamesMap());
+
+			Map<String, List<MBMessage>> commentsMap =
+				portletDataContext.getComments();
+
+			commentsMap.putAll(curPortletDataContext.getComments());
+
+			Map<String, List<ExpandoColumn>> expandoColumnsMap =
+				portletDataContext.getExpandoColumns();
+
+			expandoColumnsMap.putAll(curPortletDataContext.getExpandoColumns());
+
+			Map<String, Lock> locksMap = portletDataContext.getLocks();
+
+			locksMap.putAll(curPortletDataContext.getLocks());
+
+			Map<String, List<KeyValuePair>> permissionsMap =
+				portletDataContext.getPermissions();
+
+			permissionsMap.putAll(curPortletDataContext.getPermissions());
+
+			Map<String, List<RatingsEntry>> ratingsEntriesMap =
+				portletDataContext.getRatingsEntries();
+
+			ratingsEntriesMap.putAll(curPortletDataContext.getRatingsEntries());
+
+			mergeNewPrimaryKeys(
+				(PortletDataContextImpl)portletDataContext,
+				(PortletDataContextImpl)curPortletDataContext);
+		}
+	}
+
 	private static Log _log = LogFactoryUtil.getLog(LayoutExporter.class);
 
 	private PermissionExporter _permissionExporter = new PermissionExporter();
@@ -91,6 +91,7 @@ import com.liferay.portal.service.ResourcePermissionLocalServiceUtil;
 import com.liferay.portal.service.RoleLocalServiceUtil;
 import com.liferay.portal.service.ServiceContext;
 import com.liferay.portal.service.ServiceContextThreadLocal;
+import com.liferay.portal.service.persistence.BatchSessionUtil;
 import com.liferay.portal.service.persistence.LayoutUtil;
 import com.liferay.portal.service.persistence.UserUtil;
 import com.liferay.portal.servlet.filters.cache.CacheUtil;
@@ -139,12 +140,20 @@ public class LayoutImporter {
 			Map<String, String[]> parameterMap, File file)
 		throws Exception {
 
+		boolean batchSessionEnabled = BatchSessionUtil.isEnabled();
+
 		try {
 			ImportExportThreadLocal.setLayoutImportInProcess(true);
 
+			if (PropsValues.STAGING_IMPORT_BATCH_ENABLED) {
+				BatchSessionUtil.setEnabled(true);
+			}
+
 			doImportLayouts(userId, groupId, privateLayout, parameterMap, file);
 		}
 		finally {
+			BatchSessionUtil.setEnabled(batchSessionEnabled);
+
 			ImportExportThreadLocal.setLayoutImportInProcess(false);
 
 			CacheUtil.clearCache();
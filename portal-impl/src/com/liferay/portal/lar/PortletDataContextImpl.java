@@ -523,13 +523,7 @@ public class PortletDataContextImpl implements PortletDataContext {
 	}
 
 	public boolean addPrimaryKey(Class<?> clazz, String primaryKey) {
-		boolean value = hasPrimaryKey(clazz, primaryKey);
-
-		if (!value) {
-			_primaryKeys.add(getPrimaryKeyString(clazz, primaryKey));
-		}
-
-		return value;
+		return !_primaryKeys.add(getPrimaryKeyString(clazz, primaryKey));
 	}
 
 	public void addRatingsEntries(Class<?> clazz, long classPK)
@@ -744,6 +738,14 @@ public class PortletDataContextImpl implements PortletDataContext {
 		return map;
 	}
 
+	public Map<String, Map<?, ?>> getNewPrimaryKeysMaps() {
+		return _newPrimaryKeysMaps;
+	}
+
+	public Set<String> getNotUniquePerLayout() {
+		return _notUniquePerLayout;
+	}
+
 	public long getOldPlid() {
 		return _oldPlid;
 	}
@@ -53,6 +53,7 @@ import com.liferay.portal.model.PortletConstants;
 import com.liferay.portal.model.PortletItem;
 import com.liferay.portal.model.PortletPreferences;
 import com.liferay.portal.model.User;
+import com.liferay.portal.security.pacl.PACLClassLoaderUtil;
 import com.liferay.portal.service.CompanyLocalServiceUtil;
 import com.liferay.portal.service.GroupLocalServiceUtil;
 import com.liferay.portal.service.LayoutLocalServiceUtil;
@@ -80,10 +81,13 @@ import com.liferay.portlet.journal.model.JournalStructure;
 import com.liferay.portlet.journal.service.JournalStructureLocalServiceUtil;
 import com.liferay.portlet.messageboards.model.MBMessage;
 import com.liferay.portlet.ratings.model.RatingsEntry;
-import com.liferay.util.xml.DocUtil;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import java.util.Date;
 import java.util.Enumeration;
@@ -91,6 +95,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
 import org.apache.commons.lang.time.StopWatch;
 
 /**
@@ -142,6 +149,55 @@ public class PortletExporter {
 		}
 	}
 
+	protected void addZipEntry(
+			PortletDataContext portletDataContext, String path, File file)
+		throws Exception {
+
+		InputStream inputStream = new FileInputStream(file);
+
+		try {
+			portletDataContext.addZipEntry(path, inputStream);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	protected XMLStreamWriter createXMLStreamWriter(
+			OutputStream outputStream, String rootElementName)
+		throws Exception {
+
+		XMLOutputFactory xmlOutputFactory = null;
+
+		ClassLoader portalClassLoader =
+			PACLClassLoaderUtil.getPortalClassLoader();
+
+		ClassLoader contextClassLoader =
+			PACLClassLoaderUtil.getContextClassLoader();
+
+		try {
+			if (contextClassLoader != portalClassLoader) {
+				PACLClassLoaderUtil.setContextClassLoader(portalClassLoader);
+			}
+
+			xmlOutputFactory = XMLOutputFactory.newInstance();
+		}
+		finally {
+			if (contextClassLoader != portalClassLoader) {
+				PACLClassLoaderUtil.setContextClassLoader(contextClassLoader);
+			}
+		}
+
+		XMLStreamWriter xmlStreamWriter =
+			xmlOutputFactory.createXMLStreamWriter(
+				outputStream, StringPool.UTF8);
+
+		xmlStreamWriter.writeStartDocument(StringPool.UTF8, "1.0");
+		xmlStreamWriter.writeStartElement(rootElementName);
+
+		return xmlStreamWriter;
+	}
+
 	protected File doExportPortletInfoAsFile(
 			long plid, long groupId, String portletId,
 			Map<String, String[]> parameterMap, Date startDate, Date endDate)
@@ -617,135 +673,199 @@ public class PortletExporter {
 	protected void exportComments(PortletDataContext portletDataContext)
 		throws Exception {
 
-		Document document = SAXReaderUtil.createDocument();
+		File file = FileUtil.createTempFile();
 
-		Element rootElement = document.addElement("comments");
+		try {
+			OutputStream outputStream = new FileOutputStream(file);
 
-		Map<String, List<MBMessage>> commentsMap =
-			portletDataContext.getComments();
+			try {
+				XMLStreamWriter xmlStreamWriter = createXMLStreamWriter(
+					outputStream, "comments");
 
-		for (Map.Entry<String, List<MBMessage>> entry :
-				commentsMap.entrySet()) {
+				Map<String, List<MBMessage>> commentsMap =
+					portletDataContext.getComments();
 
-			String[] commentParts = StringUtil.split(
-				entry.getKey(), CharPool.POUND);
+				for (Map.Entry<String, List<MBMessage>> entry :
+						commentsMap.entrySet()) {
 
-			String className = commentParts[0];
-			String classPK = commentParts[1];
+					String[] commentParts = StringUtil.split(
+						entry.getKey(), CharPool.POUND);
 
-			String commentsPath = getCommentsPath(
-				portletDataContext, className, classPK);
+					String className = commentParts[0];
+					String classPK = commentParts[1];
 
-			Element assetElement = rootElement.addElement("asset");
+					String commentsPath = getCommentsPath(
+						portletDataContext, className, classPK);
 
-			assetElement.addAttribute("path", commentsPath);
-			assetElement.addAttribute("class-name", className);
-			assetElement.addAttribute("class-pk", classPK);
+					xmlStreamWriter.writeEmptyElement("asset");
+
+					xmlStreamWriter.writeAttribute("path", commentsPath);
+					xmlStreamWriter.writeAttribute("class-name", className);
+					xmlStreamWriter.writeAttribute("class-pk", classPK);
+
+					List<MBMessage> mbMessages = entry.getValue();
 
-			List<MBMessage> mbMessages = entry.getValue();
+					for (MBMessage mbMessage : mbMessages) {
+						String commentPath = getCommentPath(
+							portletDataContext, className, classPK, mbMessage);
 
-			for (MBMessage mbMessage : mbMessages) {
-				String commentPath = getCommentPath(
-					portletDataContext, className, classPK, mbMessage);
+						if (portletDataContext.isPathNotProcessed(
+								commentPath)) {
 
-				if (portletDataContext.isPathNotProcessed(commentPath)) {
-					portletDataContext.addZipEntry(commentPath, mbMessage);
+							portletDataContext.addZipEntry(
+								commentPath, mbMessage);
+						}
+					}
 				}
+
+				xmlStreamWriter.writeEndDocument();
+
+				xmlStreamWriter.close();
+			}
+			finally {
+				outputStream.close();
 			}
-		}
 
-		portletDataContext.addZipEntry(
-			portletDataContext.getRootPath() + "/comments.xml",
-			document.formattedString());
+			addZipEntry(
+				portletDataContext,
+				portletDataContext.getRootPath() + "/comments.xml", file);
+		}
+		finally {
+			FileUtil.delete(file);
+		}
 	}
 
 	protected void exportExpandoTables(PortletDataContext portletDataContext)
 		throws Exception {
 
-		Document document = SAXReaderUtil.createDocument();
+		File file = FileUtil.createTempFile();
+
+		try {
+			OutputStream outputStream = new FileOutputStream(file);
+
+			try {
+				XMLStreamWriter xmlStreamWriter = createXMLStreamWriter(
+					outputStream, "expando-tables");
 
-		Element rootElement = document.addElement("expando-tables");
+				Map<String, List<ExpandoColumn>> expandoColumnsMap =
+					portletDataContext.getExpandoColumns();
 
-		Map<String, List<ExpandoColumn>> expandoColumnsMap =
-			portletDataContext.getExpandoColumns();
+				for (Map.Entry<String, List<ExpandoColumn>> entry :
+						expandoColumnsMap.entrySet()) {
 
-		for (Map.Entry<String, List<ExpandoColumn>> entry :
-				expandoColumnsMap.entrySet()) {
+					String className = entry.getKey();
 
-			String className = entry.getKey();
+					xmlStreamWriter.writeStartElement("expando-table");
 
-			Element expandoTableElement = rootElement.addElement(
-				"expando-table");
+					xmlStreamWriter.writeAttribute("class-name", className);
 
-			expandoTableElement.addAttribute("class-name", className);
+					List<ExpandoColumn> expandoColumns = entry.getValue();
 
-			List<ExpandoColumn> expandoColumns = entry.getValue();
+					for (ExpandoColumn expandoColumn : expandoColumns) {
+						xmlStreamWriter.writeStartElement("expando-column");
 
-			for (ExpandoColumn expandoColumn : expandoColumns) {
-				Element expandoColumnElement = expandoTableElement.addElement(
-					"expando-column");
+						xmlStreamWriter.writeAttribute(
+							"column-id",
+							String.valueOf(expandoColumn.getColumnId()));
+						xmlStreamWriter.writeAttribute(
+							"name", expandoColumn.getName());
+						xmlStreamWriter.writeAttribute(
+							"type", String.valueOf(expandoColumn.getType()));
 
-				expandoColumnElement.addAttribute(
-					"column-id", String.valueOf(expandoColumn.getColumnId()));
-				expandoColumnElement.addAttribute(
-					"name", expandoColumn.getName());
-				expandoColumnElement.addAttribute(
-					"type", String.valueOf(expandoColumn.getType()));
+						xmlStreamWriter.writeStartElement("default-data");
 
-				DocUtil.add(
-					expandoColumnElement, "default-data",
-					expandoColumn.getDefaultData());
+						xmlStreamWriter.writeCharacters(
+							GetterUtil.getString(
+								expandoColumn.getDefaultData()));
 
-				Element typeSettingsElement = expandoColumnElement.addElement(
-					"type-settings");
+						xmlStreamWriter.writeEndElement();
 
-				UnicodeProperties typeSettingsProperties =
-					expandoColumn.getTypeSettingsProperties();
+						xmlStreamWriter.writeStartElement("type-settings");
 
-				typeSettingsElement.addCDATA(typeSettingsProperties.toString());
+						UnicodeProperties typeSettingsProperties =
+							expandoColumn.getTypeSettingsProperties();
+
+						xmlStreamWriter.writeCData(
+							typeSettingsProperties.toString());
+
+						xmlStreamWriter.writeEndElement();
+
+						xmlStreamWriter.writeEndElement();
+					}
+
+					xmlStreamWriter.writeEndElement();
+				}
+
+				xmlStreamWriter.writeEndDocument();
+
+				xmlStreamWriter.close();
+			}
+			finally {
+				outputStream.close();
 			}
-		}
 
-		portletDataContext.addZipEntry(
-			portletDataContext.getRootPath() + "/expando-tables.xml",
-			document.formattedString());
+			addZipEntry(
+				portletDataContext,
+				portletDataContext.getRootPath() + "/expando-tables.xml", file);
+		}
+		finally {
+			FileUtil.delete(file);
+		}
 	}
 
 	protected void exportLocks(PortletDataContext portletDataContext)
 		throws Exception {
 
-		Document document = SAXReaderUtil.createDocument();
+		File file = FileUtil.createTempFile();
 
-		Element rootElement = document.addElement("locks");
+		try {
+			OutputStream outputStream = new FileOutputStream(file);
 
-		Map<String, Lock> locksMap = portletDataContext.getLocks();
+			try {
+				XMLStreamWriter xmlStreamWriter = createXMLStreamWriter(
+					outputStream, "locks");
 
-		for (Map.Entry<String, Lock> entry : locksMap.entrySet()) {
-			Lock lock = entry.getValue();
+				Map<String, Lock> locksMap = portletDataContext.getLocks();
 
-			String entryKey = entry.getKey();
+				for (Map.Entry<String, Lock> entry : locksMap.entrySet()) {
+					Lock lock = entry.getValue();
 
-			int pos = entryKey.indexOf(CharPool.POUND);
+					String entryKey = entry.getKey();
 
-			String className = entryKey.substring(0, pos);
-			String key = entryKey.substring(pos + 1);
+					int pos = entryKey.indexOf(CharPool.POUND);
 
-			String path = getLockPath(portletDataContext, className, key, lock);
+					String className = entryKey.substring(0, pos);
+					String key = entryKey.substring(pos + 1);
 
-			Element assetElement = rootElement.addElement("asset");
+					String path = getLockPath(
+						portletDataContext, className, key, lock);
 
-			assetElement.addAttribute("path", path);
-			assetElement.addAttribute("class-name", className);
-			assetElement.addAttribute("key", key);
+					xmlStreamWriter.writeEmptyElement("asset");
 
-			if (portletDataContext.isPathNotProcessed(path)) {
-				portletDataContext.addZipEntry(path, lock);
+					xmlStreamWriter.writeAttribute("path", path);
+					xmlStreamWriter.writeAttribute("class-name", className);
+					xmlStreamWriter.writeAttribute("key", key);
+
+					if (portletDataContext.isPathNotProcessed(path)) {
+						portletDataContext.addZipEntry(path, lock);
+					}
+				}
+
+				xmlStreamWriter.writeEndDocument();
+
+				xmlStreamWriter.close();
+			}
+			finally {
+				outputStream.close();
 			}
-		}
 
-		portletDataContext.addZipEntry(
-			portletDataContext.getRootPath() + "/locks.xml",
-			document.formattedString());
+			addZipEntry(
+				portletDataContext,
+				portletDataContext.getRootPath() + "/locks.xml", file);
+		}
+		finally {
+			FileUtil.delete(file);
+		}
 	}
 
 	protected void exportPortlet(
@@ -1187,44 +1307,63 @@ public class PortletExporter {
 			PortletDataContext portletDataContext, Element parentElement)
 		throws Exception {
 
-		Document document = SAXReaderUtil.createDocument();
+		File file = FileUtil.createTempFile();
 
-		Element rootElement = document.addElement("ratings");
+		try {
+			OutputStream outputStream = new FileOutputStream(file);
 
-		Map<String, List<RatingsEntry>> ratingsEntriesMap =
-			portletDataContext.getRatingsEntries();
+			try {
+				XMLStreamWriter xmlStreamWriter = createXMLStreamWriter(
+					outputStream, "ratings");
 
-		for (Map.Entry<String, List<RatingsEntry>> entry :
-				ratingsEntriesMap.entrySet()) {
+				Map<String, List<RatingsEntry>> ratingsEntriesMap =
+					portletDataContext.getRatingsEntries();
 
-			String[] ratingsEntryParts = StringUtil.split(
-				entry.getKey(), CharPool.POUND);
+				for (Map.Entry<String, List<RatingsEntry>> entry :
+						ratingsEntriesMap.entrySet()) {
 
-			String className = ratingsEntryParts[0];
-			String classPK = ratingsEntryParts[1];
+					String[] ratingsEntryParts = StringUtil.split(
+						entry.getKey(), CharPool.POUND);
 
-			String ratingsEntriesPath = getRatingsEntriesPath(
-				portletDataContext, className, classPK);
+					String className = ratingsEntryParts[0];
+					String classPK = ratingsEntryParts[1];
 
-			Element assetElement = rootElement.addElement("asset");
+					String ratingsEntriesPath = getRatingsEntriesPath(
+						portletDataContext, className, classPK);
 
-			assetElement.addAttribute("path", ratingsEntriesPath);
-			assetElement.addAttribute("class-name", className);
-			assetElement.addAttribute("class-pk", classPK);
+					xmlStreamWriter.writeEmptyElement("asset");
 
-			List<RatingsEntry> ratingsEntries = entry.getValue();
+					xmlStreamWriter.writeAttribute("path", ratingsEntriesPath);
+					xmlStreamWriter.writeAttribute("class-name", className);
+					xmlStreamWriter.writeAttribute("class-pk", classPK);
 
-			for (RatingsEntry ratingsEntry : ratingsEntries) {
-				String ratingsEntryPath = getRatingsEntryPath(
-					portletDataContext, className, classPK, ratingsEntry);
+					List<RatingsEntry> ratingsEntries = entry.getValue();
 
-				portletDataContext.addZipEntry(ratingsEntryPath, ratingsEntry);
+					for (RatingsEntry ratingsEntry : ratingsEntries) {
+						String ratingsEntryPath = getRatingsEntryPath(
+							portletDataContext, className, classPK,
+							ratingsEntry);
+
+						portletDataContext.addZipEntry(
+							ratingsEntryPath, ratingsEntry);
+					}
+				}
+
+				xmlStreamWriter.writeEndDocument();
+
+				xmlStreamWriter.close();
+			}
+			finally {
+				outputStream.close();
 			}
-		}
 
-		portletDataContext.addZipEntry(
-			portletDataContext.getRootPath() + "/ratings.xml",
-			document.formattedString());
+			addZipEntry(
+				portletDataContext,
+				portletDataContext.getRootPath() + "/ratings.xml", file);
+		}
+		finally {
+			FileUtil.delete(file);
+		}
 	}
 
 	protected String getAssetCategoryPath(
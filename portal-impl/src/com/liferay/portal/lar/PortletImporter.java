@@ -70,11 +70,13 @@ import com.liferay.portal.service.PortletLocalServiceUtil;
 import com.liferay.portal.service.PortletPreferencesLocalServiceUtil;
 import com.liferay.portal.service.ServiceContext;
 import com.liferay.portal.service.UserLocalServiceUtil;
+import com.liferay.portal.service.persistence.BatchSessionUtil;
 import com.liferay.portal.service.persistence.PortletPreferencesUtil;
 import com.liferay.portal.service.persistence.UserUtil;
 import com.liferay.portal.servlet.filters.cache.CacheUtil;
 import com.liferay.portal.util.PortalUtil;
 import com.liferay.portal.util.PortletKeys;
+import com.liferay.portal.util.PropsValues;
 import com.liferay.portlet.PortletPreferencesFactoryUtil;
 import com.liferay.portlet.PortletPreferencesImpl;
 import com.liferay.portlet.asset.NoSuchCategoryException;
@@ -137,13 +139,21 @@ public class PortletImporter {
 			Map<String, String[]> parameterMap, File file)
 		throws Exception {
 
+		boolean batchSessionEnabled = BatchSessionUtil.isEnabled();
+
 		try {
 			ImportExportThreadLocal.setPortletImportInProcess(true);
 
+			if (PropsValues.STAGING_IMPORT_BATCH_ENABLED) {
+				BatchSessionUtil.setEnabled(true);
+			}
+
 			doImportPortletInfo(
 				userId, plid, groupId, portletId, parameterMap, file);
 		}
 		finally {
+			BatchSessionUtil.setEnabled(batchSessionEnabled);
+
 			ImportExportThreadLocal.setPortletImportInProcess(false);
 
 			CacheUtil.clearCache();
@@ -65,7 +65,7 @@ public class LiveUsers {
 	}
 
 	public static int getGroupUsersCount(long companyId, long groupId) {
-		return getGroupUsers(companyId, groupId).size();
+		return _instance._getGroupUsersCount(companyId, groupId);
 	}
 
 	public static Map<Long, Map<Long, Set<String>>> getLocalClusterUsers()
@@ -235,6 +235,18 @@ public class LiveUsers {
 		return groupUsers;
 	}
 
+	private int _getGroupUsersCount(long companyId, long groupId) {
+		Map<Long, Set<Long>> liveUsers = _getLiveUsers(companyId);
+
+		Set<Long> groupUsers = liveUsers.get(groupId);
+
+		if (groupUsers == null) {
+			return 0;
+		}
+
+		return groupUsers.size();
+	}
+
 	private Map<Long, Set<Long>> _getLiveUsers(long companyId) {
 		Map<Long, Set<Long>> liveUsers = _liveUsers.get(companyId);
 
@@ -271,6 +283,39 @@ public class LiveUsers {
 		return sessionUsers;
 	}
 
+	private Set<Long> _getUserGroupIds(long companyId, long userId)
+		throws SystemException {
+
+		LinkedHashMap<String, Object> groupParams =
+			new LinkedHashMap<String, Object>();
+
+		groupParams.put("usersGroups", userId);
+
+		List<Group> groups = GroupLocalServiceUtil.search(
+			companyId, null, null, groupParams, QueryUtil.ALL_POS,
+			QueryUtil.ALL_POS);
+
+		Set<Long> groupIds = new ConcurrentHashSet<Long>();
+
+		for (Group group : groups) {
+			groupIds.add(group.getGroupId());
+		}
+
+		return groupIds;
+	}
+
+	private Map<Long, Set<Long>> _getUserGroupIdsMap(long companyId) {
+		Map<Long, Set<Long>> userGroupIdsMap = _userGroupIds.get(companyId);
+
+		if (userGroupIdsMap == null) {
+			userGroupIdsMap = new ConcurrentHashMap<Long, Set<Long>>();
+
+			_userGroupIds.put(companyId, userGroupIdsMap);
+		}
+
+		return userGroupIdsMap;
+	}
+
 	private UserTracker _getUserTracker(long companyId, String sessionId) {
 		Map<String, UserTracker> sessionUsers = _getSessionUsers(companyId);
 
@@ -304,6 +349,8 @@ public class LiveUsers {
 
 		if (_getUserTrackers(companyId, userId) != null) {
 			groupUsers.add(userId);
+
+			_updateUserGroupIds(companyId, groupId, userId, true);
 		}
 	}
 
@@ -315,16 +362,20 @@ public class LiveUsers {
 		for (long userId : userIds) {
 			if (_getUserTrackers(companyId, userId) != null) {
 				groupUsers.add(userId);
+
+				_updateUserGroupIds(companyId, groupId, userId, true);
 			}
 		}
 	}
 
-	private void _leaveGroup(long companyId, long userId, long groupId) {
+	private void _leaveGroup(long companyId, long groupId, long userId) {
 		Map<Long, Set<Long>> liveUsers = _getLiveUsers(companyId);
 
 		Set<Long> groupUsers = _getGroupUsers(liveUsers, groupId);
 
 		groupUsers.remove(userId);
+
+		_updateUserGroupIds(companyId, groupId, userId, false);
 	}
 
 	private void _leaveGroup(long companyId, long groupId, long[] userIds) {
@@ -334,6 +385,8 @@ public class LiveUsers {
 
 		for (long userId : userIds) {
 			groupUsers.remove(userId);
+
+			_updateUserGroupIds(companyId, groupId, userId, false);
 		}
 	}
 
@@ -509,30 +562,68 @@ public class LiveUsers {
 
 		Map<Long, Set<Long>> liveUsers = _getLiveUsers(companyId);
 
-		LinkedHashMap<String, Object> groupParams =
-			new LinkedHashMap<String, Object>();
+		// The groups of a signed in user are remembered so that signing in
+		// again from another session and signing out do not have to search
+		// the groups of the user again
 
-		groupParams.put("usersGroups", userId);
+		Map<Long, Set<Long>> userGroupIdsMap = _getUserGroupIdsMap(companyId);
 
-		List<Group> groups = GroupLocalServiceUtil.search(
-			companyId, null, null, groupParams, QueryUtil.ALL_POS,
-			QueryUtil.ALL_POS);
+		Set<Long> groupIds = null;
 
-		for (Group group : groups) {
-			Set<Long> groupUsers = _getGroupUsers(
-				liveUsers, group.getGroupId());
+		if (signedIn) {
+			groupIds = userGroupIdsMap.get(userId);
+
+			if (groupIds == null) {
+				groupIds = _getUserGroupIds(companyId, userId);
+
+				userGroupIdsMap.put(userId, groupIds);
+			}
+		}
+		else {
+			groupIds = userGroupIdsMap.remove(userId);
 
+			if (groupIds == null) {
+				groupIds = _getUserGroupIds(companyId, userId);
+			}
+		}
+
+		for (long groupId : groupIds) {
 			if (signedIn) {
+				Set<Long> groupUsers = _getGroupUsers(liveUsers, groupId);
+
 				groupUsers.add(userId);
 			}
 			else {
-				groupUsers.remove(userId);
+				Set<Long> groupUsers = liveUsers.get(groupId);
+
+				if (groupUsers != null) {
+					groupUsers.remove(userId);
+				}
 			}
 		}
 
 		return liveUsers;
 	}
 
+	private void _updateUserGroupIds(
+		long companyId, long groupId, long userId, boolean joined) {
+
+		Map<Long, Set<Long>> userGroupIdsMap = _getUserGroupIdsMap(companyId);
+
+		Set<Long> groupIds = userGroupIdsMap.get(userId);
+
+		if (groupIds == null) {
+			return;
+		}
+
+		if (joined) {
+			groupIds.add(groupId);
+		}
+		else {
+			groupIds.remove(groupId);
+		}
+	}
+
 	private static Log _log = LogFactoryUtil.getLog(LiveUsers.class);
 
 	private static LiveUsers _instance = new LiveUsers();
@@ -543,6 +634,8 @@ public class LiveUsers {
 		new ConcurrentHashMap<Long, Map<Long, Set<Long>>>();
 	private Map<Long, Map<String, UserTracker>> _sessionUsers =
 		new ConcurrentHashMap<Long, Map<String, UserTracker>>();
+	private Map<Long, Map<Long, Set<Long>>> _userGroupIds =
+		new ConcurrentHashMap<Long, Map<Long, Set<Long>>>();
 	private Map<Long, Map<Long, List<UserTracker>>> _userTrackers =
 		new ConcurrentHashMap<Long, Map<Long, List<UserTracker>>>();
 
@@ -18,6 +18,7 @@ import com.liferay.portal.ModelListenerException;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.staging.LayoutStagingUtil;
+import com.liferay.portal.model.impl.LayoutRenderPlanCacheUtil;
 import com.liferay.portal.service.LayoutRevisionLocalServiceUtil;
 import com.liferay.portal.servlet.filters.cache.CacheUtil;
 
@@ -67,6 +68,8 @@ public class LayoutListener extends BaseModelListener<Layout> {
 	}
 
 	protected void clearCache(Layout layout) {
+		LayoutRenderPlanCacheUtil.removeLayoutRenderPlan(layout.getPlid());
+
 		if (!layout.isPrivateLayout()) {
 			CacheUtil.clearCache(layout.getCompanyId());
 		}
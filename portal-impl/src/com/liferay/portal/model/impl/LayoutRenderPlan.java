@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.model.impl;
+
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.UnicodeProperties;
+import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.model.Layout;
+import com.liferay.portal.model.LayoutTemplate;
+import com.liferay.portal.model.LayoutTypePortletConstants;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the column structure of a portlet layout resolved from its type
+ * settings and layout template, so that page assembly does not split the same
+ * column values again on every request. A plan is immutable and is shared
+ * across requests through {@link LayoutRenderPlanCacheUtil}. Parsed column
+ * values are only handed out while they still match the raw type settings, so
+ * a plan never hides unsaved changes made to a layout.
+ */
+public class LayoutRenderPlan implements Serializable {
+
+	public LayoutRenderPlan(
+		Layout layout, LayoutTemplate layoutTemplate, String layoutTemplateId,
+		String themeId) {
+
+		_layoutTemplateId = layoutTemplateId;
+		_modifiedTime = getTime(layout.getModifiedDate());
+		_themeId = themeId;
+		_typePanel = layout.isTypePanel();
+		_typePortlet = layout.isTypePortlet();
+
+		List<String> columns = new ArrayList<String>();
+		List<String> layoutTemplateColumns = new ArrayList<String>();
+
+		UnicodeProperties typeSettingsProperties =
+			layout.getTypeSettingsProperties();
+
+		if (layout.isTypePortlet()) {
+			layoutTemplateColumns.addAll(layoutTemplate.getColumns());
+
+			columns.addAll(layoutTemplateColumns);
+
+			_nestedColumnIds = typeSettingsProperties.getProperty(
+				LayoutTypePortletConstants.NESTED_COLUMN_IDS);
+
+			for (String nestedColumnId : StringUtil.split(_nestedColumnIds)) {
+				columns.add(nestedColumnId);
+			}
+		}
+		else if (layout.isTypePanel()) {
+			columns.add("panelSelectedPortlets");
+		}
+
+		_columns = Collections.unmodifiableList(columns);
+		_layoutTemplateColumns = Collections.unmodifiableList(
+			layoutTemplateColumns);
+
+		_columnPortletIds = new HashMap<String, String[]>(columns.size());
+		_columnValues = new HashMap<String, String>(columns.size());
+
+		for (String columnId : columns) {
+			String columnValue = typeSettingsProperties.getProperty(columnId);
+
+			_columnPortletIds.put(columnId, StringUtil.split(columnValue));
+			_columnValues.put(columnId, columnValue);
+		}
+	}
+
+	/**
+	 * Returns the portlet IDs parsed from the column value. The returned array
+	 * is shared and must not be modified.
+	 *
+	 * @param  columnId the column ID
+	 * @param  columnValue the current value of the column
+	 * @return the portlet IDs, or <code>null</code> if the column is not part
+	 *         of this plan or its value has changed since the plan was built
+	 */
+	public String[] getColumnPortletIds(String columnId, String columnValue) {
+		if (!Validator.equals(_columnValues.get(columnId), columnValue)) {
+			return null;
+		}
+
+		return _columnPortletIds.get(columnId);
+	}
+
+	public List<String> getColumns() {
+		return _columns;
+	}
+
+	public List<String> getLayoutTemplateColumns() {
+		return _layoutTemplateColumns;
+	}
+
+	public boolean isValid(
+		Layout layout, String layoutTemplateId, String themeId) {
+
+		String nestedColumnIds = null;
+
+		if (layout.isTypePortlet()) {
+			UnicodeProperties typeSettingsProperties =
+				layout.getTypeSettingsProperties();
+
+			nestedColumnIds = typeSettingsProperties.getProperty(
+				LayoutTypePortletConstants.NESTED_COLUMN_IDS);
+		}
+
+		if ((_modifiedTime == getTime(layout.getModifiedDate())) &&
+			Validator.equals(_layoutTemplateId, layoutTemplateId) &&
+			Validator.equals(_nestedColumnIds, nestedColumnIds) &&
+			Validator.equals(_themeId, themeId) &&
+			(_typePanel == layout.isTypePanel()) &&
+			(_typePortlet == layout.isTypePortlet())) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	protected long getTime(Date date) {
+		if (date == null) {
+			return 0;
+		}
+
+		return date.getTime();
+	}
+
+	private Map<String, String[]> _columnPortletIds;
+	private Map<String, String> _columnValues;
+	private List<String> _columns;
+	private List<String> _layoutTemplateColumns;
+	private String _layoutTemplateId;
+	private long _modifiedTime;
+	private String _nestedColumnIds;
+	private String _themeId;
+	private boolean _typePanel;
+	private boolean _typePortlet;
+
+}
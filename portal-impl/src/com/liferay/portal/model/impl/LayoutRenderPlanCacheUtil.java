@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.model.impl;
+
+import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
+import com.liferay.portal.kernel.cache.PortalCache;
+
+public class LayoutRenderPlanCacheUtil {
+
+	public static final String CACHE_NAME =
+		LayoutRenderPlanCacheUtil.class.getName();
+
+	public static void clearCache() {
+		_portalCache.removeAll();
+	}
+
+	public static LayoutRenderPlan getLayoutRenderPlan(long plid) {
+		return _portalCache.get(plid);
+	}
+
+	public static void putLayoutRenderPlan(
+		long plid, LayoutRenderPlan layoutRenderPlan) {
+
+		_portalCache.put(plid, layoutRenderPlan);
+	}
+
+	public static void removeLayoutRenderPlan(long plid) {
+		_portalCache.remove(plid);
+	}
+
+	private static PortalCache<Long, LayoutRenderPlan> _portalCache =
+		MultiVMPoolUtil.getCache(CACHE_NAME);
+
+}
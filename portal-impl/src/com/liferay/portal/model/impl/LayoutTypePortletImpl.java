@@ -20,6 +20,7 @@ import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.portlet.PortletLayoutListener;
+import com.liferay.portal.kernel.staging.LayoutStagingUtil;
 import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.DateFormatFactoryUtil;
 import com.liferay.portal.kernel.util.FastDateFormatFactoryUtil;
@@ -269,9 +270,7 @@ public class LayoutTypePortletImpl
 	public List<Portlet> getAllPortlets(String columnId)
 		throws PortalException, SystemException {
 
-		String columnValue = getColumnValue(columnId);
-
-		String[] portletIds = StringUtil.split(columnValue);
+		String[] portletIds = getColumnPortletIds(columnId);
 
 		List<Portlet> portlets = new ArrayList<Portlet>(portletIds.length);
 
@@ -309,26 +308,7 @@ public class LayoutTypePortletImpl
 	}
 
 	public LayoutTemplate getLayoutTemplate() {
-		String themeId = getThemeId();
-
-		LayoutTemplate layoutTemplate =
-			LayoutTemplateLocalServiceUtil.getLayoutTemplate(
-				getLayoutTemplateId(), false, themeId);
-
-		if (layoutTemplate == null) {
-			layoutTemplate = new LayoutTemplateImpl(
-				StringPool.BLANK, StringPool.BLANK);
-
-			List<String> columns = new ArrayList<String>();
-
-			for (int i = 1; i <= 10; i++) {
-				columns.add(LayoutTypePortletConstants.COLUMN_PREFIX + i);
-			}
-
-			layoutTemplate.setColumns(columns);
-		}
-
-		return layoutTemplate;
+		return getLayoutTemplate(getLayoutTemplateId(), getThemeId());
 	}
 
 	public String getLayoutTemplateId() {
@@ -385,7 +365,12 @@ public class LayoutTypePortletImpl
 	}
 
 	public int getNumOfColumns() {
-		return getLayoutTemplate().getColumns().size();
+		LayoutRenderPlan layoutRenderPlan = getLayoutRenderPlan();
+
+		List<String> layoutTemplateColumns =
+			layoutRenderPlan.getLayoutTemplateColumns();
+
+		return layoutTemplateColumns.size();
 	}
 
 	public PortalPreferences getPortalPreferences() {
@@ -400,10 +385,11 @@ public class LayoutTypePortletImpl
 		for (int i = 0; i < columns.size(); i++) {
 			String columnId = columns.get(i);
 
-			String columnValue = getColumnValue(columnId);
+			String[] columnPortletIds = getColumnPortletIds(columnId);
 
-			portletIds.addAll(
-				ListUtil.fromArray(StringUtil.split(columnValue)));
+			for (String columnPortletId : columnPortletIds) {
+				portletIds.add(columnPortletId);
+			}
 		}
 
 		return portletIds;
@@ -1229,9 +1215,7 @@ public class LayoutTypePortletImpl
 		List<String> columns = getColumns();
 
 		for (String columnId : columns) {
-			String columnValue = getColumnValue(columnId);
-
-			String[] portletIds = StringUtil.split(columnValue);
+			String[] portletIds = getColumnPortletIds(columnId);
 
 			for (String columnPortletId : portletIds) {
 				if (PortletConstants.hasIdenticalRootPortletId(
@@ -1245,23 +1229,25 @@ public class LayoutTypePortletImpl
 		return StringPool.BLANK;
 	}
 
-	protected List<String> getColumns() {
-		List<String> columns = new ArrayList<String>();
-
-		Layout layout = getLayout();
+	protected String[] getColumnPortletIds(String columnId) {
+		String columnValue = getColumnValue(columnId);
 
-		if (layout.isTypePortlet()) {
-			LayoutTemplate layoutTemplate = getLayoutTemplate();
+		LayoutRenderPlan layoutRenderPlan = getLayoutRenderPlan();
 
-			columns.addAll(layoutTemplate.getColumns());
+		String[] portletIds = layoutRenderPlan.getColumnPortletIds(
+			columnId, columnValue);
 
-			columns.addAll(getNestedColumns());
-		}
-		else if (layout.isTypePanel()) {
-			columns.add("panelSelectedPortlets");
+		if (portletIds == null) {
+			portletIds = StringUtil.split(columnValue);
 		}
 
-		return columns;
+		return portletIds;
+	}
+
+	protected List<String> getColumns() {
+		LayoutRenderPlan layoutRenderPlan = getLayoutRenderPlan();
+
+		return layoutRenderPlan.getColumns();
 	}
 
 	protected String getColumnValue(String columnId) {
@@ -1371,6 +1357,77 @@ public class LayoutTypePortletImpl
 		return _embeddedPortlets;
 	}
 
+	protected LayoutRenderPlan getLayoutRenderPlan() {
+		Layout layout = getLayout();
+
+		String layoutTemplateId = getLayoutTemplateId();
+		String themeId = getThemeId();
+
+		if ((_layoutRenderPlan != null) &&
+			_layoutRenderPlan.isValid(layout, layoutTemplateId, themeId)) {
+
+			return _layoutRenderPlan;
+		}
+
+		boolean cacheable = false;
+
+		if (!layout.isNew() && !LayoutStagingUtil.isBranchingLayout(layout)) {
+
+			cacheable = true;
+		}
+
+		LayoutRenderPlan layoutRenderPlan = null;
+
+		if (cacheable) {
+			layoutRenderPlan = LayoutRenderPlanCacheUtil.getLayoutRenderPlan(
+				layout.getPlid());
+
+			if ((layoutRenderPlan != null) &&
+				!layoutRenderPlan.isValid(layout, layoutTemplateId, themeId)) {
+
+				layoutRenderPlan = null;
+			}
+		}
+
+		if (layoutRenderPlan == null) {
+			layoutRenderPlan = new LayoutRenderPlan(
+				layout, getLayoutTemplate(layoutTemplateId, themeId),
+				layoutTemplateId, themeId);
+
+			if (cacheable) {
+				LayoutRenderPlanCacheUtil.putLayoutRenderPlan(
+					layout.getPlid(), layoutRenderPlan);
+			}
+		}
+
+		_layoutRenderPlan = layoutRenderPlan;
+
+		return layoutRenderPlan;
+	}
+
+	protected LayoutTemplate getLayoutTemplate(
+		String layoutTemplateId, String themeId) {
+
+		LayoutTemplate layoutTemplate =
+			LayoutTemplateLocalServiceUtil.getLayoutTemplate(
+				layoutTemplateId, false, themeId);
+
+		if (layoutTemplate == null) {
+			layoutTemplate = new LayoutTemplateImpl(
+				StringPool.BLANK, StringPool.BLANK);
+
+			List<String> columns = new ArrayList<String>();
+
+			for (int i = 1; i <= 10; i++) {
+				columns.add(LayoutTypePortletConstants.COLUMN_PREFIX + i);
+			}
+
+			layoutTemplate.setColumns(columns);
+		}
+
+		return layoutTemplate;
+	}
+
 	protected List<String> getNestedColumns() {
 		String nestedColumnIds = getTypeSettingsProperty(
 			LayoutTypePortletConstants.NESTED_COLUMN_IDS);
@@ -1540,9 +1597,9 @@ public class LayoutTypePortletImpl
 	}
 
 	protected boolean hasNonstaticPortletId(String portletId) {
-		LayoutTemplate layoutTemplate = getLayoutTemplate();
+		LayoutRenderPlan layoutRenderPlan = getLayoutRenderPlan();
 
-		List<String> columns = layoutTemplate.getColumns();
+		List<String> columns = layoutRenderPlan.getLayoutTemplateColumns();
 
 		for (int i = 0; i < columns.size(); i++) {
 			String columnId = columns.get(i);
@@ -1556,9 +1613,7 @@ public class LayoutTypePortletImpl
 	}
 
 	protected boolean hasNonstaticPortletId(String columnId, String portletId) {
-		String columnValue = getColumnValue(columnId);
-
-		String[] columnValues = StringUtil.split(columnValue);
+		String[] columnValues = getColumnPortletIds(columnId);
 
 		for (String nonstaticPortletId : columnValues) {
 			if (nonstaticPortletId.equals(portletId) ||
@@ -1745,6 +1800,7 @@ public class LayoutTypePortletImpl
 		PropsValues.INDEX_DATE_FORMAT_PATTERN);
 	private List<Portlet> _embeddedPortlets;
 	private boolean _enablePortletLayoutListener = true;
+	private LayoutRenderPlan _layoutRenderPlan;
 	private Layout _layoutSetPrototypeLayout;
 	private PortalPreferences _portalPreferences;
 	private boolean _updatePermission;
@@ -28,7 +28,6 @@ import com.liferay.portal.kernel.util.SetUtil;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
-import com.liferay.portal.kernel.util.UniqueList;
 import com.liferay.portal.model.Address;
 import com.liferay.portal.model.Group;
 import com.liferay.portal.model.LayoutSet;
@@ -155,14 +154,11 @@ public class OrganizationImpl extends OrganizationBaseImpl {
 	}
 
 	public List<Organization> getDescendants() throws SystemException {
-		List<Organization> descendants = new UniqueList<Organization>();
+		List<Organization> organizations = new ArrayList<Organization>();
 
-		for (Organization suborganization : getSuborganizations()) {
-			descendants.add(suborganization);
-			descendants.addAll(suborganization.getDescendants());
-		}
+		organizations.add(this);
 
-		return descendants;
+		return OrganizationLocalServiceUtil.getSuborganizations(organizations);
 	}
 
 	public Group getGroup() {
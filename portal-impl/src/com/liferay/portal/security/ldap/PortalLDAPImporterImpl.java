@@ -33,6 +33,7 @@ import com.liferay.portal.kernel.util.SetUtil;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Time;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.model.Company;
 import com.liferay.portal.model.CompanyConstants;
@@ -81,6 +82,8 @@ import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
 import javax.naming.ldap.LdapContext;
 
+import javax.portlet.PortletPreferences;
+
 /**
  * @author Michael C. Han
  * @author Brian Wing Shun Chan
@@ -544,6 +547,29 @@ public class PortalLDAPImporterImpl implements PortalLDAPImporter {
 		return StringUtil.replace(value, "\\,", "\\\\,");
 	}
 
+	protected String getModifiedSinceFilter(
+		String filter, String modifyTimestamp) {
+
+		StringBundler sb = new StringBundler(7);
+
+		sb.append("(&");
+
+		if (!filter.startsWith(StringPool.OPEN_PARENTHESIS)) {
+			sb.append(StringPool.OPEN_PARENTHESIS);
+			sb.append(filter);
+			sb.append(StringPool.CLOSE_PARENTHESIS);
+		}
+		else {
+			sb.append(filter);
+		}
+
+		sb.append("(modifyTimestamp>=");
+		sb.append(modifyTimestamp);
+		sb.append("))");
+
+		return sb.toString();
+	}
+
 	protected User getUser(long companyId, LDAPUser ldapUser) throws Exception {
 		User user = null;
 
@@ -666,6 +692,35 @@ public class PortalLDAPImporterImpl implements PortalLDAPImporter {
 			Properties groupMappings)
 		throws Exception {
 
+		String postfix = LDAPSettingsUtil.getPropertyPostfix(ldapServerId);
+
+		String baseDN = PrefsPropsUtil.getString(
+			companyId, PropsKeys.LDAP_BASE_DN + postfix);
+		String userFilter = PrefsPropsUtil.getString(
+			companyId, PropsKeys.LDAP_IMPORT_USER_SEARCH_FILTER + postfix);
+
+		boolean incremental = PrefsPropsUtil.getBoolean(
+			companyId, PropsKeys.LDAP_IMPORT_INCREMENTAL_ENABLED,
+			PropsValues.LDAP_IMPORT_INCREMENTAL_ENABLED);
+
+		String lastModifyTimestamp = null;
+
+		if (incremental) {
+			lastModifyTimestamp = PrefsPropsUtil.getString(
+				companyId, _LAST_MODIFY_TIMESTAMP + postfix);
+
+			if (Validator.isNotNull(lastModifyTimestamp)) {
+				userFilter = getModifiedSinceFilter(
+					userFilter, lastModifyTimestamp);
+			}
+		}
+
+		String maxModifyTimestamp = lastModifyTimestamp;
+
+		int failedCount = 0;
+		int importedCount = 0;
+		long startTime = System.currentTimeMillis();
+
 		byte[] cookie = new byte[0];
 
 		while (cookie != null) {
@@ -675,7 +730,7 @@ public class PortalLDAPImporterImpl implements PortalLDAPImporter {
 				userMappings.getProperty("screenName")).toLowerCase();
 
 			cookie = PortalLDAPUtil.getUsers(
-				ldapServerId, companyId, ldapContext, cookie, 0,
+				companyId, ldapContext, cookie, 0, baseDN, userFilter,
 				new String[] {userMappingsScreenName}, searchResults);
 
 			for (SearchResult searchResult : searchResults) {
@@ -694,11 +749,47 @@ public class PortalLDAPImporterImpl implements PortalLDAPImporter {
 					importGroups(
 						ldapServerId, companyId, ldapContext, userAttributes,
 						user, userMappings, groupMappings);
+
+					String modifyTimestamp = LDAPUtil.getAttributeString(
+						userAttributes, "modifyTimestamp");
+
+					if (Validator.isNotNull(modifyTimestamp) &&
+						((maxModifyTimestamp == null) ||
+						 (modifyTimestamp.compareTo(maxModifyTimestamp) > 0))) {
+
+						maxModifyTimestamp = modifyTimestamp;
+					}
+
+					importedCount++;
 				}
 				catch (Exception e) {
 					_log.error("Unable to import user " + searchResult, e);
+
+					failedCount++;
 				}
 			}
+
+			if (_log.isInfoEnabled()) {
+				logImportProgress(
+					ldapServerId, companyId, importedCount, failedCount,
+					startTime);
+			}
+		}
+
+		// Only move the marker forward when every user was imported so that
+		// failed users are retried by the next import
+
+		if (incremental && (failedCount == 0) &&
+			Validator.isNotNull(maxModifyTimestamp) &&
+			!maxModifyTimestamp.equals(lastModifyTimestamp)) {
+
+			PortletPreferences preferences = PrefsPropsUtil.getPreferences(
+				companyId);
+
+			preferences.setValue(
+				_LAST_MODIFY_TIMESTAMP + postfix, maxModifyTimestamp);
+
+			preferences.store();
 		}
 	}
 
@@ -1034,6 +1125,37 @@ public class PortalLDAPImporterImpl implements PortalLDAPImporter {
 		}
 	}
 
+	protected void logImportProgress(
+		long ldapServerId, long companyId, int importedCount, int failedCount,
+		long startTime) {
+
+		long time = System.currentTimeMillis() - startTime;
+
+		long rate = 0;
+
+		if (time > 0) {
+			rate = (importedCount + failedCount) * Time.SECOND / time;
+		}
+
+		StringBundler sb = new StringBundler(13);
+
+		sb.append("Imported ");
+		sb.append(importedCount);
+		sb.append(" users and failed to import ");
+		sb.append(failedCount);
+		sb.append(" users from LDAP server ");
+		sb.append(ldapServerId);
+		sb.append(" for company ");
+		sb.append(companyId);
+		sb.append(" in ");
+		sb.append(time);
+		sb.append(" ms at ");
+		sb.append(rate);
+		sb.append(" users per second");
+
+		_log.info(sb.toString());
+	}
+
 	protected void populateExpandoAttributes(
 		ExpandoBridge expandoBridge, Map<String, String[]> expandoAttributes) {
 
@@ -1260,6 +1382,9 @@ public class PortalLDAPImporterImpl implements PortalLDAPImporter {
 
 	private static final String _IMPORT_BY_USER = "user";
 
+	private static final String _LAST_MODIFY_TIMESTAMP =
+		"ldap.import.last.modify.timestamp";
+
 	private static final String _USER_PASSWORD_SCREEN_NAME = "screenName";
 
 	private static Log _log = LogFactoryUtil.getLog(
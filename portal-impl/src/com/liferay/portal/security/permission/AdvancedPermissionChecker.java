@@ -125,7 +125,7 @@ public class AdvancedPermissionChecker extends BasePermissionChecker {
 			}
 
 			PermissionCacheUtil.putResourceBlockIdsBag(
-				companyId, defaultUserId, groupId, name, true,
+				companyId, groupId, defaultUserId, name, true,
 				resourceBlockIdsBag);
 		}
 	}
@@ -364,39 +364,9 @@ public class AdvancedPermissionChecker extends BasePermissionChecker {
 				}
 			}
 
-			List<Group> userGroups = GroupLocalServiceUtil.getUserGroups(
-				userId, true);
-
-			List<Organization> userOrgs = getUserOrgs(userId);
-
-			List<Group> userOrgGroups =
-				GroupLocalServiceUtil.getOrganizationsGroups(userOrgs);
-
-			List<UserGroup> userUserGroups =
-				UserGroupLocalServiceUtil.getUserUserGroups(userId);
-
-			List<Group> userUserGroupGroups =
-				GroupLocalServiceUtil.getUserGroupsGroups(userUserGroups);
+			UserBag userBag = getUserBag(userId);
 
-			List<Group> groups = new ArrayList<Group>(
-				userGroups.size() + userOrgGroups.size() +
-					userUserGroupGroups.size());
-
-			groups.addAll(userGroups);
-			groups.addAll(userOrgGroups);
-			groups.addAll(userUserGroupGroups);
-
-			List<Role> roles = new UniqueList<Role>();
-
-			if (!groups.isEmpty()) {
-				List<Role> userRelatedRoles =
-					RoleLocalServiceUtil.getUserRelatedRoles(userId, groups);
-
-				roles.addAll(userRelatedRoles);
-			}
-			else {
-				roles.addAll(RoleLocalServiceUtil.getUserRoles(userId));
-			}
+			List<Role> roles = new UniqueList<Role>(userBag.getRoles());
 
 			List<Role> userGroupRoles = RoleLocalServiceUtil.getUserGroupRoles(
 				userId, groupId);
@@ -409,7 +379,7 @@ public class AdvancedPermissionChecker extends BasePermissionChecker {
 			roles.addAll(userGroupGroupRoles);
 
 			if (group != null) {
-				if (group.isOrganization() && userOrgGroups.contains(group)) {
+				if (group.isOrganization() && userBag.hasUserOrgGroup(group)) {
 					Role organizationUserRole = RoleLocalServiceUtil.getRole(
 						group.getCompanyId(), RoleConstants.ORGANIZATION_USER);
 
@@ -417,8 +387,8 @@ public class AdvancedPermissionChecker extends BasePermissionChecker {
 				}
 
 				if ((group.isSite() &&
-					 (userGroups.contains(group) ||
-						userOrgGroups.contains(group))) ||
+					 (userBag.hasUserGroup(group) ||
+						userBag.hasUserOrgGroup(group))) ||
 					group.isUserPersonalSite()) {
 
 					Role siteMemberRole = RoleLocalServiceUtil.getRole(
@@ -428,16 +398,17 @@ public class AdvancedPermissionChecker extends BasePermissionChecker {
 				}
 
 				if ((group.isOrganization() &&
-					 userOrgGroups.contains(group)) ||
-					(group.isSite() && userGroups.contains(group))) {
+					 userBag.hasUserOrgGroup(group)) ||
+					(group.isSite() && userBag.hasUserGroup(group))) {
 
 					addTeamRoles(userId, group, roles);
 				}
 			}
 
 			bag = new PermissionCheckerBagImpl(
-				userId, userGroups, userOrgs, userOrgGroups,
-				userUserGroupGroups, groups, roles);
+				userId, userBag.getUserGroups(), userBag.getUserOrgs(),
+				userBag.getUserOrgGroups(), userBag.getUserUserGroupGroups(),
+				userBag.getGroups(), roles);
 
 			return bag;
 		}
@@ -767,6 +738,66 @@ public class AdvancedPermissionChecker extends BasePermissionChecker {
 		return resources;
 	}
 
+	/**
+	 * Returns the memberships of the user that do not depend on a group. They
+	 * are cached until {@link PermissionCacheUtil#clearCache(long[])} is
+	 * called for the user, so that building the bag of another group only has
+	 * to look up the roles of the user in that group.
+	 *
+	 * @param  userId the primary key of the user
+	 * @return the memberships of the user that do not depend on a group
+	 * @throws Exception if an exception occurred
+	 */
+	protected UserBag getUserBag(long userId) throws Exception {
+		UserBag userBag = PermissionCacheUtil.getUserBag(userId);
+
+		if (userBag != null) {
+			return userBag;
+		}
+
+		List<Group> userGroups = GroupLocalServiceUtil.getUserGroups(
+			userId, true);
+
+		List<Organization> userOrgs = getUserOrgs(userId);
+
+		List<Group> userOrgGroups =
+			GroupLocalServiceUtil.getOrganizationsGroups(userOrgs);
+
+		List<UserGroup> userUserGroups =
+			UserGroupLocalServiceUtil.getUserUserGroups(userId);
+
+		List<Group> userUserGroupGroups =
+			GroupLocalServiceUtil.getUserGroupsGroups(userUserGroups);
+
+		List<Group> groups = new ArrayList<Group>(
+			userGroups.size() + userOrgGroups.size() +
+				userUserGroupGroups.size());
+
+		groups.addAll(userGroups);
+		groups.addAll(userOrgGroups);
+		groups.addAll(userUserGroupGroups);
+
+		List<Role> roles = new UniqueList<Role>();
+
+		if (!groups.isEmpty()) {
+			List<Role> userRelatedRoles =
+				RoleLocalServiceUtil.getUserRelatedRoles(userId, groups);
+
+			roles.addAll(userRelatedRoles);
+		}
+		else {
+			roles.addAll(RoleLocalServiceUtil.getUserRoles(userId));
+		}
+
+		userBag = new UserBag(
+			userId, userGroups, userOrgs, userOrgGroups, userUserGroupGroups,
+			groups, roles);
+
+		PermissionCacheUtil.putUserBag(userId, userBag);
+
+		return userBag;
+	}
+
 	/**
 	 * Returns all of the organizations that the user is a member of, including
 	 * their parent organizations.
@@ -14,17 +14,26 @@
 
 package com.liferay.portal.security.permission;
 
+import com.liferay.portal.cluster.ClusterInvokeThreadLocal;
 import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
 import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.SingleVMPoolUtil;
+import com.liferay.portal.kernel.cluster.ClusterExecutorUtil;
+import com.liferay.portal.kernel.cluster.ClusterRequest;
 import com.liferay.portal.kernel.lar.ImportExportThreadLocal;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.util.AutoResetThreadLocal;
 import com.liferay.portal.kernel.util.HashUtil;
+import com.liferay.portal.kernel.util.MethodHandler;
+import com.liferay.portal.kernel.util.MethodKey;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.util.PropsValues;
 
 import java.io.Serializable;
 
 import java.util.Map;
+import java.util.Random;
 
 import org.apache.commons.collections.map.LRUMap;
 
@@ -45,6 +54,12 @@ public class PermissionCacheUtil {
 	public static final String RESOURCE_BLOCK_IDS_BAG_CACHE_NAME =
 		PermissionCacheUtil.class.getName() + "_RESOURCE_BLOCK_IDS_BAG";
 
+	public static final String USER_BAG_CACHE_NAME =
+		PermissionCacheUtil.class.getName() + "_USER_BAG";
+
+	public static final String USER_GENERATION_CACHE_NAME =
+		PermissionCacheUtil.class.getName() + "_USER_GENERATION";
+
 	public static void clearCache() {
 		if (ImportExportThreadLocal.isImportInProcess() ||
 			!PermissionThreadLocal.isFlushEnabled()) {
@@ -57,6 +72,58 @@ public class PermissionCacheUtil {
 		_permissionCheckerBagPortalCache.removeAll();
 		_permissionPortalCache.removeAll();
 		_resourceBlockIdsBagCache.removeAll();
+		_userBagPortalCache.removeAll();
+	}
+
+	/**
+	 * Clears the cached bags and permissions of the users only. Use it when
+	 * the memberships or roles of the users change; changes that can affect
+	 * any user, such as the permissions of a role, must still clear the whole
+	 * cache.
+	 *
+	 * <p>
+	 * The entries of the users are not looked up one by one. Instead, every
+	 * cache key includes a generation of its user, which is dropped here and
+	 * on the other nodes of the cluster, so that the stale entries are no
+	 * longer reachable and age out of the caches.
+	 * </p>
+	 *
+	 * @param userIds the primary keys of the users
+	 */
+	public static void clearCache(long[] userIds) {
+		if (ImportExportThreadLocal.isImportInProcess() ||
+			!PermissionThreadLocal.isFlushEnabled() || (userIds == null) ||
+			(userIds.length == 0)) {
+
+			return;
+		}
+
+		clearLocalCache();
+
+		for (long userId : userIds) {
+			_userGenerationPortalCache.remove(userId);
+		}
+
+		if (!PropsValues.CLUSTER_LINK_ENABLED ||
+			!ClusterInvokeThreadLocal.isEnabled()) {
+
+			return;
+		}
+
+		MethodHandler methodHandler = new MethodHandler(
+			_clearCacheMethodKey, userIds);
+
+		ClusterRequest clusterRequest = ClusterRequest.createMulticastRequest(
+			methodHandler, true);
+
+		clusterRequest.setFireAndForget(true);
+
+		try {
+			ClusterExecutorUtil.execute(clusterRequest);
+		}
+		catch (Exception e) {
+			_log.error("Unable to clear cluster wide permission cache", e);
+		}
 	}
 
 	public static void clearLocalCache() {
@@ -70,7 +137,7 @@ public class PermissionCacheUtil {
 	public static PermissionCheckerBag getBag(long userId, long groupId) {
 		PermissionCheckerBag bag = null;
 
-		BagKey bagKey = new BagKey(userId, groupId);
+		BagKey bagKey = new BagKey(userId, _getUserGeneration(userId), groupId);
 
 		if (_localCacheAvailable) {
 			Map<String, Object> localCache = _localCache.get();
@@ -92,7 +159,8 @@ public class PermissionCacheUtil {
 		Boolean value = null;
 
 		PermissionKey permissionKey = new PermissionKey(
-			userId, signedIn, checkGuest, groupId, name, primKey, actionId);
+			userId, _getUserGeneration(userId), signedIn, checkGuest, groupId,
+			name, primKey, actionId);
 
 		if (_localCacheAvailable) {
 			Map<String, Object> localCache = _localCache.get();
@@ -115,7 +183,8 @@ public class PermissionCacheUtil {
 
 		ResourceBlockIdsBagKey resourceBlockIdsBagKey =
 			new ResourceBlockIdsBagKey(
-				companyId, groupId, userId, name, checkGuest);
+				companyId, groupId, userId, _getUserGeneration(userId), name,
+				checkGuest);
 
 		if (_localCacheAvailable) {
 			Map<String, Object> localCache = _localCache.get();
@@ -132,6 +201,13 @@ public class PermissionCacheUtil {
 		return resourceBlockIdsBag;
 	}
 
+	public static UserBag getUserBag(long userId) {
+		UserBagKey userBagKey = new UserBagKey(
+			userId, _getUserGeneration(userId));
+
+		return _userBagPortalCache.get(userBagKey);
+	}
+
 	public static PermissionCheckerBag putBag(
 		long userId, long groupId, PermissionCheckerBag bag) {
 
@@ -139,7 +215,7 @@ public class PermissionCacheUtil {
 			return null;
 		}
 
-		BagKey bagKey = new BagKey(userId, groupId);
+		BagKey bagKey = new BagKey(userId, _getUserGeneration(userId), groupId);
 
 		if (_localCacheAvailable) {
 			Map<Serializable, Object> localCache = _localCache.get();
@@ -161,7 +237,8 @@ public class PermissionCacheUtil {
 		}
 
 		PermissionKey permissionKey = new PermissionKey(
-			userId, signedIn, checkGuest, groupId, name, primKey, actionId);
+			userId, _getUserGeneration(userId), signedIn, checkGuest, groupId,
+			name, primKey, actionId);
 
 		if (_localCacheAvailable) {
 			Map<Serializable, Object> localCache = _localCache.get();
@@ -184,7 +261,8 @@ public class PermissionCacheUtil {
 
 		ResourceBlockIdsBagKey resourceBlockIdsBagKey =
 			new ResourceBlockIdsBagKey(
-				companyId, groupId, userId, name, checkGuest);
+				companyId, groupId, userId, _getUserGeneration(userId), name,
+				checkGuest);
 
 		if (_localCacheAvailable) {
 			Map<Serializable, Object> localCache = _localCache.get();
@@ -198,6 +276,39 @@ public class PermissionCacheUtil {
 		return resourceBlockIdsBag;
 	}
 
+	public static UserBag putUserBag(long userId, UserBag userBag) {
+		if (userBag == null) {
+			return null;
+		}
+
+		UserBagKey userBagKey = new UserBagKey(
+			userId, _getUserGeneration(userId));
+
+		_userBagPortalCache.put(userBagKey, userBag);
+
+		return userBag;
+	}
+
+	private static long _getUserGeneration(long userId) {
+		Long userGeneration = _userGenerationPortalCache.get(userId);
+
+		if (userGeneration == null) {
+
+			// Random generations keep a node from reusing the generation of a
+			// stale entry replicated from another node
+
+			userGeneration = _random.nextLong();
+
+			_userGenerationPortalCache.put(userId, userGeneration);
+		}
+
+		return userGeneration;
+	}
+
+	private static Log _log = LogFactoryUtil.getLog(PermissionCacheUtil.class);
+
+	private static MethodKey _clearCacheMethodKey = new MethodKey(
+		PermissionCacheUtil.class.getName(), "clearCache", long[].class);
 	private static ThreadLocal<LRUMap> _localCache;
 	private static boolean _localCacheAvailable;
 	private static PortalCache<BagKey, PermissionCheckerBag>
@@ -208,15 +319,22 @@ public class PermissionCacheUtil {
 		MultiVMPoolUtil.getCache(
 			PERMISSION_CACHE_NAME,
 			PropsValues.PERMISSIONS_OBJECT_BLOCKING_CACHE);
+	private static Random _random = new Random();
 	private static PortalCache<ResourceBlockIdsBagKey, ResourceBlockIdsBag>
 		_resourceBlockIdsBagCache = MultiVMPoolUtil.getCache(
 			RESOURCE_BLOCK_IDS_BAG_CACHE_NAME,
 			PropsValues.PERMISSIONS_OBJECT_BLOCKING_CACHE);
+	private static PortalCache<UserBagKey, UserBag> _userBagPortalCache =
+		MultiVMPoolUtil.getCache(
+			USER_BAG_CACHE_NAME, PropsValues.PERMISSIONS_OBJECT_BLOCKING_CACHE);
+	private static PortalCache<Long, Long> _userGenerationPortalCache =
+		SingleVMPoolUtil.getCache(USER_GENERATION_CACHE_NAME);
 
 	private static class BagKey implements Serializable {
 
-		public BagKey(long userId, long groupId) {
+		public BagKey(long userId, long userGeneration, long groupId) {
 			_userId = userId;
+			_userGeneration = userGeneration;
 			_groupId = groupId;
 		}
 
@@ -224,7 +342,10 @@ public class PermissionCacheUtil {
 		public boolean equals(Object obj) {
 			BagKey bagKey = (BagKey)obj;
 
-			if ((bagKey._userId == _userId) && (bagKey._groupId == _groupId)) {
+			if ((bagKey._userId == _userId) &&
+				(bagKey._userGeneration == _userGeneration) &&
+				(bagKey._groupId == _groupId)) {
+
 				return true;
 			}
 			else {
@@ -240,6 +361,7 @@ public class PermissionCacheUtil {
 		private static final long serialVersionUID = 1L;
 
 		private final long _groupId;
+		private final long _userGeneration;
 		private final long _userId;
 
 	}
@@ -247,10 +369,12 @@ public class PermissionCacheUtil {
 	private static class PermissionKey implements Serializable {
 
 		public PermissionKey(
-			long userId, boolean signedIn, boolean checkGuest, long groupId,
-			String name, String primKey, String actionId) {
+			long userId, long userGeneration, boolean signedIn,
+			boolean checkGuest, long groupId, String name, String primKey,
+			String actionId) {
 
 			_userId = userId;
+			_userGeneration = userGeneration;
 			_signedIn = signedIn;
 			_checkGuest = checkGuest;
 			_groupId = groupId;
@@ -264,6 +388,7 @@ public class PermissionCacheUtil {
 			PermissionKey permissionKey = (PermissionKey)obj;
 
 			if ((permissionKey._userId == _userId) &&
+				(permissionKey._userGeneration == _userGeneration) &&
 				(permissionKey._signedIn == _signedIn) &&
 				(permissionKey._checkGuest == _checkGuest) &&
 				(permissionKey._groupId == _groupId) &&
@@ -300,6 +425,7 @@ public class PermissionCacheUtil {
 		private final String _name;
 		private final String _primKey;
 		private final boolean _signedIn;
+		private final long _userGeneration;
 		private final long _userId;
 
 	}
@@ -307,12 +433,13 @@ public class PermissionCacheUtil {
 	private static class ResourceBlockIdsBagKey implements Serializable {
 
 		public ResourceBlockIdsBagKey(
-			long companyId, long groupId, long userId, String name,
-			boolean checkGuest) {
+			long companyId, long groupId, long userId, long userGeneration,
+			String name, boolean checkGuest) {
 
 			_companyId = companyId;
 			_groupId = groupId;
 			_userId = userId;
+			_userGeneration = userGeneration;
 			_name = name;
 			_checkGuest = checkGuest;
 		}
@@ -325,6 +452,7 @@ public class PermissionCacheUtil {
 			if ((resourceBlockIdsKey._companyId == _companyId) &&
 				(resourceBlockIdsKey._groupId == _groupId) &&
 				(resourceBlockIdsKey._userId == _userId) &&
+				(resourceBlockIdsKey._userGeneration == _userGeneration) &&
 				(resourceBlockIdsKey._checkGuest == _checkGuest) &&
 				Validator.equals(resourceBlockIdsKey._name, _name)) {
 
@@ -353,6 +481,40 @@ public class PermissionCacheUtil {
 		private final long _companyId;
 		private final long _groupId;
 		private final String _name;
+		private final long _userGeneration;
+		private final long _userId;
+
+	}
+
+	private static class UserBagKey implements Serializable {
+
+		public UserBagKey(long userId, long userGeneration) {
+			_userId = userId;
+			_userGeneration = userGeneration;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			UserBagKey userBagKey = (UserBagKey)obj;
+
+			if ((userBagKey._userId == _userId) &&
+				(userBagKey._userGeneration == _userGeneration)) {
+
+				return true;
+			}
+			else {
+				return false;
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return (int)(_userId * 11 + _userGeneration);
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final long _userGeneration;
 		private final long _userId;
 
 	}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.security.permission;
+
+import com.liferay.portal.model.Group;
+import com.liferay.portal.model.Organization;
+import com.liferay.portal.model.Role;
+
+import java.io.Serializable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Holds the memberships of a user that do not depend on the group a
+ * permission is checked in: the sites, organizations and user groups of the
+ * user, and the roles the user has through them. The permission checker bag
+ * of every group the user visits is built on top of it.
+ * </p>
+ *
+ * <p>
+ * The group primary keys are kept as sorted arrays so that membership checks
+ * do not have to walk the group lists.
+ * </p>
+ */
+public class UserBag implements Serializable {
+
+	public UserBag(
+		long userId, List<Group> userGroups, List<Organization> userOrgs,
+		List<Group> userOrgGroups, List<Group> userUserGroupGroups,
+		List<Group> groups, List<Role> roles) {
+
+		_userId = userId;
+		_userGroups = userGroups;
+		_userOrgs = userOrgs;
+		_userOrgGroups = userOrgGroups;
+		_userUserGroupGroups = userUserGroupGroups;
+		_groups = groups;
+		_roles = roles;
+
+		_userGroupIds = getGroupIds(userGroups);
+		_userOrgGroupIds = getGroupIds(userOrgGroups);
+	}
+
+	public List<Group> getGroups() {
+		return _groups;
+	}
+
+	public List<Role> getRoles() {
+		return _roles;
+	}
+
+	public List<Group> getUserGroups() {
+		return _userGroups;
+	}
+
+	public long getUserId() {
+		return _userId;
+	}
+
+	public List<Group> getUserOrgGroups() {
+		return _userOrgGroups;
+	}
+
+	public List<Organization> getUserOrgs() {
+		return _userOrgs;
+	}
+
+	public List<Group> getUserUserGroupGroups() {
+		return _userUserGroupGroups;
+	}
+
+	public boolean hasUserGroup(Group group) {
+		if (Arrays.binarySearch(_userGroupIds, group.getGroupId()) >= 0) {
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+
+	public boolean hasUserOrgGroup(Group group) {
+		if (Arrays.binarySearch(_userOrgGroupIds, group.getGroupId()) >= 0) {
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+
+	protected long[] getGroupIds(List<Group> groups) {
+		long[] groupIds = new long[groups.size()];
+
+		for (int i = 0; i < groups.size(); i++) {
+			Group group = groups.get(i);
+
+			groupIds[i] = group.getGroupId();
+		}
+
+		Arrays.sort(groupIds);
+
+		return groupIds;
+	}
+
+	private List<Group> _groups;
+	private List<Role> _roles;
+	private long[] _userGroupIds;
+	private List<Group> _userGroups;
+	private long _userId;
+	private long[] _userOrgGroupIds;
+	private List<Group> _userOrgGroups;
+	private List<Organization> _userOrgs;
+	private List<Group> _userUserGroupGroups;
+
+}
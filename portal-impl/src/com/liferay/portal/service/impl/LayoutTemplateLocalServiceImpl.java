@@ -38,6 +38,7 @@ import com.liferay.portal.kernel.xml.SAXReaderUtil;
 import com.liferay.portal.model.LayoutTemplate;
 import com.liferay.portal.model.LayoutTemplateConstants;
 import com.liferay.portal.model.PluginSetting;
+import com.liferay.portal.model.impl.LayoutRenderPlanCacheUtil;
 import com.liferay.portal.model.impl.LayoutTemplateImpl;
 import com.liferay.portal.service.base.LayoutTemplateLocalServiceBaseImpl;
 import com.liferay.portal.util.PropsValues;
@@ -288,6 +289,8 @@ public class LayoutTemplateLocalServiceImpl
 			_log.error(e, e);
 		}
 
+		LayoutRenderPlanCacheUtil.clearCache();
+
 		return layoutTemplateIds;
 	}
 
@@ -488,6 +491,8 @@ public class LayoutTemplateLocalServiceImpl
 			_log.error(
 				"Unable to uninstall layout template " + layoutTemplateId, e);
 		}
+
+		LayoutRenderPlanCacheUtil.clearCache();
 	}
 
 	public void uninstallLayoutTemplates(String themeId) {
@@ -541,6 +546,8 @@ public class LayoutTemplateLocalServiceImpl
 		}
 
 		_themesCustom.clear();
+
+		LayoutRenderPlanCacheUtil.clearCache();
 	}
 
 	private List<String> _getColumns(
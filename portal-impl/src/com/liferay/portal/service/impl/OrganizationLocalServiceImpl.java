@@ -21,7 +21,13 @@ import com.liferay.portal.OrganizationTypeException;
 import com.liferay.portal.RequiredOrganizationException;
 import com.liferay.portal.kernel.cache.ThreadLocalCachable;
 import com.liferay.portal.kernel.configuration.Filter;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Junction;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.search.Hits;
@@ -35,6 +41,7 @@ import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.kernel.util.PropsKeys;
 import com.liferay.portal.kernel.util.StringPool;
+import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import com.liferay.portal.model.Company;
@@ -607,15 +614,70 @@ public class OrganizationLocalServiceImpl
 
 		List<Organization> allSuborganizations = new ArrayList<Organization>();
 
-		for (int i = 0; i < organizations.size(); i++) {
-			Organization organization = organizations.get(i);
+		boolean treePathsValid = true;
+
+		for (Organization organization : organizations) {
+			if (getTreePathOrganizationIds(organization) == null) {
+				treePathsValid = false;
+
+				break;
+			}
+		}
+
+		if (!treePathsValid) {
+
+			// Walk the tree level by level if a tree path is stale
 
-			List<Organization> suborganizations =
-				organizationPersistence.findByC_P(
-					organization.getCompanyId(),
-					organization.getOrganizationId());
+			for (Organization organization : organizations) {
+				List<Organization> suborganizations =
+					organizationPersistence.findByC_P(
+						organization.getCompanyId(),
+						organization.getOrganizationId());
 
-			addSuborganizations(allSuborganizations, suborganizations);
+				addSuborganizations(allSuborganizations, suborganizations);
+			}
+
+			return allSuborganizations;
+		}
+
+		Set<Long> suborganizationIds = new HashSet<Long>();
+
+		// Tree paths end with a slash, so a tree path that is at least one
+		// character longer than the organization's belongs to a descendant
+
+		for (int i = 0; i < organizations.size();
+				i += _TREE_PATHS_BATCH_SIZE) {
+
+			int end = Math.min(
+				i + _TREE_PATHS_BATCH_SIZE, organizations.size());
+
+			DynamicQuery dynamicQuery = dynamicQuery();
+
+			Junction junction = RestrictionsFactoryUtil.disjunction();
+
+			for (Organization organization : organizations.subList(i, end)) {
+				Property treePathProperty = PropertyFactoryUtil.forName(
+					"treePath");
+
+				junction.add(
+					treePathProperty.like(
+						organization.getTreePath() + StringPool.UNDERLINE +
+							StringPool.PERCENT));
+			}
+
+			dynamicQuery.add(junction);
+
+			dynamicQuery.addOrder(OrderFactoryUtil.asc("treePath"));
+
+			List<Organization> suborganizations = dynamicQuery(dynamicQuery);
+
+			for (Organization suborganization : suborganizations) {
+				if (suborganizationIds.add(
+						suborganization.getOrganizationId())) {
+
+					allSuborganizations.add(suborganization);
+				}
+			}
 		}
 
 		return allSuborganizations;
@@ -1699,6 +1761,21 @@ public class OrganizationLocalServiceImpl
 			organizations.add(organization);
 		}
 
+		long[] treePathOrganizationIds = getTreePathOrganizationIds(
+			organization);
+
+		if (treePathOrganizationIds != null) {
+			for (int i = treePathOrganizationIds.length - 2; i >= 0; i--) {
+				Organization parentOrganization =
+					organizationPersistence.findByPrimaryKey(
+						treePathOrganizationIds[i]);
+
+				organizations.add(parentOrganization);
+			}
+
+			return organizations;
+		}
+
 		long parentOrganizationId = organization.getParentOrganizationId();
 
 		if (parentOrganizationId ==
@@ -1758,6 +1835,53 @@ public class OrganizationLocalServiceImpl
 		return organizationIds;
 	}
 
+	/**
+	 * Returns the primary keys of the organizations in the tree path of the
+	 * organization, starting with the root organization and ending with the
+	 * organization itself, or <code>null</code> if the tree path is stale.
+	 */
+	protected long[] getTreePathOrganizationIds(Organization organization) {
+		String treePath = organization.getTreePath();
+
+		if (Validator.isNull(treePath) ||
+			!treePath.startsWith(StringPool.SLASH) ||
+			!treePath.endsWith(StringPool.SLASH) ||
+			(treePath.length() < 3)) {
+
+			return null;
+		}
+
+		long[] organizationIds = StringUtil.split(
+			treePath.substring(1, treePath.length() - 1), StringPool.SLASH,
+			0L);
+
+		if (ArrayUtil.contains(organizationIds, 0L) ||
+			(organizationIds.length == 0) ||
+			(organizationIds[organizationIds.length - 1] !=
+				organization.getOrganizationId())) {
+
+			return null;
+		}
+
+		if (organizationIds.length > 1) {
+			long parentOrganizationId =
+				organizationIds[organizationIds.length - 2];
+
+			if (parentOrganizationId !=
+					organization.getParentOrganizationId()) {
+
+				return null;
+			}
+		}
+		else if (organization.getParentOrganizationId() !=
+					OrganizationConstants.DEFAULT_PARENT_ORGANIZATION_ID) {
+
+			return null;
+		}
+
+		return organizationIds;
+	}
+
 	protected boolean isParentOrganization(
 			long parentOrganizationId, long organizationId)
 		throws PortalException, SystemException {
@@ -1879,4 +2003,6 @@ public class OrganizationLocalServiceImpl
 			statusId);
 	}
 
+	private static final int _TREE_PATHS_BATCH_SIZE = 500;
+
 }
\ No newline at end of file
@@ -48,7 +48,7 @@ public class UserGroupRoleLocalServiceImpl
 			}
 		}
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(new long[] {userId});
 	}
 
 	public void addUserGroupRoles(long[] userIds, long groupId, long roleId)
@@ -67,7 +67,7 @@ public class UserGroupRoleLocalServiceImpl
 			}
 		}
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(userIds);
 	}
 
 	@Override
@@ -76,7 +76,8 @@ public class UserGroupRoleLocalServiceImpl
 
 		userGroupRolePersistence.remove(userGroupRole);
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(
+			new long[] {userGroupRole.getUserId()});
 
 		return userGroupRole;
 	}
@@ -94,7 +95,7 @@ public class UserGroupRoleLocalServiceImpl
 			}
 		}
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(new long[] {userId});
 	}
 
 	public void deleteUserGroupRoles(long userId, long[] groupIds)
@@ -104,7 +105,7 @@ public class UserGroupRoleLocalServiceImpl
 			userGroupRolePersistence.removeByU_G(userId, groupId);
 		}
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(new long[] {userId});
 	}
 
 	public void deleteUserGroupRoles(long[] userIds, long groupId)
@@ -114,7 +115,7 @@ public class UserGroupRoleLocalServiceImpl
 			userGroupRolePersistence.removeByU_G(userId, groupId);
 		}
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(userIds);
 	}
 
 	public void deleteUserGroupRoles(long[] userIds, long groupId, long roleId)
@@ -130,7 +131,7 @@ public class UserGroupRoleLocalServiceImpl
 			}
 		}
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(userIds);
 	}
 
 	public void deleteUserGroupRolesByGroupId(long groupId)
@@ -154,7 +155,7 @@ public class UserGroupRoleLocalServiceImpl
 
 		userGroupRolePersistence.removeByUserId(userId);
 
-		PermissionCacheUtil.clearCache();
+		PermissionCacheUtil.clearCache(new long[] {userId});
 	}
 
 	public List<UserGroupRole> getUserGroupRoles(long userId)
@@ -14,11 +14,16 @@
 
 package com.liferay.portal.servlet.filters.dynamiccss;
 
+import com.liferay.portal.kernel.concurrent.ThreadPoolExecutor;
+import com.liferay.portal.kernel.executor.PortalExecutorManagerUtil;
 import com.liferay.portal.kernel.io.unsync.UnsyncByteArrayOutputStream;
 import com.liferay.portal.kernel.io.unsync.UnsyncPrintWriter;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.util.CharPool;
+import com.liferay.portal.kernel.util.Digester;
+import com.liferay.portal.kernel.util.DigesterUtil;
+import com.liferay.portal.kernel.util.FileUtil;
 import com.liferay.portal.kernel.util.JavaConstants;
 import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.SessionParamUtil;
@@ -33,6 +38,8 @@ import com.liferay.portal.model.Theme;
 import com.liferay.portal.scripting.ruby.RubyExecutor;
 import com.liferay.portal.security.pacl.PACLClassLoaderUtil;
 import com.liferay.portal.service.ThemeLocalServiceUtil;
+import com.liferay.portal.servlet.filters.aggregate.AggregateFilter;
+import com.liferay.portal.servlet.filters.aggregate.ServletAggregateContext;
 import com.liferay.portal.theme.ThemeDisplay;
 import com.liferay.portal.tools.SassToCssBuilder;
 import com.liferay.portal.util.PortalUtil;
@@ -44,8 +51,17 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLDecoder;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -112,39 +128,54 @@ public class DynamicCSSUtil {
 				return content;
 			}
 		}
+		else {
+			theme = themeDisplay.getTheme();
+		}
 
 		String parsedContent = null;
 
 		boolean themeCssFastLoad = _isThemeCssFastLoad(request, themeDisplay);
 
-		URLConnection resourceURLConnection = null;
+		String cssThemePath = _getCssThemePath(request, themeDisplay, theme);
 
-		URL resourceURL = servletContext.getResource(resourcePath);
+		File parsedCacheFile = null;
 
-		if (resourceURL != null) {
-			resourceURLConnection = resourceURL.openConnection();
-		}
+		if (themeCssFastLoad) {
 
-		URLConnection cacheResourceURLConnection = null;
+			// Digest the content with its imports so that changes to imported
+			// files invalidate the cached output as well
 
-		URL cacheResourceURL = _getCacheResource(servletContext, resourcePath);
+			String aggregatedContent = AggregateFilter.aggregateCss(
+				new ServletAggregateContext(servletContext, resourcePath),
+				content);
 
-		if (cacheResourceURL != null) {
-			cacheResourceURLConnection = cacheResourceURL.openConnection();
-		}
+			if (_isCacheResourceValid(
+					servletContext, resourcePath, aggregatedContent)) {
 
-		if (themeCssFastLoad && (cacheResourceURLConnection != null) &&
-			(resourceURLConnection != null) &&
-			(cacheResourceURLConnection.getLastModified() ==
-				resourceURLConnection.getLastModified())) {
+				URL cacheResourceURL = _getCacheResource(
+					servletContext, resourcePath);
 
-			parsedContent = StringUtil.read(
-				cacheResourceURLConnection.getInputStream());
+				URLConnection cacheResourceURLConnection =
+					cacheResourceURL.openConnection();
+
+				parsedContent = StringUtil.read(
+					cacheResourceURLConnection.getInputStream());
+			}
+			else if (theme != null) {
+				parsedCacheFile = getParsedCacheFile(
+					servletContext, resourcePath, aggregatedContent, theme);
+
+				if (parsedCacheFile.exists()) {
+					parsedContent = FileUtil.read(parsedCacheFile);
+				}
+			}
+		}
 
+		if (parsedContent != null) {
 			if (_log.isDebugEnabled()) {
 				_log.debug(
-					"Loading SASS cache from " + cacheResourceURL.getPath() +
-						" takes " + stopWatch.getTime() + " ms");
+					"Loading SASS cache for " + resourcePath + " takes " +
+						stopWatch.getTime() + " ms");
 			}
 		}
 		else {
@@ -157,8 +188,12 @@ public class DynamicCSSUtil {
 			}
 
 			parsedContent = _parseSass(
-				servletContext, request, themeDisplay, theme, resourcePath,
-				content);
+				servletContext, resourcePath, content, cssThemePath);
+
+			if (parsedCacheFile != null) {
+				_writeParsedCacheFile(
+					parsedCacheFile, resourcePath, parsedContent);
+			}
 
 			if (_log.isDebugEnabled()) {
 				_log.debug(
@@ -184,16 +219,161 @@ public class DynamicCSSUtil {
 		return parsedContent;
 	}
 
-	private static URL _getCacheResource(
-		ServletContext servletContext, String resourcePath) throws Exception {
+	/**
+	 * Compiles the CSS files of a theme in parallel into the temporary
+	 * directory of the theme's servlet context, so that the first requests
+	 * after a deployment do not have to run the SASS conversion. Files whose
+	 * build time output in the <code>.sass-cache</code> directories still
+	 * matches the content hash of their source, imports included, are skipped.
+	 *
+	 * @param  servletContext the servlet context of the theme
+	 * @param  theme the theme
+	 * @return the futures of the scheduled compilations, each resolving to
+	 *         <code>true</code> if the file was compiled
+	 */
+	public static List<Future<Boolean>> precompile(
+		final ServletContext servletContext, final Theme theme) {
+
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+
+		if (!DynamicCSSFilter.ENABLED) {
+			return futures;
+		}
+
+		List<String> resourcePaths = new ArrayList<String>();
+
+		_collectCssResourcePaths(
+			servletContext, theme.getCssPath() + StringPool.SLASH,
+			resourcePaths);
+
+		ThreadPoolExecutor threadPoolExecutor =
+			PortalExecutorManagerUtil.getPortalExecutor(
+				DynamicCSSUtil.class.getName());
+
+		for (final String resourcePath : resourcePaths) {
+			Callable<Boolean> callable = new Callable<Boolean>() {
+
+				public Boolean call() throws Exception {
+					try {
+						return _precompile(servletContext, theme, resourcePath);
+					}
+					catch (Exception e) {
+						_log.error(
+							"Unable to precompile SASS on CSS " + resourcePath,
+							e);
+
+						throw e;
+					}
+				}
+
+			};
+
+			futures.add(threadPoolExecutor.submit(callable));
+		}
+
+		return futures;
+	}
+
+	/**
+	 * Returns the file in the temporary directory of the servlet context that
+	 * holds the output compiled from the aggregated content of the theme. The
+	 * key leaves out the CDN host and the portal URL of the request, so that
+	 * the output precompiled at deployment is found by every request. The
+	 * compiled output does not depend on them because the URLs that do are
+	 * only replaced into it after it is read.
+	 */
+	protected static File getParsedCacheFile(
+		ServletContext servletContext, String resourcePath,
+		String aggregatedContent, Theme theme) {
+
+		File parsedCacheDir = new File(
+			_getSassTempDir(servletContext),
+			_PARSED_CACHE_DIR + resourcePath);
+
+		parsedCacheDir.mkdirs();
+
+		String themePath = theme.getStaticResourcePath() + theme.getCssPath();
+
+		return new File(
+			parsedCacheDir,
+			_getDigest(aggregatedContent.concat(themePath)) + _CSS_EXTENSION);
+	}
+
+	private static void _collectCssResourcePaths(
+		ServletContext servletContext, String path,
+		List<String> resourcePaths) {
+
+		Set<String> paths = servletContext.getResourcePaths(path);
+
+		if (paths == null) {
+			return;
+		}
 
+		for (String curPath : paths) {
+			if (curPath.endsWith(StringPool.SLASH)) {
+				String dirName = curPath.substring(
+					curPath.lastIndexOf(
+						StringPool.SLASH, curPath.length() - 2) + 1,
+					curPath.length() - 1);
+
+				if (!dirName.startsWith(StringPool.PERIOD) &&
+					!dirName.startsWith(StringPool.UNDERLINE)) {
+
+					_collectCssResourcePaths(
+						servletContext, curPath, resourcePaths);
+				}
+			}
+			else if (curPath.endsWith(_CSS_EXTENSION)) {
+				resourcePaths.add(curPath);
+			}
+		}
+	}
+
+	private static String _doParseSass(
+			ServletContext servletContext, String resourcePath,
+			String content, String cssThemePath)
+		throws Exception {
+
+		Map<String, Object> inputObjects = new HashMap<String, Object>();
+
+		inputObjects.put("content", content);
+		inputObjects.put("cssRealPath", resourcePath);
+		inputObjects.put("cssThemePath", cssThemePath);
+
+		File sassTempDir = _getSassTempDir(servletContext);
+
+		inputObjects.put("sassCachePath", sassTempDir.getCanonicalPath());
+
+		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream =
+			new UnsyncByteArrayOutputStream();
+
+		UnsyncPrintWriter unsyncPrintWriter = UnsyncPrintWriterPool.borrow(
+			unsyncByteArrayOutputStream);
+
+		inputObjects.put("out", unsyncPrintWriter);
+
+		_rubyExecutor.eval(null, inputObjects, null, _rubyScript);
+
+		unsyncPrintWriter.flush();
+
+		return unsyncByteArrayOutputStream.toString();
+	}
+
+	private static String _getCacheDigestFileName(String resourcePath) {
+		return _getCacheFileName(resourcePath).concat(_DIGEST_EXTENSION);
+	}
+
+	private static String _getCacheFileName(String resourcePath) {
 		int pos = resourcePath.lastIndexOf(StringPool.SLASH);
 
-		String cacheFileName =
-			resourcePath.substring(0, pos + 1) + ".sass-cache/" +
-				resourcePath.substring(pos + 1);
+		return resourcePath.substring(0, pos + 1) + ".sass-cache/" +
+			resourcePath.substring(pos + 1);
+	}
+
+	private static URL _getCacheResource(
+		ServletContext servletContext, String resourcePath) throws Exception {
 
-		return servletContext.getResource(cacheFileName);
+		return servletContext.getResource(_getCacheFileName(resourcePath));
 	}
 
 	private static String _getCssThemePath(
@@ -221,6 +401,10 @@ public class DynamicCSSUtil {
 		return cssThemePath;
 	}
 
+	private static String _getDigest(String content) {
+		return DigesterUtil.digestHex(Digester.MD5, content);
+	}
+
 	private static File _getSassTempDir(ServletContext servletContext) {
 		File sassTempDir = (File)servletContext.getAttribute(_SASS_DIR_KEY);
 
@@ -320,6 +504,55 @@ public class DynamicCSSUtil {
 		return themeImagesPath;
 	}
 
+	/**
+	 * Returns <code>true</code> if the build time output of the resource in
+	 * its <code>.sass-cache</code> directory was compiled from the aggregated
+	 * content. Output without a digest, written by older builds, is only
+	 * trusted while its timestamp matches the resource.
+	 */
+	private static boolean _isCacheResourceValid(
+			ServletContext servletContext, String resourcePath,
+			String aggregatedContent)
+		throws Exception {
+
+		URL cacheResourceURL = _getCacheResource(servletContext, resourcePath);
+
+		if (cacheResourceURL == null) {
+			return false;
+		}
+
+		URL cacheDigestURL = servletContext.getResource(
+			_getCacheDigestFileName(resourcePath));
+
+		if (cacheDigestURL != null) {
+			URLConnection cacheDigestURLConnection =
+				cacheDigestURL.openConnection();
+
+			String cacheDigest = StringUtil.read(
+				cacheDigestURLConnection.getInputStream());
+
+			return cacheDigest.trim().equals(_getDigest(aggregatedContent));
+		}
+
+		URL resourceURL = servletContext.getResource(resourcePath);
+
+		if (resourceURL == null) {
+			return false;
+		}
+
+		URLConnection cacheResourceURLConnection =
+			cacheResourceURL.openConnection();
+		URLConnection resourceURLConnection = resourceURL.openConnection();
+
+		if (cacheResourceURLConnection.getLastModified() ==
+				resourceURLConnection.getLastModified()) {
+
+			return true;
+		}
+
+		return false;
+	}
+
 	private static boolean _isThemeCssFastLoad(
 		HttpServletRequest request, ThemeDisplay themeDisplay) {
 
@@ -332,35 +565,155 @@ public class DynamicCSSUtil {
 	}
 
 	private static String _parseSass(
-			ServletContext servletContext, HttpServletRequest request,
-			ThemeDisplay themeDisplay, Theme theme, String resourcePath,
-			String content)
+			final ServletContext servletContext, final String resourcePath,
+			final String content, final String cssThemePath)
 		throws Exception {
 
-		Map<String, Object> inputObjects = new HashMap<String, Object>();
+		StringBundler sb = new StringBundler(7);
 
-		inputObjects.put("content", content);
-		inputObjects.put("cssRealPath", resourcePath);
-		inputObjects.put(
-			"cssThemePath", _getCssThemePath(request, themeDisplay, theme));
+		sb.append(servletContext.getServletContextName());
+		sb.append(StringPool.POUND);
+		sb.append(resourcePath);
+		sb.append(StringPool.POUND);
+		sb.append(cssThemePath);
+		sb.append(StringPool.POUND);
+		sb.append(_getDigest(content));
 
-		File sassTempDir = _getSassTempDir(servletContext);
+		String key = sb.toString();
 
-		inputObjects.put("sassCachePath", sassTempDir.getCanonicalPath());
+		FutureTask<String> futureTask = new FutureTask<String>(
+			new Callable<String>() {
 
-		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream =
-			new UnsyncByteArrayOutputStream();
+				public String call() throws Exception {
+					return _doParseSass(
+						servletContext, resourcePath, content, cssThemePath);
+				}
 
-		UnsyncPrintWriter unsyncPrintWriter = UnsyncPrintWriterPool.borrow(
-			unsyncByteArrayOutputStream);
+			});
 
-		inputObjects.put("out", unsyncPrintWriter);
+		FutureTask<String> previousFutureTask =
+			_parseSassFutureTasks.putIfAbsent(key, futureTask);
 
-		_rubyExecutor.eval(null, inputObjects, null, _rubyScript);
+		if (previousFutureTask == null) {
+			try {
+				futureTask.run();
+			}
+			finally {
+				_parseSassFutureTasks.remove(key, futureTask);
+			}
+		}
+		else {
+			if (_log.isDebugEnabled()) {
+				_log.debug("Waiting for SASS parsing of " + resourcePath);
+			}
 
-		unsyncPrintWriter.flush();
+			futureTask = previousFutureTask;
+		}
 
-		return unsyncByteArrayOutputStream.toString();
+		try {
+			return futureTask.get();
+		}
+		catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+
+			if (cause instanceof Exception) {
+				throw (Exception)cause;
+			}
+
+			throw ee;
+		}
+	}
+
+	private static boolean _precompile(
+			ServletContext servletContext, Theme theme, String resourcePath)
+		throws Exception {
+
+		URL resourceURL = servletContext.getResource(resourcePath);
+
+		if (resourceURL == null) {
+			return false;
+		}
+
+		URLConnection resourceURLConnection = resourceURL.openConnection();
+
+		String content = StringUtil.read(
+			resourceURLConnection.getInputStream());
+
+		content = AggregateFilter.aggregateCss(
+			new ServletAggregateContext(servletContext, resourcePath),
+			content);
+
+		if (_isCacheResourceValid(servletContext, resourcePath, content)) {
+			return false;
+		}
+
+		File parsedCacheFile = getParsedCacheFile(
+			servletContext, resourcePath, content, theme);
+
+		if (parsedCacheFile.exists()) {
+			return false;
+		}
+
+		StopWatch stopWatch = null;
+
+		if (_log.isDebugEnabled()) {
+			stopWatch = new StopWatch();
+
+			stopWatch.start();
+		}
+
+		String cssThemePath =
+			theme.getStaticResourcePath() + theme.getCssPath();
+
+		String parsedContent = _parseSass(
+			servletContext, resourcePath,
+			SassToCssBuilder.parseStaticTokens(content), cssThemePath);
+
+		if (Validator.isNull(parsedContent)) {
+			return false;
+		}
+
+		boolean written = _writeParsedCacheFile(
+			parsedCacheFile, resourcePath, parsedContent);
+
+		if (_log.isDebugEnabled()) {
+			_log.debug(
+				"Precompiling SASS for " + resourcePath + " takes " +
+					stopWatch.getTime() + " ms");
+		}
+
+		return written;
+	}
+
+	private static boolean _writeParsedCacheFile(
+		File parsedCacheFile, String resourcePath, String parsedContent) {
+
+		if (Validator.isNull(parsedContent)) {
+			return false;
+		}
+
+		try {
+			File tempFile = new File(
+				parsedCacheFile.getPath() + StringPool.PERIOD +
+					Thread.currentThread().getId());
+
+			FileUtil.write(tempFile, parsedContent);
+
+			if (!tempFile.renameTo(parsedCacheFile)) {
+				tempFile.delete();
+
+				return false;
+			}
+
+			return true;
+		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn("Unable to write SASS cache for " + resourcePath, e);
+			}
+
+			return false;
+		}
 	}
 
 	/**
@@ -395,10 +748,16 @@ public class DynamicCSSUtil {
 		return sb.toString();
 	}
 
+	private static final String _CSS_EXTENSION = ".css";
+
 	private static final String _CSS_IMPORT_BEGIN = "@import url(";
 
 	private static final String _CSS_IMPORT_END = ");";
 
+	private static final String _DIGEST_EXTENSION = ".md5";
+
+	private static final String _PARSED_CACHE_DIR = "parsed";
+
 	private static final String _SASS_DIR = "sass";
 
 	private static final String _SASS_DIR_KEY =
@@ -406,6 +765,9 @@ public class DynamicCSSUtil {
 
 	private static Log _log = LogFactoryUtil.getLog(DynamicCSSUtil.class);
 
+	private static ConcurrentMap<String, FutureTask<String>>
+		_parseSassFutureTasks =
+			new ConcurrentHashMap<String, FutureTask<String>>();
 	private static Pattern _pluginThemePattern = Pattern.compile(
 		"\\/([^\\/]+)-theme\\/", Pattern.CASE_INSENSITIVE);
 	private static Pattern _portalThemePattern = Pattern.compile(
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.staging;
+
+import com.liferay.portal.ModelListenerException;
+import com.liferay.portal.model.BaseModel;
+import com.liferay.portal.model.BaseModelListener;
+import com.liferay.portal.model.GroupedModel;
+
+import java.io.Serializable;
+
+public class StagingChangeJournalListener<T extends BaseModel<T>>
+	extends BaseModelListener<T> {
+
+	@Override
+	public void onAfterCreate(T model) throws ModelListenerException {
+		addChange(model);
+	}
+
+	@Override
+	public void onAfterRemove(T model) throws ModelListenerException {
+		if (!(model instanceof GroupedModel)) {
+			return;
+		}
+
+		GroupedModel groupedModel = (GroupedModel)model;
+
+		Serializable primaryKeyObj = model.getPrimaryKeyObj();
+
+		if (primaryKeyObj instanceof Long) {
+			StagingChangeJournalUtil.removeChange(
+				groupedModel.getGroupId(), model.getModelClassName(),
+				(Long)primaryKeyObj);
+		}
+	}
+
+	@Override
+	public void onAfterUpdate(T model) throws ModelListenerException {
+		addChange(model);
+	}
+
+	protected void addChange(T model) throws ModelListenerException {
+		if (!StagingChangeJournalUtil.isEnabled() ||
+			!(model instanceof GroupedModel)) {
+
+			return;
+		}
+
+		GroupedModel groupedModel = (GroupedModel)model;
+
+		Serializable primaryKeyObj = model.getPrimaryKeyObj();
+
+		if (!(primaryKeyObj instanceof Long)) {
+			return;
+		}
+
+		try {
+			StagingChangeJournalUtil.addChange(
+				groupedModel.getGroupId(), model.getModelClassName(),
+				(Long)primaryKeyObj);
+		}
+		catch (Exception e) {
+			throw new ModelListenerException(e);
+		}
+	}
+
+}
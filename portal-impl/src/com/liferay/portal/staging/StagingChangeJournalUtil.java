@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.staging;
+
+import com.liferay.portal.kernel.exception.SystemException;
+import com.liferay.portal.kernel.util.Time;
+import com.liferay.portal.model.Group;
+import com.liferay.portal.model.Layout;
+import com.liferay.portal.service.GroupLocalServiceUtil;
+import com.liferay.portal.service.LayoutLocalServiceUtil;
+import com.liferay.portal.util.PropsValues;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Keeps a journal of the staged models that change in each staged group so
+ * that a publication with a date range only has to look at the models that
+ * changed within the range instead of walking all the models of the group.
+ * </p>
+ *
+ * <p>
+ * The journal of a group only covers the changes made since it was started
+ * on this node and while the group was staged, and it forgets the changes
+ * older than the maximum age set in the property
+ * "staging.change.journal.max.age". It returns <code>null</code> for groups
+ * that are not staged, for date ranges it does not fully cover, or when the
+ * portal is clustered, and callers fall back to filtering all the models by
+ * their modified date.
+ * </p>
+ */
+public class StagingChangeJournalUtil {
+
+	public static void addChange(long groupId, String className, long classPK)
+		throws SystemException {
+
+		if (!isEnabled()) {
+			return;
+		}
+
+		if (!isStaged(groupId)) {
+
+			// The changes made while a group is not staged are not journaled,
+			// so a journal started before no longer covers the group
+
+			_changeJournals.remove(groupId);
+
+			return;
+		}
+
+		ChangeJournal changeJournal = getChangeJournal(groupId);
+
+		changeJournal.addChange(
+			className, classPK, System.currentTimeMillis());
+	}
+
+	/**
+	 * Returns the primary keys of the models of the class that changed in the
+	 * group since the start date, or <code>null</code> if the journal does not
+	 * cover the group since the start date.
+	 */
+	public static long[] getClassPKs(
+			long groupId, String className, Date startDate)
+		throws SystemException {
+
+		if (!isEnabled() || (startDate == null) || !isStaged(groupId)) {
+			return null;
+		}
+
+		ChangeJournal changeJournal = _changeJournals.get(groupId);
+
+		if (changeJournal == null) {
+
+			// Start journaling the group so that later publications can use
+			// the journal
+
+			getChangeJournal(groupId);
+
+			return null;
+		}
+
+		return changeJournal.getClassPKs(className, startDate.getTime());
+	}
+
+	public static boolean isEnabled() {
+		if (PropsValues.STAGING_CHANGE_JOURNAL_ENABLED &&
+			!PropsValues.CLUSTER_LINK_ENABLED) {
+
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+
+	public static void removeChange(
+		long groupId, String className, long classPK) {
+
+		ChangeJournal changeJournal = _changeJournals.get(groupId);
+
+		if (changeJournal != null) {
+			changeJournal.removeChange(className, classPK);
+		}
+	}
+
+	protected static ChangeJournal getChangeJournal(long groupId) {
+		ChangeJournal changeJournal = _changeJournals.get(groupId);
+
+		if (changeJournal == null) {
+			changeJournal = new ChangeJournal(System.currentTimeMillis());
+
+			ChangeJournal previousChangeJournal = _changeJournals.putIfAbsent(
+				groupId, changeJournal);
+
+			if (previousChangeJournal != null) {
+				changeJournal = previousChangeJournal;
+			}
+		}
+
+		return changeJournal;
+	}
+
+	protected static boolean isStaged(long groupId) throws SystemException {
+		Group group = GroupLocalServiceUtil.fetchGroup(groupId);
+
+		if (group == null) {
+			return false;
+		}
+
+		if (group.isLayout()) {
+			Layout layout = LayoutLocalServiceUtil.fetchLayout(
+				group.getClassPK());
+
+			if (layout == null) {
+				return false;
+			}
+
+			group = GroupLocalServiceUtil.fetchGroup(layout.getGroupId());
+
+			if (group == null) {
+				return false;
+			}
+		}
+
+		if (group.isStagingGroup() || group.isStagedRemotely()) {
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+
+	private static final long _MAX_AGE =
+		PropsValues.STAGING_CHANGE_JOURNAL_MAX_AGE * Time.HOUR;
+
+	private static ConcurrentMap<Long, ChangeJournal> _changeJournals =
+		new ConcurrentHashMap<Long, ChangeJournal>();
+
+	private static class ChangeJournal {
+
+		public ChangeJournal(long startTime) {
+			_startTime = startTime;
+			_pruneTime = startTime + Time.HOUR;
+		}
+
+		public synchronized void addChange(
+			String className, long classPK, long time) {
+
+			if (time >= _pruneTime) {
+				prune(time - _MAX_AGE);
+
+				_pruneTime = time + Time.HOUR;
+			}
+
+			Map<Long, Long> modifiedTimes = _modifiedTimesMap.get(className);
+
+			if (modifiedTimes == null) {
+				modifiedTimes = new HashMap<Long, Long>();
+
+				_modifiedTimesMap.put(className, modifiedTimes);
+			}
+
+			modifiedTimes.put(classPK, time);
+		}
+
+		public synchronized long[] getClassPKs(
+			String className, long startTime) {
+
+			if (startTime < _startTime) {
+				return null;
+			}
+
+			Map<Long, Long> modifiedTimes = _modifiedTimesMap.get(className);
+
+			if (modifiedTimes == null) {
+				return new long[0];
+			}
+
+			long[] classPKs = new long[modifiedTimes.size()];
+
+			int i = 0;
+
+			for (Map.Entry<Long, Long> entry : modifiedTimes.entrySet()) {
+				if (entry.getValue() >= startTime) {
+					classPKs[i++] = entry.getKey();
+				}
+			}
+
+			long[] matchingClassPKs = new long[i];
+
+			System.arraycopy(classPKs, 0, matchingClassPKs, 0, i);
+
+			return matchingClassPKs;
+		}
+
+		public synchronized void removeChange(String className, long classPK) {
+			Map<Long, Long> modifiedTimes = _modifiedTimesMap.get(className);
+
+			if (modifiedTimes != null) {
+				modifiedTimes.remove(classPK);
+			}
+		}
+
+		protected void prune(long startTime) {
+			if (startTime <= _startTime) {
+				return;
+			}
+
+			for (Map<Long, Long> modifiedTimes : _modifiedTimesMap.values()) {
+				Iterator<Long> itr = modifiedTimes.values().iterator();
+
+				while (itr.hasNext()) {
+					if (itr.next() < startTime) {
+						itr.remove();
+					}
+				}
+			}
+
+			_startTime = startTime;
+		}
+
+		private Map<String, Map<Long, Long>> _modifiedTimesMap =
+			new HashMap<String, Map<Long, Long>>();
+		private long _pruneTime;
+		private long _startTime;
+
+	}
+
+}
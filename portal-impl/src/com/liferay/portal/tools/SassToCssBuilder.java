@@ -16,6 +16,8 @@ package com.liferay.portal.tools;
 
 import com.liferay.portal.kernel.io.unsync.UnsyncByteArrayOutputStream;
 import com.liferay.portal.kernel.io.unsync.UnsyncPrintWriter;
+import com.liferay.portal.kernel.util.Digester;
+import com.liferay.portal.kernel.util.DigesterUtil;
 import com.liferay.portal.kernel.util.FastDateFormatFactoryUtil;
 import com.liferay.portal.kernel.util.FileUtil;
 import com.liferay.portal.kernel.util.PortalClassLoaderUtil;
@@ -29,6 +31,7 @@ import com.liferay.portal.model.ModelHintsConstants;
 import com.liferay.portal.scripting.ruby.RubyExecutor;
 import com.liferay.portal.servlet.filters.aggregate.AggregateFilter;
 import com.liferay.portal.servlet.filters.aggregate.FileAggregateContext;
+import com.liferay.portal.util.DigesterImpl;
 import com.liferay.portal.util.FastDateFormatFactoryImpl;
 import com.liferay.portal.util.FileImpl;
 import com.liferay.portal.util.PortalImpl;
@@ -50,6 +53,12 @@ import org.apache.tools.ant.DirectoryScanner;
  */
 public class SassToCssBuilder {
 
+	public static File getCacheDigestFile(String fileName) {
+		File cacheFile = getCacheFile(fileName);
+
+		return new File(cacheFile.getPath() + ".md5");
+	}
+
 	public static File getCacheFile(String fileName) {
 		fileName = StringUtil.replace(
 			fileName, StringPool.BACK_SLASH, StringPool.SLASH);
@@ -138,10 +147,8 @@ public class SassToCssBuilder {
 	private String _getContent(File file) throws Exception {
 		String content = FileUtil.read(file);
 
-		content = AggregateFilter.aggregateCss(
+		return AggregateFilter.aggregateCss(
 			new FileAggregateContext(file), content);
-
-		return parseStaticTokens(content);
 	}
 
 	private String _getCssThemePath(String fileName) {
@@ -161,6 +168,10 @@ public class SassToCssBuilder {
 
 		fileUtil.setFile(new FileImpl());
 
+		DigesterUtil digesterUtil = new DigesterUtil();
+
+		digesterUtil.setDigester(new DigesterImpl());
+
 		PortalClassLoaderUtil.setClassLoader(classLoader);
 
 		PortalUtil portalUtil = new PortalUtil();
@@ -217,9 +228,11 @@ public class SassToCssBuilder {
 			return false;
 		}
 
+		String content = _getContent(file);
+
 		Map<String, Object> inputObjects = new HashMap<String, Object>();
 
-		inputObjects.put("content", _getContent(file));
+		inputObjects.put("content", parseStaticTokens(content));
 		inputObjects.put("cssRealPath", fileName);
 		inputObjects.put("cssThemePath", _getCssThemePath(fileName));
 		inputObjects.put("sassCachePath", _tempDir);
@@ -242,6 +255,10 @@ public class SassToCssBuilder {
 
 		cacheFile.setLastModified(file.lastModified());
 
+		FileUtil.write(
+			getCacheDigestFile(fileName),
+			DigesterUtil.digestHex(Digester.MD5, content));
+
 		return true;
 	}
 
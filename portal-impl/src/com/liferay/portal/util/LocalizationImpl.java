@@ -28,7 +28,6 @@ import com.liferay.portal.kernel.util.PrefsParamUtil;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
-import com.liferay.portal.kernel.util.Tuple;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.language.LanguageResources;
 import com.liferay.portal.security.pacl.PACLClassLoaderUtil;
@@ -37,6 +36,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.portlet.PortletPreferences;
 import javax.portlet.PortletRequest;
@@ -48,8 +48,6 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 
-import org.apache.commons.collections.map.ReferenceMap;
-
 /**
  * @author Alexander Chow
  * @author Jorge Ferrer
@@ -130,7 +128,14 @@ public class LocalizationImpl implements Localization {
 		String defaultLanguageId = LocaleUtil.toLanguageId(
 			LocaleUtil.getDefault());
 
-		return _getRootAttribute(xml, _DEFAULT_LOCALE, defaultLanguageId);
+		if (!Validator.isXml(xml)) {
+			return _getRootAttribute(xml, _DEFAULT_LOCALE, defaultLanguageId);
+		}
+
+		LocalizedValues localizedValues = _getLocalizedValues(
+			xml, defaultLanguageId);
+
+		return localizedValues.getDefaultLanguageId();
 	}
 
 	public String getLocalization(String xml, String requestedLanguageId) {
@@ -140,155 +145,46 @@ public class LocalizationImpl implements Localization {
 	public String getLocalization(
 		String xml, String requestedLanguageId, boolean useDefault) {
 
-		String value = _getCachedValue(xml, requestedLanguageId, useDefault);
-
-		if (value != null) {
-			return value;
-		}
-		else {
-			value = StringPool.BLANK;
-		}
-
 		String systemDefaultLanguageId = LocaleUtil.toLanguageId(
 			LocaleUtil.getDefault());
 
-		String priorityLanguageId = null;
-
-		Locale requestedLocale = LocaleUtil.fromLanguageId(requestedLanguageId);
-
-		if (useDefault &&
-			LanguageUtil.isDuplicateLanguageCode(
-				requestedLocale.getLanguage())) {
-
-			Locale priorityLocale = LanguageUtil.getLocale(
-				requestedLocale.getLanguage());
-
-			if (!requestedLanguageId.equals(priorityLanguageId)) {
-				priorityLanguageId = LocaleUtil.toLanguageId(priorityLocale);
-			}
-		}
-
 		if (!Validator.isXml(xml)) {
 			if (useDefault ||
 				requestedLanguageId.equals(systemDefaultLanguageId)) {
 
-				value = xml;
+				return xml;
 			}
 
-			_setCachedValue(xml, requestedLanguageId, useDefault, value);
-
-			return value;
+			return StringPool.BLANK;
 		}
 
-		XMLStreamReader xmlStreamReader = null;
-
-		ClassLoader portalClassLoader =
-			PACLClassLoaderUtil.getPortalClassLoader();
-
-		ClassLoader contextClassLoader =
-			PACLClassLoaderUtil.getContextClassLoader();
-
-		try {
-			if (contextClassLoader != portalClassLoader) {
-				PACLClassLoaderUtil.setContextClassLoader(portalClassLoader);
-			}
-
-			XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-
-			xmlStreamReader = xmlInputFactory.createXMLStreamReader(
-				new UnsyncStringReader(xml));
-
-			String defaultLanguageId = StringPool.BLANK;
-
-			// Skip root node
-
-			if (xmlStreamReader.hasNext()) {
-				xmlStreamReader.nextTag();
-
-				defaultLanguageId = xmlStreamReader.getAttributeValue(
-					null, _DEFAULT_LOCALE);
-
-				if (Validator.isNull(defaultLanguageId)) {
-					defaultLanguageId = systemDefaultLanguageId;
-				}
-			}
-
-			// Find specified language and/or default language
+		LocalizedValues localizedValues = _getLocalizedValues(
+			xml, systemDefaultLanguageId);
 
-			String defaultValue = StringPool.BLANK;
-			String priorityValue = StringPool.BLANK;
+		String value = localizedValues.getValue(requestedLanguageId);
 
-			while (xmlStreamReader.hasNext()) {
-				int event = xmlStreamReader.next();
-
-				if (event == XMLStreamConstants.START_ELEMENT) {
-					String languageId = xmlStreamReader.getAttributeValue(
-						null, _LANGUAGE_ID);
-
-					if (Validator.isNull(languageId)) {
-						languageId = defaultLanguageId;
-					}
-
-					if (languageId.equals(defaultLanguageId) ||
-						languageId.equals(priorityLanguageId) ||
-						languageId.equals(requestedLanguageId)) {
-
-						String text = xmlStreamReader.getElementText();
-
-						if (languageId.equals(defaultLanguageId)) {
-							defaultValue = text;
-						}
-
-						if (languageId.equals(priorityLanguageId)) {
-							priorityValue = text;
-						}
-
-						if (languageId.equals(requestedLanguageId)) {
-							value = text;
-						}
+		if (!useDefault || Validator.isNotNull(value)) {
+			return value;
+		}
 
-						if (Validator.isNotNull(value)) {
-							break;
-						}
-					}
-				}
-				else if (event == XMLStreamConstants.END_DOCUMENT) {
-					break;
-				}
-			}
+		Locale requestedLocale = LocaleUtil.fromLanguageId(requestedLanguageId);
 
-			if (useDefault && Validator.isNotNull(priorityLanguageId) &&
-				Validator.isNull(value) && Validator.isNotNull(priorityValue)) {
+		if (LanguageUtil.isDuplicateLanguageCode(
+				requestedLocale.getLanguage())) {
 
-				value = priorityValue;
-			}
+			Locale priorityLocale = LanguageUtil.getLocale(
+				requestedLocale.getLanguage());
 
-			if (useDefault && Validator.isNull(value)) {
-				value = defaultValue;
-			}
-		}
-		catch (Exception e) {
-			if (_log.isWarnEnabled()) {
-				_log.warn(e, e);
-			}
-		}
-		finally {
-			if (contextClassLoader != portalClassLoader) {
-				PACLClassLoaderUtil.setContextClassLoader(contextClassLoader);
-			}
+			value = localizedValues.getValue(
+				LocaleUtil.toLanguageId(priorityLocale));
 
-			if (xmlStreamReader != null) {
-				try {
-					xmlStreamReader.close();
-				}
-				catch (Exception e) {
-				}
+			if (Validator.isNotNull(value)) {
+				return value;
 			}
 		}
 
-		_setCachedValue(xml, requestedLanguageId, useDefault, value);
-
-		return value;
+		return localizedValues.getValue(
+			localizedValues.getDefaultLanguageId());
 	}
 
 	public Map<Locale, String> getLocalizationMap(
@@ -536,7 +432,7 @@ public class LocalizationImpl implements Localization {
 				PACLClassLoaderUtil.setContextClassLoader(portalClassLoader);
 			}
 
-			XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+			XMLInputFactory xmlInputFactory = _getXMLInputFactory();
 
 			xmlStreamReader = xmlInputFactory.createXMLStreamReader(
 				new UnsyncStringReader(xml));
@@ -736,7 +632,7 @@ public class LocalizationImpl implements Localization {
 				PACLClassLoaderUtil.setContextClassLoader(portalClassLoader);
 			}
 
-			XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+			XMLInputFactory xmlInputFactory = _getXMLInputFactory();
 
 			xmlStreamReader = xmlInputFactory.createXMLStreamReader(
 				new UnsyncStringReader(xml));
@@ -889,22 +785,6 @@ public class LocalizationImpl implements Localization {
 		}
 	}
 
-	private String _getCachedValue(
-		String xml, String requestedLanguageId, boolean useDefault) {
-
-		String value = null;
-
-		Map<Tuple, String> valueMap = _cache.get(xml);
-
-		if (valueMap != null) {
-			Tuple subkey = new Tuple(useDefault, requestedLanguageId);
-
-			value = valueMap.get(subkey);
-		}
-
-		return value;
-	}
-
 	private String _getLocalization(
 		String bundleName, Locale locale, ClassLoader classLoader, String key,
 		String defaultValue) {
@@ -934,6 +814,46 @@ public class LocalizationImpl implements Localization {
 		return value;
 	}
 
+	private LocalizedValues _getLocalizedValues(
+		String xml, String systemDefaultLanguageId) {
+
+		LocalizedValues localizedValues = _localizedValuesCache.get(xml);
+
+		if (localizedValues != null) {
+			return localizedValues;
+		}
+
+		Map<String, LocalizedValues> previousLocalizedValuesCache =
+			_previousLocalizedValuesCache;
+
+		localizedValues = previousLocalizedValuesCache.get(xml);
+
+		if (localizedValues == null) {
+			localizedValues = _parseLocalizedValues(
+				xml, systemDefaultLanguageId);
+		}
+
+		Map<String, LocalizedValues> localizedValuesCache =
+			_localizedValuesCache;
+
+		if (localizedValuesCache.size() >= _LOCALIZED_VALUES_CACHE_MAX_SIZE) {
+
+			// Keep the recently used values one more generation so that hot
+			// values survive the rotation without being parsed again
+
+			_previousLocalizedValuesCache = localizedValuesCache;
+
+			localizedValuesCache =
+				new ConcurrentHashMap<String, LocalizedValues>();
+
+			_localizedValuesCache = localizedValuesCache;
+		}
+
+		localizedValuesCache.put(xml, localizedValues);
+
+		return localizedValues;
+	}
+
 	private String _getRootAttribute(
 		String xml, String name, String defaultValue) {
 
@@ -952,7 +872,7 @@ public class LocalizationImpl implements Localization {
 				PACLClassLoaderUtil.setContextClassLoader(portalClassLoader);
 			}
 
-			XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+			XMLInputFactory xmlInputFactory = _getXMLInputFactory();
 
 			xmlStreamReader = xmlInputFactory.createXMLStreamReader(
 				new UnsyncStringReader(xml));
@@ -989,33 +909,107 @@ public class LocalizationImpl implements Localization {
 		return value;
 	}
 
-	private String _sanitizeXML(String xml) {
-		if (Validator.isNull(xml) || !xml.contains("<root")) {
-			xml = _EMPTY_ROOT_NODE;
+	private XMLInputFactory _getXMLInputFactory() {
+		XMLInputFactory xmlInputFactory = _xmlInputFactory;
+
+		if (xmlInputFactory == null) {
+			xmlInputFactory = XMLInputFactory.newInstance();
+
+			_xmlInputFactory = xmlInputFactory;
 		}
 
-		return xml;
+		return xmlInputFactory;
 	}
 
-	private void _setCachedValue(
-		String xml, String requestedLanguageId, boolean useDefault,
-		String value) {
+	private LocalizedValues _parseLocalizedValues(
+		String xml, String systemDefaultLanguageId) {
+
+		String defaultLanguageId = systemDefaultLanguageId;
+		Map<String, String> values = new HashMap<String, String>();
+
+		XMLStreamReader xmlStreamReader = null;
+
+		ClassLoader portalClassLoader =
+			PACLClassLoaderUtil.getPortalClassLoader();
+
+		ClassLoader contextClassLoader =
+			PACLClassLoaderUtil.getContextClassLoader();
+
+		try {
+			if (contextClassLoader != portalClassLoader) {
+				PACLClassLoaderUtil.setContextClassLoader(portalClassLoader);
+			}
+
+			XMLInputFactory xmlInputFactory = _getXMLInputFactory();
+
+			xmlStreamReader = xmlInputFactory.createXMLStreamReader(
+				new UnsyncStringReader(xml));
+
+			// Skip root node
+
+			if (xmlStreamReader.hasNext()) {
+				xmlStreamReader.nextTag();
 
-		if (Validator.isNotNull(xml) && !xml.equals(_EMPTY_ROOT_NODE)) {
-			synchronized (_cache) {
-				Map<Tuple, String> map = _cache.get(xml);
+				String rootDefaultLanguageId =
+					xmlStreamReader.getAttributeValue(null, _DEFAULT_LOCALE);
 
-				if (map == null) {
-					map = new HashMap<Tuple, String>();
+				if (Validator.isNotNull(rootDefaultLanguageId)) {
+					defaultLanguageId = rootDefaultLanguageId;
 				}
+			}
+
+			// Read the value of every language
+
+			while (xmlStreamReader.hasNext()) {
+				int event = xmlStreamReader.next();
 
-				Tuple subkey = new Tuple(useDefault, requestedLanguageId);
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String languageId = xmlStreamReader.getAttributeValue(
+						null, _LANGUAGE_ID);
 
-				map.put(subkey, value);
+					if (Validator.isNull(languageId)) {
+						languageId = defaultLanguageId;
+					}
 
-				_cache.put(xml, map);
+					String text = xmlStreamReader.getElementText();
+
+					if (Validator.isNull(values.get(languageId))) {
+						values.put(languageId, text);
+					}
+				}
+				else if (event == XMLStreamConstants.END_DOCUMENT) {
+					break;
+				}
 			}
 		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(e, e);
+			}
+		}
+		finally {
+			if (contextClassLoader != portalClassLoader) {
+				PACLClassLoaderUtil.setContextClassLoader(contextClassLoader);
+			}
+
+			if (xmlStreamReader != null) {
+				try {
+					xmlStreamReader.close();
+				}
+				catch (Exception e) {
+				}
+			}
+		}
+
+		return new LocalizedValues(defaultLanguageId, values);
+	}
+
+	private String _sanitizeXML(String xml) {
+		if (Validator.isNull(xml) || !xml.contains("<root")) {
+			xml = _EMPTY_ROOT_NODE;
+		}
+
+		return xml;
 	}
 
 	private static final String _AVAILABLE_LOCALES = "available-locales";
@@ -1026,11 +1020,45 @@ public class LocalizationImpl implements Localization {
 
 	private static final String _LANGUAGE_ID = "language-id";
 
+	private static final int _LOCALIZED_VALUES_CACHE_MAX_SIZE = 10000;
+
 	private static final String _ROOT = "root";
 
 	private static Log _log = LogFactoryUtil.getLog(LocalizationImpl.class);
 
-	private Map<String, Map<Tuple, String>> _cache = new ReferenceMap(
-		ReferenceMap.SOFT, ReferenceMap.HARD);
+	private volatile Map<String, LocalizedValues> _localizedValuesCache =
+		new ConcurrentHashMap<String, LocalizedValues>();
+	private volatile Map<String, LocalizedValues>
+		_previousLocalizedValuesCache =
+			new ConcurrentHashMap<String, LocalizedValues>();
+	private volatile XMLInputFactory _xmlInputFactory;
+
+	private static class LocalizedValues {
+
+		public LocalizedValues(
+			String defaultLanguageId, Map<String, String> values) {
+
+			_defaultLanguageId = defaultLanguageId;
+			_values = values;
+		}
+
+		public String getDefaultLanguageId() {
+			return _defaultLanguageId;
+		}
+
+		public String getValue(String languageId) {
+			String value = _values.get(languageId);
+
+			if (value == null) {
+				return StringPool.BLANK;
+			}
+
+			return value;
+		}
+
+		private final String _defaultLanguageId;
+		private final Map<String, String> _values;
+
+	}
 
 }
\ No newline at end of file
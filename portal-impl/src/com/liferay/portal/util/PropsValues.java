@@ -76,6 +76,10 @@ public class PropsValues {
 
 	public static final boolean ASSET_ENTRY_INCREMENT_VIEW_COUNTER_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.ASSET_ENTRY_INCREMENT_VIEW_COUNTER_ENABLED));
 
+	public static final boolean ASSET_ENTRY_QUERY_INDEX_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.ASSET_ENTRY_QUERY_INDEX_ENABLED));
+
+	public static final int ASSET_ENTRY_QUERY_INDEX_MAX_ENTRY_IDS = GetterUtil.getInteger(PropsUtil.get(PropsKeys.ASSET_ENTRY_QUERY_INDEX_MAX_ENTRY_IDS));
+
 	public static final String ASSET_ENTRY_VALIDATOR = PropsUtil.get(PropsKeys.ASSET_ENTRY_VALIDATOR);
 
 	public static final int ASSET_FILTER_SEARCH_LIMIT = GetterUtil.getInteger(PropsUtil.get(PropsKeys.ASSET_FILTER_SEARCH_LIMIT));
@@ -736,6 +740,10 @@ public class PropsValues {
 
 	public static final boolean JOURNAL_ARTICLES_SEARCH_WITH_INDEX = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.JOURNAL_ARTICLES_SEARCH_WITH_INDEX));
 
+	public static final boolean JOURNAL_CONTENT_CACHE_BLOCKING_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.JOURNAL_CONTENT_CACHE_BLOCKING_ENABLED));
+
+	public static final long JOURNAL_CONTENT_CACHE_SOFT_TTL = GetterUtil.getLong(PropsUtil.get(PropsKeys.JOURNAL_CONTENT_CACHE_SOFT_TTL));
+
 	public static final boolean JOURNAL_CONTENT_SEARCH_SHOW_LISTED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.JOURNAL_CONTENT_SEARCH_SHOW_LISTED));
 
 	public static final String JOURNAL_DEFAULT_DISPLAY_VIEW = PropsUtil.get(PropsKeys.JOURNAL_DEFAULT_DISPLAY_VIEW);
@@ -790,6 +798,8 @@ public class PropsValues {
 
 	public static final String[] JSONWS_WEB_SERVICE_INVALID_HTTP_METHODS = PropsUtil.getArray(PropsKeys.JSONWS_WEB_SERVICE_INVALID_HTTP_METHODS);
 
+	public static final boolean JSONWS_WEB_SERVICE_INVOKER_PARALLEL_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.JSONWS_WEB_SERVICE_INVOKER_PARALLEL_ENABLED));
+
 	public static final boolean JSONWS_WEB_SERVICE_STRICT_HTTP_METHOD = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.JSONWS_WEB_SERVICE_STRICT_HTTP_METHOD));
 
 	public static final boolean LAYOUT_AJAX_RENDER_ENABLE = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.LAYOUT_AJAX_RENDER_ENABLE)) && !GetterUtil.getBoolean(PropsUtil.get(PropsKeys.SESSION_DISABLED));
@@ -888,6 +898,8 @@ public class PropsValues {
 
 	public static final boolean LDAP_IMPORT_GROUP_CACHE_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.LDAP_IMPORT_GROUP_CACHE_ENABLED));
 
+	public static final boolean LDAP_IMPORT_INCREMENTAL_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.LDAP_IMPORT_INCREMENTAL_ENABLED));
+
 	public static final long LDAP_IMPORT_INTERVAL = GetterUtil.getLong(PropsUtil.get(PropsKeys.LDAP_IMPORT_INTERVAL));
 
 	public static final long LDAP_IMPORT_LOCK_EXPIRATION_TIME = GetterUtil.getLong(PropsUtil.get(PropsKeys.LDAP_IMPORT_LOCK_EXPIRATION_TIME));
@@ -1530,16 +1542,26 @@ public class PropsValues {
 
 	public static final int[] SOCIAL_ACTIVITY_CONTRIBUTION_LIMIT_VALUES = GetterUtil.getIntegerValues(PropsUtil.getArray(PropsKeys.SOCIAL_ACTIVITY_CONTRIBUTION_LIMIT_VALUES));
 
+	public static final boolean SOCIAL_ACTIVITY_COUNTER_BUFFERED_INCREMENT_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_COUNTER_BUFFERED_INCREMENT_ENABLED));
+
 	public static final long SOCIAL_ACTIVITY_COUNTER_LOCK_RETRY_DELAY = GetterUtil.getLong(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_COUNTER_LOCK_RETRY_DELAY));
 
 	public static final long SOCIAL_ACTIVITY_COUNTER_LOCK_TIMEOUT = GetterUtil.getLong(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_COUNTER_LOCK_TIMEOUT));
 
 	public static final String SOCIAL_ACTIVITY_COUNTER_PERIOD_LENGTH = PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_COUNTER_PERIOD_LENGTH);
 
+	public static final int SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE = GetterUtil.getInteger(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE));
+
 	public static final int[] SOCIAL_ACTIVITY_PARTICIPATION_INCREMENTS = GetterUtil.getIntegerValues(PropsUtil.getArray(PropsKeys.SOCIAL_ACTIVITY_PARTICIPATION_INCREMENTS));
 
 	public static final int[] SOCIAL_ACTIVITY_PARTICIPATION_LIMIT_VALUES = GetterUtil.getIntegerValues(PropsUtil.getArray(PropsKeys.SOCIAL_ACTIVITY_PARTICIPATION_LIMIT_VALUES));
 
+	public static final int SOCIAL_ACTIVITY_QUEUE_BATCH_SIZE = GetterUtil.getInteger(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_QUEUE_BATCH_SIZE));
+
+	public static final int SOCIAL_ACTIVITY_QUEUE_CAPACITY = GetterUtil.getInteger(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_QUEUE_CAPACITY));
+
+	public static final boolean SOCIAL_ACTIVITY_QUEUE_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.SOCIAL_ACTIVITY_QUEUE_ENABLED));
+
 	public static final String[] SPRING_CONFIGS = PropsUtil.getArray(PropsKeys.SPRING_CONFIGS);
 
 	public static boolean SPRING_HIBERNATE_SESSION_DELEGATED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.SPRING_HIBERNATE_SESSION_DELEGATED));
@@ -1552,6 +1574,14 @@ public class PropsValues {
 
 	public static final int SQL_DATA_MAX_PARAMETERS = GetterUtil.getInteger(PropsUtil.get(PropsKeys.SQL_DATA_MAX_PARAMETERS));
 
+	public static final boolean STAGING_CHANGE_JOURNAL_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.STAGING_CHANGE_JOURNAL_ENABLED));
+
+	public static final int STAGING_CHANGE_JOURNAL_MAX_AGE = GetterUtil.getInteger(PropsUtil.get(PropsKeys.STAGING_CHANGE_JOURNAL_MAX_AGE));
+
+	public static final boolean STAGING_EXPORT_PARALLEL_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.STAGING_EXPORT_PARALLEL_ENABLED));
+
+	public static final boolean STAGING_IMPORT_BATCH_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.STAGING_IMPORT_BATCH_ENABLED));
+
 	public static boolean STAGING_LOCK_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.STAGING_LOCK_ENABLED));
 
 	public static boolean STRIP_CSS_SASS_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.STRIP_CSS_SASS_ENABLED));
@@ -1580,6 +1610,8 @@ public class PropsValues {
 
 	public static boolean THEME_CSS_FAST_LOAD = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.THEME_CSS_FAST_LOAD));
 
+	public static final boolean THEME_CSS_PRECOMPILE_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.THEME_CSS_PRECOMPILE_ENABLED));
+
 	public static boolean THEME_IMAGES_FAST_LOAD = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.THEME_IMAGES_FAST_LOAD));
 
 	public static boolean THEME_JSP_OVERRIDE_ENABLED = GetterUtil.getBoolean(PropsUtil.get(PropsKeys.THEME_JSP_OVERRIDE_ENABLED));
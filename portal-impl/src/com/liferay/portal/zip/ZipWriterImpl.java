@@ -79,7 +79,7 @@ public class ZipWriterImpl implements ZipWriter {
 		}
 	}
 
-	public void addEntry(String name, InputStream inpuStream)
+	public synchronized void addEntry(String name, InputStream inpuStream)
 		throws IOException {
 
 		if (name.startsWith(StringPool.SLASH)) {
@@ -115,7 +115,7 @@ public class ZipWriterImpl implements ZipWriter {
 		addEntry(name, sb.toString());
 	}
 
-	public byte[] finish() throws IOException {
+	public synchronized byte[] finish() throws IOException {
 		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream =
 			new UnsyncByteArrayOutputStream();
 
@@ -132,7 +132,7 @@ public class ZipWriterImpl implements ZipWriter {
 		return unsyncByteArrayOutputStream.toByteArray();
 	}
 
-	public java.io.File getFile() {
+	public synchronized java.io.File getFile() {
 		try {
 			File.umount(_file);
 		}
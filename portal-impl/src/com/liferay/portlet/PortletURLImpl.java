@@ -68,6 +68,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.portlet.PortletMode;
 import javax.portlet.PortletModeException;
@@ -711,9 +712,19 @@ public class PortletURLImpl
 			return;
 		}
 
+		PortletURLCache portletURLCache = getPortletURLCache();
+
+		String portalAuthToken = portletURLCache.getPortalAuthToken();
+
+		if (portalAuthToken == null) {
+			portalAuthToken = AuthTokenUtil.getToken(_request);
+
+			portletURLCache.setPortalAuthToken(portalAuthToken);
+		}
+
 		sb.append("p_auth");
 		sb.append(StringPool.EQUAL);
-		sb.append(processValue(key, AuthTokenUtil.getToken(_request)));
+		sb.append(processValue(key, portalAuthToken));
 		sb.append(StringPool.AMPERSAND);
 	}
 
@@ -727,8 +738,18 @@ public class PortletURLImpl
 
 		String ppauth = ParamUtil.getString(request, "p_p_auth");
 
-		String actualPortletAuthenticationToken = AuthTokenUtil.getToken(
-			_request, _plid, _portletId);
+		PortletURLCache portletURLCache = getPortletURLCache();
+
+		String actualPortletAuthenticationToken =
+			portletURLCache.getPortletAuthToken(_plid, _portletId);
+
+		if (actualPortletAuthenticationToken == null) {
+			actualPortletAuthenticationToken = AuthTokenUtil.getToken(
+				_request, _plid, _portletId);
+
+			portletURLCache.setPortletAuthToken(
+				_plid, _portletId, actualPortletAuthenticationToken);
+		}
 
 		if (Validator.isNotNull(ppauth) &&
 			ppauth.equals(actualPortletAuthenticationToken)) {
@@ -779,18 +800,33 @@ public class PortletURLImpl
 		ThemeDisplay themeDisplay = (ThemeDisplay)_request.getAttribute(
 			WebKeys.THEME_DISPLAY);
 
-		String portalURL = null;
+		// The portal URL and the layout friendly URL are the same for every
+		// URL to the same layout within a request, so they are only computed
+		// once per request
 
-		if (themeDisplay.isFacebook()) {
-			portalURL =
-				FacebookUtil.FACEBOOK_APPS_URL +
-					themeDisplay.getFacebookCanvasPageURL();
-		}
-		else {
-			portalURL = PortalUtil.getPortalURL(_request, _secure);
+		PortletURLCache portletURLCache = getPortletURLCache();
+
+		String portalURL = portletURLCache.getPortalURL(_secure);
+
+		if (portalURL == null) {
+			if (themeDisplay.isFacebook()) {
+				portalURL =
+					FacebookUtil.FACEBOOK_APPS_URL +
+						themeDisplay.getFacebookCanvasPageURL();
+			}
+			else {
+				portalURL = PortalUtil.getPortalURL(_request, _secure);
+			}
+
+			portletURLCache.setPortalURL(_secure, portalURL);
 		}
 
 		try {
+			if (_layoutFriendlyURL == null) {
+				_layoutFriendlyURL = portletURLCache.getLayoutFriendlyURL(
+					_plid, _secure);
+			}
+
 			if (_layoutFriendlyURL == null) {
 				Layout layout = getLayout();
 
@@ -802,6 +838,9 @@ public class PortletURLImpl
 						_layoutFriendlyURL = HttpUtil.protocolize(
 							_layoutFriendlyURL, true);
 					}
+
+					portletURLCache.setLayoutFriendlyURL(
+						_plid, _secure, _layoutFriendlyURL);
 				}
 			}
 		}
@@ -1213,6 +1252,24 @@ public class PortletURLImpl
 		return sb.toString();
 	}
 
+	protected PortletURLCache getPortletURLCache() {
+		ThemeDisplay themeDisplay = (ThemeDisplay)_request.getAttribute(
+			WebKeys.THEME_DISPLAY);
+
+		PortletURLCache portletURLCache =
+			(PortletURLCache)_request.getAttribute(WebKeys.PORTLET_URL_CACHE);
+
+		if ((portletURLCache == null) ||
+			(portletURLCache.getThemeDisplay() != themeDisplay)) {
+
+			portletURLCache = new PortletURLCache(themeDisplay);
+
+			_request.setAttribute(WebKeys.PORTLET_URL_CACHE, portletURLCache);
+		}
+
+		return portletURLCache;
+	}
+
 	protected String getPublicRenderParameterName(String name) {
 		Portlet portlet = getPortlet();
 
@@ -1404,4 +1461,99 @@ public class PortletURLImpl
 	private String _windowStateString;
 	private boolean _wsrp;
 
+	/**
+	 * Holds the parts of a URL that are the same for every URL generated
+	 * within a request for the same theme display, such as the portal URL and
+	 * the layout friendly URLs. Portlets may be rendered in parallel, so the
+	 * cache must be thread safe.
+	 */
+	private static class PortletURLCache {
+
+		public PortletURLCache(ThemeDisplay themeDisplay) {
+			_themeDisplay = themeDisplay;
+		}
+
+		public String getLayoutFriendlyURL(long plid, boolean secure) {
+			return _getLayoutFriendlyURLs(secure).get(plid);
+		}
+
+		public String getPortalAuthToken() {
+			return _portalAuthToken;
+		}
+
+		public String getPortalURL(boolean secure) {
+			if (secure) {
+				return _securePortalURL;
+			}
+			else {
+				return _portalURL;
+			}
+		}
+
+		public String getPortletAuthToken(long plid, String portletId) {
+			String portletAuthTokenKey = _getPortletAuthTokenKey(
+				plid, portletId);
+
+			return _portletAuthTokens.get(portletAuthTokenKey);
+		}
+
+		public ThemeDisplay getThemeDisplay() {
+			return _themeDisplay;
+		}
+
+		public void setLayoutFriendlyURL(
+			long plid, boolean secure, String layoutFriendlyURL) {
+
+			_getLayoutFriendlyURLs(secure).put(plid, layoutFriendlyURL);
+		}
+
+		public void setPortalAuthToken(String portalAuthToken) {
+			_portalAuthToken = portalAuthToken;
+		}
+
+		public void setPortalURL(boolean secure, String portalURL) {
+			if (secure) {
+				_securePortalURL = portalURL;
+			}
+			else {
+				_portalURL = portalURL;
+			}
+		}
+
+		public void setPortletAuthToken(
+			long plid, String portletId, String portletAuthToken) {
+
+			if (portletAuthToken != null) {
+				_portletAuthTokens.put(
+					_getPortletAuthTokenKey(plid, portletId), portletAuthToken);
+			}
+		}
+
+		private Map<Long, String> _getLayoutFriendlyURLs(boolean secure) {
+			if (secure) {
+				return _secureLayoutFriendlyURLs;
+			}
+			else {
+				return _layoutFriendlyURLs;
+			}
+		}
+
+		private String _getPortletAuthTokenKey(long plid, String portletId) {
+			return String.valueOf(plid).concat(StringPool.POUND).concat(
+				portletId);
+		}
+
+		private Map<Long, String> _layoutFriendlyURLs =
+			new ConcurrentHashMap<Long, String>();
+		private volatile String _portalAuthToken;
+		private volatile String _portalURL;
+		private Map<String, String> _portletAuthTokens =
+			new ConcurrentHashMap<String, String>();
+		private Map<Long, String> _secureLayoutFriendlyURLs =
+			new ConcurrentHashMap<Long, String>();
+		private volatile String _securePortalURL;
+		private ThemeDisplay _themeDisplay;
+
+	}
+
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
 package com.liferay.portlet;
 
 import com.liferay.portal.kernel.portlet.Route;
+import com.liferay.portal.kernel.util.CharPool;
 import com.liferay.portal.kernel.util.InheritableMap;
 import com.liferay.portal.kernel.util.MapUtil;
 import com.liferay.portal.kernel.util.StringEncoder;
@@ -37,6 +38,15 @@ public class RouteImpl implements Route {
 		_stringParser = new StringParser(pattern);
 
 		_stringParser.setStringEncoder(_urlEncoder);
+
+		int pos = pattern.indexOf(CharPool.OPEN_CURLY_BRACE);
+
+		if (pos != -1) {
+			_prefix = pattern.substring(0, pos);
+		}
+		else {
+			_prefix = pattern;
+		}
 	}
 
 	public void addGeneratedParameter(String name, String pattern) {
@@ -73,6 +83,14 @@ public class RouteImpl implements Route {
 		return _overriddenParameters;
 	}
 
+	/**
+	 * Returns the literal part of the pattern before its first fragment, which
+	 * every URL matched by this route starts with.
+	 */
+	public String getPrefix() {
+		return _prefix;
+	}
+
 	public String parametersToUrl(Map<String, String> parameters) {
 		InheritableMap<String, String> allParameters =
 			new InheritableMap<String, String>();
@@ -169,6 +187,7 @@ public class RouteImpl implements Route {
 		new HashMap<String, String>();
 	private Map<String, String> _overriddenParameters =
 		new HashMap<String, String>();
+	private String _prefix;
 	private StringParser _stringParser;
 
 }
\ No newline at end of file
@@ -16,27 +16,54 @@ package com.liferay.portlet;
 
 import com.liferay.portal.kernel.portlet.Route;
 import com.liferay.portal.kernel.portlet.Router;
+import com.liferay.portal.kernel.util.MapUtil;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
+ * <p>
+ * Routes are still tried in the order they were added, but only the routes
+ * that can possibly match are tried. URLs are only matched against the routes
+ * whose literal prefix, the part of the pattern before its first fragment, is
+ * a prefix of the URL. Parameters are only matched against the routes whose
+ * implicit value for the most common implicit parameter matches.
+ * </p>
+ *
+ * <p>
+ * The indexes are built when the router is first used, after all its routes
+ * have been added and configured.
+ * </p>
+ *
  * @author Connor McKay
  * @author Brian Wing Shun Chan
  */
 public class RouterImpl implements Router {
 
 	public Route addRoute(String pattern) {
-		Route route = new RouteImpl(pattern);
+		RouteImpl routeImpl = new RouteImpl(pattern);
 
-		_routes.add(route);
+		_routes.add(routeImpl);
 
-		return route;
+		_routeIndex = null;
+
+		return routeImpl;
 	}
 
 	public String parametersToUrl(Map<String, String> parameters) {
-		for (Route route : _routes) {
+		RouteIndex routeIndex = getRouteIndex();
+
+		BitSet routeIds = routeIndex.getParametersRouteIds(parameters);
+
+		for (int i = routeIds.nextSetBit(0); i >= 0;
+				i = routeIds.nextSetBit(i + 1)) {
+
+			Route route = _routes.get(i);
+
 			String url = route.parametersToUrl(parameters);
 
 			if (url != null) {
@@ -48,7 +75,15 @@ public class RouterImpl implements Router {
 	}
 
 	public boolean urlToParameters(String url, Map<String, String> parameters) {
-		for (Route route : _routes) {
+		RouteIndex routeIndex = getRouteIndex();
+
+		BitSet routeIds = routeIndex.getURLRouteIds(url);
+
+		for (int i = routeIds.nextSetBit(0); i >= 0;
+				i = routeIds.nextSetBit(i + 1)) {
+
+			Route route = _routes.get(i);
+
 			if (route.urlToParameters(url, parameters)) {
 				return true;
 			}
@@ -57,6 +92,216 @@ public class RouterImpl implements Router {
 		return false;
 	}
 
-	private List<Route> _routes = new ArrayList<Route>();
+	protected RouteIndex getRouteIndex() {
+		RouteIndex routeIndex = _routeIndex;
+
+		if (routeIndex == null) {
+			routeIndex = new RouteIndex(_routes);
+
+			_routeIndex = routeIndex;
+		}
+
+		return routeIndex;
+	}
+
+	private volatile RouteIndex _routeIndex;
+	private List<RouteImpl> _routes = new ArrayList<RouteImpl>();
+
+	private static class PrefixNode {
+
+		public PrefixNode(BitSet routeIds) {
+			_routeIds = routeIds;
+		}
+
+		public PrefixNode addChild(char c) {
+			PrefixNode prefixNode = _children.get(c);
+
+			if (prefixNode == null) {
+				prefixNode = new PrefixNode((BitSet)_routeIds.clone());
+
+				_children.put(c, prefixNode);
+			}
+
+			return prefixNode;
+		}
+
+		public void addRouteId(int routeId) {
+			_routeIds.set(routeId);
+
+			for (PrefixNode prefixNode : _children.values()) {
+				prefixNode.addRouteId(routeId);
+			}
+		}
+
+		public PrefixNode getChild(char c) {
+			return _children.get(c);
+		}
+
+		public BitSet getRouteIds() {
+			return _routeIds;
+		}
+
+		private Map<Character, PrefixNode> _children =
+			new HashMap<Character, PrefixNode>();
+		private BitSet _routeIds;
+
+	}
+
+	private static class RouteIndex {
+
+		public RouteIndex(List<RouteImpl> routes) {
+			_allRouteIds.set(0, routes.size());
+
+			_rootPrefixNode = new PrefixNode(new BitSet(routes.size()));
+
+			for (int i = 0; i < routes.size(); i++) {
+				RouteImpl routeImpl = routes.get(i);
+
+				String prefix = routeImpl.getPrefix();
+
+				PrefixNode prefixNode = _rootPrefixNode;
+
+				for (int j = 0; j < prefix.length(); j++) {
+					prefixNode = prefixNode.addChild(prefix.charAt(j));
+				}
+
+				// Descendant nodes inherit the routes of their ancestors, so
+				// the route is also added to any node created before it
+
+				prefixNode.addRouteId(i);
+			}
+
+			_implicitParameterName = _getImplicitParameterName(routes);
+
+			if (_implicitParameterName == null) {
+				return;
+			}
+
+			BitSet unindexedRouteIds = new BitSet(routes.size());
+
+			for (int i = 0; i < routes.size(); i++) {
+				if (!_isIndexed(routes.get(i))) {
+					unindexedRouteIds.set(i);
+				}
+			}
+
+			_unindexedRouteIds = unindexedRouteIds;
+
+			for (int i = 0; i < routes.size(); i++) {
+				RouteImpl routeImpl = routes.get(i);
+
+				if (!_isIndexed(routeImpl)) {
+					continue;
+				}
+
+				Map<String, String> implicitParameters =
+					routeImpl.getImplicitParameters();
+
+				String value = implicitParameters.get(_implicitParameterName);
+
+				BitSet routeIds = _implicitParameterRouteIds.get(value);
+
+				if (routeIds == null) {
+					routeIds = (BitSet)unindexedRouteIds.clone();
+
+					_implicitParameterRouteIds.put(value, routeIds);
+				}
+
+				routeIds.set(i);
+			}
+		}
+
+		public BitSet getParametersRouteIds(Map<String, String> parameters) {
+			if (_implicitParameterName == null) {
+				return _allRouteIds;
+			}
+
+			String value = MapUtil.getString(
+				parameters, _implicitParameterName);
+
+			BitSet routeIds = _implicitParameterRouteIds.get(value);
+
+			if (routeIds == null) {
+				return _unindexedRouteIds;
+			}
+
+			return routeIds;
+		}
+
+		public BitSet getURLRouteIds(String url) {
+			PrefixNode prefixNode = _rootPrefixNode;
+
+			for (int i = 0; i < url.length(); i++) {
+				PrefixNode childPrefixNode = prefixNode.getChild(
+					url.charAt(i));
+
+				if (childPrefixNode == null) {
+					break;
+				}
+
+				prefixNode = childPrefixNode;
+			}
+
+			return prefixNode.getRouteIds();
+		}
+
+		private String _getImplicitParameterName(List<RouteImpl> routes) {
+			Map<String, Integer> counts = new TreeMap<String, Integer>();
+
+			for (RouteImpl routeImpl : routes) {
+				if (!routeImpl.getGeneratedParameters().isEmpty()) {
+					continue;
+				}
+
+				Map<String, String> implicitParameters =
+					routeImpl.getImplicitParameters();
+
+				for (String name : implicitParameters.keySet()) {
+					Integer count = counts.get(name);
+
+					if (count == null) {
+						count = 0;
+					}
+
+					counts.put(name, count + 1);
+				}
+			}
+
+			String implicitParameterName = null;
+			int maxCount = 0;
+
+			for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+				if (entry.getValue() > maxCount) {
+					implicitParameterName = entry.getKey();
+					maxCount = entry.getValue();
+				}
+			}
+
+			return implicitParameterName;
+		}
+
+		private boolean _isIndexed(RouteImpl routeImpl) {
+
+			// Generated parameters may set the implicit parameter before it is
+			// checked, so those routes are always tried
+
+			if (!routeImpl.getGeneratedParameters().isEmpty()) {
+				return false;
+			}
+
+			Map<String, String> implicitParameters =
+				routeImpl.getImplicitParameters();
+
+			return implicitParameters.containsKey(_implicitParameterName);
+		}
+
+		private BitSet _allRouteIds = new BitSet();
+		private String _implicitParameterName;
+		private Map<String, BitSet> _implicitParameterRouteIds =
+			new HashMap<String, BitSet>();
+		private PrefixNode _rootPrefixNode;
+		private BitSet _unindexedRouteIds;
+
+	}
 
 }
\ No newline at end of file
@@ -38,6 +38,7 @@ import com.liferay.portlet.asset.model.AssetCategoryConstants;
 import com.liferay.portlet.asset.model.AssetCategoryProperty;
 import com.liferay.portlet.asset.model.AssetEntry;
 import com.liferay.portlet.asset.service.base.AssetCategoryLocalServiceBaseImpl;
+import com.liferay.portlet.asset.service.persistence.AssetEntryIdsIndexUtil;
 
 import java.util.Date;
 import java.util.List;
@@ -175,6 +176,9 @@ public class AssetCategoryLocalServiceImpl
 
 		assetCategoryPersistence.remove(category);
 
+		AssetEntryIdsIndexUtil.removeCategoryEntryIds(
+			new long[] {category.getCategoryId()});
+
 		// Resources
 
 		resourceLocalService.deleteResource(
@@ -340,6 +344,9 @@ public class AssetCategoryLocalServiceImpl
 
 		assetCategoryPersistence.addAssetEntries(toCategoryId, entries);
 
+		AssetEntryIdsIndexUtil.removeCategoryEntryIds(
+			new long[] {toCategoryId});
+
 		List<AssetCategoryProperty> categoryProperties =
 			assetCategoryPropertyPersistence.findByCategoryId(fromCategoryId);
 
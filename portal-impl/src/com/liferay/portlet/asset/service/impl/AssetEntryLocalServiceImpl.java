@@ -30,8 +30,10 @@ import com.liferay.portal.kernel.search.SearchContext;
 import com.liferay.portal.kernel.search.facet.AssetEntriesFacet;
 import com.liferay.portal.kernel.search.facet.Facet;
 import com.liferay.portal.kernel.search.facet.ScopeFacet;
+import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.InstancePool;
+import com.liferay.portal.kernel.util.ListUtil;
 import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.workflow.WorkflowConstants;
@@ -49,6 +51,7 @@ import com.liferay.portlet.asset.model.AssetLinkConstants;
 import com.liferay.portlet.asset.model.AssetRendererFactory;
 import com.liferay.portlet.asset.model.AssetTag;
 import com.liferay.portlet.asset.service.base.AssetEntryLocalServiceBaseImpl;
+import com.liferay.portlet.asset.service.persistence.AssetEntryIdsIndexUtil;
 import com.liferay.portlet.asset.service.persistence.AssetEntryQuery;
 import com.liferay.portlet.asset.util.AssetEntryValidator;
 import com.liferay.portlet.blogs.model.BlogsEntry;
@@ -620,6 +623,18 @@ public class AssetEntryLocalServiceImpl extends AssetEntryLocalServiceBaseImpl {
 		// Categories
 
 		if (categoryIds != null) {
+			if (AssetEntryIdsIndexUtil.isEnabled()) {
+				long[] oldCategoryIds = StringUtil.split(
+					ListUtil.toString(
+						assetEntryPersistence.getAssetCategories(
+							entry.getEntryId()),
+						"categoryId"),
+					0L);
+
+				AssetEntryIdsIndexUtil.removeCategoryEntryIds(
+					ArrayUtil.append(oldCategoryIds, categoryIds));
+			}
+
 			assetEntryPersistence.setAssetCategories(
 				entry.getEntryId(), categoryIds);
 		}
@@ -658,6 +673,16 @@ public class AssetEntryLocalServiceImpl extends AssetEntryLocalServiceBaseImpl {
 			List<AssetTag> oldTags = assetEntryPersistence.getAssetTags(
 				entry.getEntryId());
 
+			if (AssetEntryIdsIndexUtil.isEnabled()) {
+				List<AssetTag> changedTags = new ArrayList<AssetTag>(oldTags);
+
+				changedTags.addAll(tags);
+
+				AssetEntryIdsIndexUtil.removeTagEntryIds(
+					StringUtil.split(
+						ListUtil.toString(changedTags, "tagId"), 0L));
+			}
+
 			assetEntryPersistence.setAssetTags(entry.getEntryId(), tags);
 
 			if (entry.isVisible()) {
@@ -20,7 +20,12 @@ import com.liferay.portal.kernel.dao.orm.SQLQuery;
 import com.liferay.portal.kernel.dao.orm.Session;
 import com.liferay.portal.kernel.dao.orm.Type;
 import com.liferay.portal.kernel.exception.SystemException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.CalendarUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.HttpUtil;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
@@ -35,6 +40,8 @@ import com.liferay.util.dao.orm.CustomSQLUtil;
 import java.sql.Timestamp;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -47,12 +54,24 @@ import java.util.List;
 public class AssetEntryFinderImpl
 	extends BasePersistenceImpl<AssetEntry> implements AssetEntryFinder {
 
+	public static final String COUNT_ENTRY_IDS_BY_CATEGORY_ID =
+		AssetEntryFinder.class.getName() + ".countEntryIdsByCategoryId";
+
+	public static final String COUNT_ENTRY_IDS_BY_TAG_ID =
+		AssetEntryFinder.class.getName() + ".countEntryIdsByTagId";
+
 	public static final String FIND_BY_AND_CATEGORY_IDS =
 		AssetEntryFinder.class.getName() + ".findByAndCategoryIds";
 
 	public static final String FIND_BY_AND_TAG_IDS =
 		AssetEntryFinder.class.getName() + ".findByAndTagIds";
 
+	public static final String FIND_ENTRY_IDS_BY_CATEGORY_ID =
+		AssetEntryFinder.class.getName() + ".findEntryIdsByCategoryId";
+
+	public static final String FIND_ENTRY_IDS_BY_TAG_ID =
+		AssetEntryFinder.class.getName() + ".findEntryIdsByTagId";
+
 	public int countEntries(AssetEntryQuery entryQuery) throws SystemException {
 		Session session = null;
 
@@ -234,7 +253,15 @@ public class AssetEntryFinderImpl
 
 		sb.append("FROM AssetEntry ");
 
-		if (entryQuery.getAnyTagIds().length > 0) {
+		long[][] indexedEntryIds = null;
+
+		if (AssetEntryIdsIndexUtil.isEnabled()) {
+			indexedEntryIds = getIndexedEntryIds(entryQuery, session);
+		}
+
+		if ((indexedEntryIds == null) &&
+			(entryQuery.getAnyTagIds().length > 0)) {
+
 			sb.append("INNER JOIN ");
 			sb.append("AssetEntries_AssetTags ON ");
 			sb.append("(AssetEntries_AssetTags.entryId = ");
@@ -287,46 +314,49 @@ public class AssetEntryFinderImpl
 			sb.append(" AND (AssetEntry.layoutUuid = ?)");
 		}
 
-		// Category conditions
+		// Category and tag conditions
 
-		if (entryQuery.getAllCategoryIds().length > 0) {
-			buildAllCategoriesSQL(entryQuery.getAllCategoryIds(), sb);
-		}
-
-		if (entryQuery.getAnyCategoryIds().length > 0) {
-			buildAnyCategoriesSQL(entryQuery.getAnyCategoryIds(), sb);
+		if (indexedEntryIds != null) {
+			buildIndexedEntryIdsSQL(indexedEntryIds[0], indexedEntryIds[1], sb);
 		}
+		else {
+			if (entryQuery.getAllCategoryIds().length > 0) {
+				buildAllCategoriesSQL(entryQuery.getAllCategoryIds(), sb);
+			}
 
-		if (entryQuery.getNotAllCategoryIds().length > 0) {
-			buildNotAllCategoriesSQL(entryQuery.getNotAllCategoryIds(), sb);
-		}
+			if (entryQuery.getAnyCategoryIds().length > 0) {
+				buildAnyCategoriesSQL(entryQuery.getAnyCategoryIds(), sb);
+			}
 
-		if (entryQuery.getNotAnyCategoryIds().length > 0) {
-			buildNotAnyCategoriesSQL(entryQuery.getNotAnyCategoryIds(), sb);
-		}
+			if (entryQuery.getNotAllCategoryIds().length > 0) {
+				buildNotAllCategoriesSQL(entryQuery.getNotAllCategoryIds(), sb);
+			}
 
-		// Asset entry subtypes
+			if (entryQuery.getNotAnyCategoryIds().length > 0) {
+				buildNotAnyCategoriesSQL(entryQuery.getNotAnyCategoryIds(), sb);
+			}
 
-		if (entryQuery.getClassTypeIds().length > 0) {
-			buildClassTypeIdsSQL(entryQuery.getClassTypeIds(), sb);
-		}
+			if (entryQuery.getAllTagIds().length > 0) {
+				buildAllTagsSQL(entryQuery.getAllTagIdsArray(), sb);
+			}
 
-		// Tag conditions
+			if (entryQuery.getAnyTagIds().length > 0) {
+				buildAnyTagsSQL(entryQuery.getAnyTagIds(), sb);
+			}
 
-		if (entryQuery.getAllTagIds().length > 0) {
-			buildAllTagsSQL(entryQuery.getAllTagIdsArray(), sb);
-		}
+			if (entryQuery.getNotAllTagIds().length > 0) {
+				buildNotAllTagsSQL(entryQuery.getNotAllTagIdsArray(), sb);
+			}
 
-		if (entryQuery.getAnyTagIds().length > 0) {
-			buildAnyTagsSQL(entryQuery.getAnyTagIds(), sb);
+			if (entryQuery.getNotAnyTagIds().length > 0) {
+				buildNotAnyTagsSQL(entryQuery.getNotAnyTagIds(), sb);
+			}
 		}
 
-		if (entryQuery.getNotAllTagIds().length > 0) {
-			buildNotAllTagsSQL(entryQuery.getNotAllTagIdsArray(), sb);
-		}
+		// Asset entry subtypes
 
-		if (entryQuery.getNotAnyTagIds().length > 0) {
-			buildNotAnyTagsSQL(entryQuery.getNotAnyTagIds(), sb);
+		if (entryQuery.getClassTypeIds().length > 0) {
+			buildClassTypeIdsSQL(entryQuery.getClassTypeIds(), sb);
 		}
 
 		// Other conditions
@@ -337,6 +367,18 @@ public class AssetEntryFinderImpl
 		sb.append(getGroupIds(entryQuery.getGroupIds()));
 		sb.append(getClassNameIds(entryQuery.getClassNameIds()));
 
+		// Cursor
+
+		Object[] cursorValues = null;
+
+		if (!count) {
+			cursorValues = getCursorValues(entryQuery);
+
+			if (cursorValues != null) {
+				buildCursorSQL(entryQuery, sb);
+			}
+		}
+
 		if (!count) {
 			sb.append(" ORDER BY ");
 
@@ -366,6 +408,13 @@ public class AssetEntryFinderImpl
 				sb.append(StringPool.SPACE);
 				sb.append(entryQuery.getOrderByType2());
 			}
+
+			if (entryQuery.isCursorSupported()) {
+				String[] orderByTypes = getCursorOrderByTypes(entryQuery);
+
+				sb.append(", AssetEntry.entryId ");
+				sb.append(orderByTypes[orderByTypes.length - 1]);
+			}
 		}
 
 		if (sb.index() > whereIndex) {
@@ -409,6 +458,10 @@ public class AssetEntryFinderImpl
 		qPos.add(entryQuery.getGroupIds());
 		qPos.add(entryQuery.getClassNameIds());
 
+		if (cursorValues != null) {
+			setCursorValues(qPos, cursorValues);
+		}
+
 		return q;
 	}
 
@@ -428,6 +481,63 @@ public class AssetEntryFinderImpl
 		}
 	}
 
+	protected void buildCursorSQL(
+		AssetEntryQuery entryQuery, StringBundler sb) {
+
+		String[] orderByCols = ArrayUtil.append(
+			entryQuery.getCursorOrderByCols(), "entryId");
+		String[] orderByTypes = getCursorOrderByTypes(entryQuery);
+
+		sb.append(" AND (");
+
+		for (int i = 0; i < orderByCols.length; i++) {
+			if (i > 0) {
+				sb.append(" OR ");
+			}
+
+			sb.append(StringPool.OPEN_PARENTHESIS);
+
+			for (int j = 0; j < i; j++) {
+				sb.append("(AssetEntry.");
+				sb.append(orderByCols[j]);
+				sb.append(" = ?) AND ");
+			}
+
+			sb.append("(AssetEntry.");
+			sb.append(orderByCols[i]);
+
+			if (orderByTypes[i].equalsIgnoreCase("ASC")) {
+				sb.append(" > ?))");
+			}
+			else {
+				sb.append(" < ?))");
+			}
+		}
+
+		sb.append(StringPool.CLOSE_PARENTHESIS);
+	}
+
+	protected void buildIndexedEntryIdsSQL(
+		long[] entryIds, long[] notEntryIds, StringBundler sb) {
+
+		if (entryIds != null) {
+			if (entryIds.length == 0) {
+				sb.append(" AND (0 = 1)");
+			}
+			else {
+				sb.append(" AND (AssetEntry.entryId IN (");
+				sb.append(StringUtil.merge(entryIds));
+				sb.append("))");
+			}
+		}
+
+		if (notEntryIds.length > 0) {
+			sb.append(" AND (AssetEntry.entryId NOT IN (");
+			sb.append(StringUtil.merge(notEntryIds));
+			sb.append("))");
+		}
+	}
+
 	protected void buildNotAllCategoriesSQL(
 			long[] categoryIds, StringBundler sb)
 		throws SystemException {
@@ -542,6 +652,67 @@ public class AssetEntryFinderImpl
 		return sb.toString();
 	}
 
+	protected int countEntryIds(String id, long primaryKey, Session session) {
+		String sql = CustomSQLUtil.get(id);
+
+		SQLQuery q = session.createSQLQuery(sql);
+
+		q.addScalar(COUNT_COLUMN_NAME, Type.LONG);
+
+		QueryPos qPos = QueryPos.getInstance(q);
+
+		qPos.add(primaryKey);
+
+		Iterator<Long> itr = q.iterate();
+
+		if (itr.hasNext()) {
+			Long count = itr.next();
+
+			if (count != null) {
+				return count.intValue();
+			}
+		}
+
+		return 0;
+	}
+
+	protected long[] getCategoryEntryIds(long categoryId, Session session) {
+		long[] entryIds = AssetEntryIdsIndexUtil.getCategoryEntryIds(
+			categoryId);
+
+		if (entryIds == null) {
+			entryIds = getEntryIds(
+				FIND_ENTRY_IDS_BY_CATEGORY_ID, categoryId, session);
+
+			AssetEntryIdsIndexUtil.putCategoryEntryIds(categoryId, entryIds);
+		}
+
+		return entryIds;
+	}
+
+	protected long[] getCategoryTreeEntryIds(long categoryId, Session session)
+		throws SystemException {
+
+		long[] entryIds = new long[0];
+
+		for (long treeCategoryId : getCategoryTreeIds(categoryId)) {
+			entryIds = AssetEntryIdsIndexUtil.union(
+				entryIds, getCategoryEntryIds(treeCategoryId, session));
+		}
+
+		return entryIds;
+	}
+
+	protected List<Long> getCategoryTreeIds(long categoryId)
+		throws SystemException {
+
+		if (!PropsValues.ASSET_CATEGORIES_SEARCH_HIERARCHICAL) {
+			return Collections.singletonList(categoryId);
+		}
+
+		return AssetCategoryFinderUtil.findByG_L(categoryId);
+	}
+
 	protected String getClassNameIds(long[] classNameIds) {
 		if (classNameIds.length == 0) {
 			return StringPool.BLANK;
@@ -560,6 +731,69 @@ public class AssetEntryFinderImpl
 		return sb.toString();
 	}
 
+	protected String[] getCursorOrderByTypes(AssetEntryQuery entryQuery) {
+		String[] orderByCols = entryQuery.getCursorOrderByCols();
+
+		String[] orderByTypes = new String[orderByCols.length + 1];
+
+		orderByTypes[0] = entryQuery.getOrderByType1();
+
+		if (orderByCols.length > 1) {
+			orderByTypes[1] = entryQuery.getOrderByType2();
+		}
+
+		orderByTypes[orderByCols.length] = orderByTypes[orderByCols.length - 1];
+
+		return orderByTypes;
+	}
+
+	protected Object[] getCursorValues(AssetEntryQuery entryQuery) {
+		String cursor = entryQuery.getCursor();
+
+		if (Validator.isNull(cursor) || !entryQuery.isCursorSupported()) {
+			return null;
+		}
+
+		String[] orderByCols = entryQuery.getCursorOrderByCols();
+
+		String[] cursorParts = StringUtil.split(cursor);
+
+		if (cursorParts.length != (orderByCols.length + 1)) {
+			if (_log.isWarnEnabled()) {
+				_log.warn("Ignoring invalid cursor " + cursor);
+			}
+
+			return null;
+		}
+
+		Object[] cursorValues = new Object[cursorParts.length];
+
+		for (int i = 0; i < orderByCols.length; i++) {
+			String orderByCol = orderByCols[i];
+
+			if (orderByCol.equals("createDate") ||
+				orderByCol.equals("modifiedDate")) {
+
+				cursorValues[i] = CalendarUtil.getTimestamp(
+					new Date(GetterUtil.getLong(cursorParts[i])));
+			}
+			else if (orderByCol.equals("priority")) {
+				cursorValues[i] = GetterUtil.getDouble(cursorParts[i]);
+			}
+			else if (orderByCol.equals("viewCount")) {
+				cursorValues[i] = GetterUtil.getInteger(cursorParts[i]);
+			}
+			else {
+				cursorValues[i] = HttpUtil.decodeURL(cursorParts[i]);
+			}
+		}
+
+		cursorValues[orderByCols.length] = GetterUtil.getLong(
+			cursorParts[orderByCols.length]);
+
+		return cursorValues;
+	}
+
 	protected String getDates(Date publishDate, Date expirationDate) {
 		StringBundler sb = new StringBundler(4);
 
@@ -576,6 +810,30 @@ public class AssetEntryFinderImpl
 		return sb.toString();
 	}
 
+	protected long[] getEntryIds(String id, long primaryKey, Session session) {
+		String sql = CustomSQLUtil.get(id);
+
+		SQLQuery q = session.createSQLQuery(sql);
+
+		q.addScalar("entryId", Type.LONG);
+
+		QueryPos qPos = QueryPos.getInstance(q);
+
+		qPos.add(primaryKey);
+
+		List<Long> entryIdsList = q.list();
+
+		long[] entryIds = new long[entryIdsList.size()];
+
+		for (int i = 0; i < entryIds.length; i++) {
+			entryIds[i] = entryIdsList.get(i);
+		}
+
+		Arrays.sort(entryIds);
+
+		return entryIds;
+	}
+
 	protected String getGroupIds(long[] groupIds) {
 		if (groupIds.length == 0) {
 			return StringPool.BLANK;
@@ -594,6 +852,150 @@ public class AssetEntryFinderImpl
 		return sb.toString();
 	}
 
+	/**
+	 * Resolves the category and tag filters of the query from the cached
+	 * entries of each category and tag. Returns the primary keys the entries
+	 * must be in, or <code>null</code> if they are not constrained, and the
+	 * primary keys the entries must not be in. Returns <code>null</code>
+	 * instead if either set is too large to be inlined in the query, or if the
+	 * entries of one of the categories or tags are too many to be cached.
+	 */
+	protected long[][] getIndexedEntryIds(
+			AssetEntryQuery entryQuery, Session session)
+		throws SystemException {
+
+		if (!isIndexable(entryQuery, session)) {
+			return null;
+		}
+
+		long[] entryIds = null;
+		long[] notEntryIds = new long[0];
+
+		// Categories
+
+		for (long categoryId : entryQuery.getAllCategoryIds()) {
+			entryIds = AssetEntryIdsIndexUtil.intersect(
+				entryIds, getCategoryTreeEntryIds(categoryId, session));
+		}
+
+		long[] anyCategoryIds = entryQuery.getAnyCategoryIds();
+
+		if (anyCategoryIds.length > 0) {
+			long[] anyEntryIds = new long[0];
+
+			for (long categoryId : anyCategoryIds) {
+				anyEntryIds = AssetEntryIdsIndexUtil.union(
+					anyEntryIds, getCategoryTreeEntryIds(categoryId, session));
+			}
+
+			entryIds = AssetEntryIdsIndexUtil.intersect(entryIds, anyEntryIds);
+		}
+
+		long[] notAllCategoryIds = entryQuery.getNotAllCategoryIds();
+
+		if (notAllCategoryIds.length > 0) {
+			long[] notAllEntryIds = null;
+
+			for (long categoryId : notAllCategoryIds) {
+				notAllEntryIds = AssetEntryIdsIndexUtil.intersect(
+					notAllEntryIds,
+					getCategoryTreeEntryIds(categoryId, session));
+			}
+
+			notEntryIds = AssetEntryIdsIndexUtil.union(
+				notEntryIds, notAllEntryIds);
+		}
+
+		for (long categoryId : entryQuery.getNotAnyCategoryIds()) {
+			notEntryIds = AssetEntryIdsIndexUtil.union(
+				notEntryIds, getCategoryTreeEntryIds(categoryId, session));
+		}
+
+		// Tags
+
+		for (long[] tagIds : entryQuery.getAllTagIdsArray()) {
+			if (tagIds.length == 0) {
+				continue;
+			}
+
+			entryIds = AssetEntryIdsIndexUtil.intersect(
+				entryIds, getTagEntryIds(tagIds, session));
+		}
+
+		long[] anyTagIds = entryQuery.getAnyTagIds();
+
+		if (anyTagIds.length > 0) {
+			entryIds = AssetEntryIdsIndexUtil.intersect(
+				entryIds, getTagEntryIds(anyTagIds, session));
+		}
+
+		long[][] notAllTagIdsArray = entryQuery.getNotAllTagIdsArray();
+
+		if (entryQuery.getNotAllTagIds().length > 0) {
+			long[] notAllEntryIds = null;
+
+			for (long[] tagIds : notAllTagIdsArray) {
+				if (tagIds.length == 0) {
+					continue;
+				}
+
+				notAllEntryIds = AssetEntryIdsIndexUtil.intersect(
+					notAllEntryIds, getTagEntryIds(tagIds, session));
+			}
+
+			if (notAllEntryIds != null) {
+				notEntryIds = AssetEntryIdsIndexUtil.union(
+					notEntryIds, notAllEntryIds);
+			}
+		}
+
+		long[] notAnyTagIds = entryQuery.getNotAnyTagIds();
+
+		if (notAnyTagIds.length > 0) {
+			notEntryIds = AssetEntryIdsIndexUtil.union(
+				notEntryIds, getTagEntryIds(notAnyTagIds, session));
+		}
+
+		if (entryIds != null) {
+			entryIds = AssetEntryIdsIndexUtil.subtract(entryIds, notEntryIds);
+
+			notEntryIds = new long[0];
+		}
+
+		int maxEntryIds = PropsValues.ASSET_ENTRY_QUERY_INDEX_MAX_ENTRY_IDS;
+
+		if (((entryIds != null) && (entryIds.length > maxEntryIds)) ||
+			(notEntryIds.length > maxEntryIds)) {
+
+			return null;
+		}
+
+		return new long[][] {entryIds, notEntryIds};
+	}
+
+	protected long[] getTagEntryIds(long tagId, Session session) {
+		long[] entryIds = AssetEntryIdsIndexUtil.getTagEntryIds(tagId);
+
+		if (entryIds == null) {
+			entryIds = getEntryIds(FIND_ENTRY_IDS_BY_TAG_ID, tagId, session);
+
+			AssetEntryIdsIndexUtil.putTagEntryIds(tagId, entryIds);
+		}
+
+		return entryIds;
+	}
+
+	protected long[] getTagEntryIds(long[] tagIds, Session session) {
+		long[] entryIds = new long[0];
+
+		for (long tagId : tagIds) {
+			entryIds = AssetEntryIdsIndexUtil.union(
+				entryIds, getTagEntryIds(tagId, session));
+		}
+
+		return entryIds;
+	}
+
 	protected String getTagIds(long[] tagIds) {
 		StringBundler sb = new StringBundler((tagIds.length * 3) - 1);
 
@@ -609,6 +1011,79 @@ public class AssetEntryFinderImpl
 		return sb.toString();
 	}
 
+	/**
+	 * Returns <code>true</code> if the entries of every category and tag of
+	 * the query are cached or few enough to be cached. The entries that are not
+	 * cached are counted instead of loaded, so that a query on a large category
+	 * or tag falls back to SQL without loading its entries.
+	 */
+	protected boolean isIndexable(AssetEntryQuery entryQuery, Session session)
+		throws SystemException {
+
+		int maxEntryIds = PropsValues.ASSET_ENTRY_QUERY_INDEX_MAX_ENTRY_IDS;
+
+		long[][] categoryIdsArray = {
+			entryQuery.getAllCategoryIds(), entryQuery.getAnyCategoryIds(),
+			entryQuery.getNotAllCategoryIds(),
+			entryQuery.getNotAnyCategoryIds()
+		};
+
+		for (long[] categoryIds : categoryIdsArray) {
+			for (long categoryId : categoryIds) {
+				for (long treeCategoryId : getCategoryTreeIds(categoryId)) {
+					long[] entryIds =
+						AssetEntryIdsIndexUtil.getCategoryEntryIds(
+							treeCategoryId);
+
+					if (entryIds != null) {
+						if (entryIds.length > maxEntryIds) {
+							return false;
+						}
+					}
+					else if (countEntryIds(
+								COUNT_ENTRY_IDS_BY_CATEGORY_ID, treeCategoryId,
+								session) > maxEntryIds) {
+
+						return false;
+					}
+				}
+			}
+		}
+
+		long[][] tagIdsArray = {
+			entryQuery.getAllTagIds(), entryQuery.getAnyTagIds(),
+			entryQuery.getNotAllTagIds(), entryQuery.getNotAnyTagIds()
+		};
+
+		for (long[] tagIds : tagIdsArray) {
+			for (long tagId : tagIds) {
+				long[] entryIds = AssetEntryIdsIndexUtil.getTagEntryIds(tagId);
+
+				if (entryIds != null) {
+					if (entryIds.length > maxEntryIds) {
+						return false;
+					}
+				}
+				else if (countEntryIds(
+							COUNT_ENTRY_IDS_BY_TAG_ID, tagId, session) >
+								maxEntryIds) {
+
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	protected void setCursorValues(QueryPos qPos, Object[] cursorValues) {
+		for (int i = 0; i < cursorValues.length; i++) {
+			for (int j = 0; j <= i; j++) {
+				qPos.add(cursorValues[j]);
+			}
+		}
+	}
+
 	protected void setDates(
 		QueryPos qPos, Date publishDate, Date expirationDate) {
 
@@ -626,4 +1101,7 @@ public class AssetEntryFinderImpl
 		}
 	}
 
+	private static Log _log = LogFactoryUtil.getLog(
+		AssetEntryFinderImpl.class);
+
 }
\ No newline at end of file
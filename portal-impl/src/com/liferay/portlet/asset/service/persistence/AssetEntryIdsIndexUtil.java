@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.asset.service.persistence;
+
+import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackRegistryUtil;
+import com.liferay.portal.util.PropsValues;
+
+import java.util.concurrent.Callable;
+
+/**
+ * <p>
+ * Caches the sorted primary keys of the asset entries of each tag and
+ * category so that the tag and category filters of an asset entry query can
+ * be resolved with set operations in memory instead of with nested sub
+ * queries.
+ * </p>
+ *
+ * <p>
+ * The entries of a tag or category are loaded on first use and removed from
+ * the cache whenever the asset services change which entries the tag or
+ * category is assigned to. Entries that were deleted may remain cached, which
+ * is harmless because the cached primary keys are always matched against the
+ * AssetEntry table.
+ * </p>
+ */
+public class AssetEntryIdsIndexUtil {
+
+	public static final String CATEGORY_CACHE_NAME =
+		AssetEntryIdsIndexUtil.class.getName() + "_CATEGORY";
+
+	public static final String TAG_CACHE_NAME =
+		AssetEntryIdsIndexUtil.class.getName() + "_TAG";
+
+	public static long[] getCategoryEntryIds(long categoryId) {
+		return _categoryPortalCache.get(categoryId);
+	}
+
+	public static long[] getTagEntryIds(long tagId) {
+		return _tagPortalCache.get(tagId);
+	}
+
+	/**
+	 * Returns the primary keys contained in both sorted arrays. A
+	 * <code>null</code> array stands for all primary keys.
+	 */
+	public static long[] intersect(long[] entryIds1, long[] entryIds2) {
+		if (entryIds1 == null) {
+			return entryIds2;
+		}
+
+		if (entryIds2 == null) {
+			return entryIds1;
+		}
+
+		long[] entryIds = new long[
+			Math.min(entryIds1.length, entryIds2.length)];
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while ((i < entryIds1.length) && (j < entryIds2.length)) {
+			if (entryIds1[i] < entryIds2[j]) {
+				i++;
+			}
+			else if (entryIds1[i] > entryIds2[j]) {
+				j++;
+			}
+			else {
+				entryIds[k++] = entryIds1[i];
+
+				i++;
+				j++;
+			}
+		}
+
+		return _trim(entryIds, k);
+	}
+
+	public static boolean isEnabled() {
+		return PropsValues.ASSET_ENTRY_QUERY_INDEX_ENABLED;
+	}
+
+	public static void putCategoryEntryIds(long categoryId, long[] entryIds) {
+		_categoryPortalCache.put(categoryId, entryIds);
+	}
+
+	public static void putTagEntryIds(long tagId, long[] entryIds) {
+		_tagPortalCache.put(tagId, entryIds);
+	}
+
+	/**
+	 * Removes the cached entries of the categories now and again once the
+	 * current transaction commits, so that a query running concurrently with
+	 * the transaction cannot leave entries in the cache that miss its changes.
+	 */
+	public static void removeCategoryEntryIds(final long[] categoryIds) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		_remove(_categoryPortalCache, categoryIds);
+
+		TransactionCommitCallbackRegistryUtil.registerCallback(
+			new Callable<Void>() {
+
+				public Void call() throws Exception {
+					_remove(_categoryPortalCache, categoryIds);
+
+					return null;
+				}
+
+			});
+	}
+
+	/**
+	 * Removes the cached entries of the tags now and again once the current
+	 * transaction commits.
+	 *
+	 * @see #removeCategoryEntryIds(long[])
+	 */
+	public static void removeTagEntryIds(final long[] tagIds) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		_remove(_tagPortalCache, tagIds);
+
+		TransactionCommitCallbackRegistryUtil.registerCallback(
+			new Callable<Void>() {
+
+				public Void call() throws Exception {
+					_remove(_tagPortalCache, tagIds);
+
+					return null;
+				}
+
+			});
+	}
+
+	/**
+	 * Returns the primary keys of the first sorted array that are not in the
+	 * second one.
+	 */
+	public static long[] subtract(long[] entryIds1, long[] entryIds2) {
+		if (entryIds2.length == 0) {
+			return entryIds1;
+		}
+
+		long[] entryIds = new long[entryIds1.length];
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < entryIds1.length) {
+			if ((j == entryIds2.length) || (entryIds1[i] < entryIds2[j])) {
+				entryIds[k++] = entryIds1[i];
+
+				i++;
+			}
+			else if (entryIds1[i] > entryIds2[j]) {
+				j++;
+			}
+			else {
+				i++;
+				j++;
+			}
+		}
+
+		return _trim(entryIds, k);
+	}
+
+	/**
+	 * Returns the primary keys contained in either sorted array.
+	 */
+	public static long[] union(long[] entryIds1, long[] entryIds2) {
+		if (entryIds1.length == 0) {
+			return entryIds2;
+		}
+
+		if (entryIds2.length == 0) {
+			return entryIds1;
+		}
+
+		long[] entryIds = new long[entryIds1.length + entryIds2.length];
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while ((i < entryIds1.length) || (j < entryIds2.length)) {
+			if ((j == entryIds2.length) ||
+				((i < entryIds1.length) && (entryIds1[i] < entryIds2[j]))) {
+
+				entryIds[k++] = entryIds1[i];
+
+				i++;
+			}
+			else if ((i == entryIds1.length) ||
+					 (entryIds1[i] > entryIds2[j])) {
+
+				entryIds[k++] = entryIds2[j];
+
+				j++;
+			}
+			else {
+				entryIds[k++] = entryIds1[i];
+
+				i++;
+				j++;
+			}
+		}
+
+		return _trim(entryIds, k);
+	}
+
+	private static void _remove(
+		PortalCache<Long, long[]> portalCache, long[] primaryKeys) {
+
+		for (long primaryKey : primaryKeys) {
+			portalCache.remove(primaryKey);
+		}
+	}
+
+	private static long[] _trim(long[] entryIds, int length) {
+		if (entryIds.length == length) {
+			return entryIds;
+		}
+
+		long[] trimmedEntryIds = new long[length];
+
+		System.arraycopy(entryIds, 0, trimmedEntryIds, 0, length);
+
+		return trimmedEntryIds;
+	}
+
+	private static PortalCache<Long, long[]> _categoryPortalCache =
+		MultiVMPoolUtil.getCache(CATEGORY_CACHE_NAME);
+	private static PortalCache<Long, long[]> _tagPortalCache =
+		MultiVMPoolUtil.getCache(TAG_CACHE_NAME);
+
+}
@@ -21,6 +21,7 @@ import com.liferay.portal.kernel.messaging.Message;
 import com.liferay.portal.kernel.messaging.MessageBusUtil;
 import com.liferay.portal.kernel.repository.model.FileVersion;
 import com.liferay.portal.util.PropsValues;
+import com.liferay.portlet.documentlibrary.util.DLProcessorQueue;
 
 /**
  * @author Alexander Chow
@@ -31,6 +32,14 @@ public abstract class BaseProcessorMessageListener extends BaseMessageListener {
 	protected void doReceive(Message message) throws Exception {
 		Object[] array = (Object[])message.getPayload();
 
+		if (array == null) {
+			array = DLProcessorQueue.poll(message.getDestinationName());
+
+			if (array == null) {
+				return;
+			}
+		}
+
 		FileVersion sourceFileVersion = (FileVersion)array[0];
 		FileVersion destinationFileVersion = (FileVersion)array[1];
 
@@ -21,6 +21,7 @@ import com.liferay.portal.kernel.io.unsync.UnsyncByteArrayInputStream;
 import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.kernel.util.StreamUtil;
 import com.liferay.portal.kernel.util.StringPool;
+import com.liferay.portal.service.persistence.BatchSessionUtil;
 import com.liferay.portlet.documentlibrary.NoSuchContentException;
 import com.liferay.portlet.documentlibrary.model.DLContent;
 import com.liferay.portlet.documentlibrary.service.base.DLContentLocalServiceBaseImpl;
@@ -60,7 +61,7 @@ public class DLContentLocalServiceImpl extends DLContentLocalServiceBaseImpl {
 
 		dlContent.setSize(bytes.length);
 
-		dlContentPersistence.update(dlContent, false);
+		updateContentData(dlContent);
 
 		return dlContent;
 	}
@@ -86,7 +87,7 @@ public class DLContentLocalServiceImpl extends DLContentLocalServiceBaseImpl {
 
 			dlContent.setSize(size);
 
-			dlContentPersistence.update(dlContent, false);
+			updateContentData(dlContent);
 
 			return dlContent;
 		}
@@ -204,4 +205,23 @@ public class DLContentLocalServiceImpl extends DLContentLocalServiceBaseImpl {
 		}
 	}
 
+	protected void updateContentData(DLContent dlContent)
+		throws SystemException {
+
+		// The data is bound from its input stream when the session is flushed,
+		// and the stream is closed once the content is added. Flush right away
+		// even if the batch session is enabled, like during a LAR import.
+
+		boolean batchSessionEnabled = BatchSessionUtil.isEnabled();
+
+		try {
+			BatchSessionUtil.setEnabled(false);
+
+			dlContentPersistence.update(dlContent, false);
+		}
+		finally {
+			BatchSessionUtil.setEnabled(batchSessionEnabled);
+		}
+	}
+
 }
\ No newline at end of file
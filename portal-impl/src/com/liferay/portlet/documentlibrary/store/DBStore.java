@@ -171,6 +171,8 @@ public class DBStore extends BaseStore {
 		DLContent dlContent = DLContentLocalServiceUtil.getContent(
 			companyId, repositoryId, fileName, versionLabel);
 
+		dlContent.resetOriginalValues();
+
 		Blob blobData = dlContent.getData();
 
 		if (blobData == null) {
@@ -390,23 +392,28 @@ public class DBStore extends BaseStore {
 				length);
 		}
 		else {
-			if (_log.isWarnEnabled()) {
-				_log.warn(
-					"Unable to detect length from input stream. Reading " +
-						"entire input stream into memory as a last resort.");
+			if (_log.isDebugEnabled()) {
+				_log.debug(
+					"Unable to detect length from input stream. Writing " +
+						"the input stream to a temporary file to stream it " +
+							"with a known length.");
 			}
 
-			byte[] bytes = null;
+			File file = null;
 
 			try {
-				bytes = FileUtil.getBytes(inputStream);
+				file = FileUtil.createTempFile(inputStream);
+
+				DLContentLocalServiceUtil.addContent(
+					companyId, repositoryId, fileName, versionLabel,
+					new FileInputStream(file), file.length());
 			}
 			catch (IOException ioe) {
 				throw new SystemException(ioe);
 			}
-
-			DLContentLocalServiceUtil.addContent(
-				companyId, repositoryId, fileName, versionLabel, bytes);
+			finally {
+				FileUtil.delete(file);
+			}
 		}
 	}
 
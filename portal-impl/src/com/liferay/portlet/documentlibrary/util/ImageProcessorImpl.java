@@ -35,6 +35,7 @@ import com.liferay.portal.util.PropsValues;
 import com.liferay.portlet.documentlibrary.NoSuchFileEntryException;
 import com.liferay.portlet.documentlibrary.store.DLStoreUtil;
 
+import java.awt.image.ColorModel;
 import java.awt.image.RenderedImage;
 
 import java.io.File;
@@ -46,6 +47,8 @@ import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.Future;
 
+import org.apache.commons.lang.time.StopWatch;
+
 /**
  * @author Sergio González
  * @author Alexander Chow
@@ -248,6 +251,7 @@ public class ImageProcessorImpl
 		throws Exception {
 
 		InputStream inputStream = null;
+		File file = null;
 
 		try {
 			if (sourceFileVersion != null) {
@@ -262,11 +266,28 @@ public class ImageProcessorImpl
 				return;
 			}
 
+			StopWatch stopWatch = null;
+
+			if (_log.isDebugEnabled()) {
+				stopWatch = new StopWatch();
+
+				stopWatch.start();
+			}
+
 			inputStream = destinationFileVersion.getContentStream(false);
 
-			byte[] bytes = FileUtil.getBytes(inputStream);
+			file = FileUtil.createTempFile(inputStream);
+
+			boolean hasPreview = _hasPreview(destinationFileVersion);
+
+			ImageBag imageBag = null;
 
-			ImageBag imageBag = ImageToolUtil.read(bytes);
+			if (hasPreview) {
+				imageBag = readThumbnailSourceImage(file);
+			}
+			else {
+				imageBag = ImageToolUtil.read(file);
+			}
 
 			RenderedImage renderedImage = imageBag.getRenderedImage();
 
@@ -276,7 +297,7 @@ public class ImageProcessorImpl
 
 			if (renderedImage.getColorModel().getNumComponents() == 4) {
 				Future<RenderedImage> future = ImageToolUtil.convertCMYKtoRGB(
-					bytes, imageBag.getType());
+					FileUtil.getBytes(file), imageBag.getType());
 
 				if (future == null) {
 					return;
@@ -294,19 +315,34 @@ public class ImageProcessorImpl
 				}
 			}
 
-			if (!_hasPreview(destinationFileVersion)) {
+			if (!hasPreview) {
 				_storePreviewImage(destinationFileVersion, renderedImage);
 			}
 
 			if (!hasThumbnails(destinationFileVersion)) {
 				storeThumbnailImages(destinationFileVersion, renderedImage);
 			}
+
+			if (_log.isDebugEnabled()) {
+				ColorModel colorModel = renderedImage.getColorModel();
+
+				long size = (long)renderedImage.getHeight() *
+					renderedImage.getWidth() * colorModel.getPixelSize() / 8;
+
+				_log.debug(
+					"Generated images for file version " +
+						destinationFileVersion.getFileVersionId() + " in " +
+							stopWatch.getTime() + " ms from a decoded image " +
+								"of " + size + " bytes");
+			}
 		}
 		catch (NoSuchFileEntryException nsfee) {
 		}
 		finally {
 			StreamUtil.cleanUp(inputStream);
 
+			FileUtil.delete(file);
+
 			_fileVersionIds.remove(destinationFileVersion.getFileVersionId());
 		}
 	}
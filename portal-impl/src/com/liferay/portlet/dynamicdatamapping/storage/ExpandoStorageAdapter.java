@@ -15,6 +15,10 @@
 package com.liferay.portlet.dynamicdatamapping.storage;
 
 import com.liferay.counter.service.CounterLocalServiceUtil;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.DynamicQueryFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.log.Log;
@@ -24,6 +28,7 @@ import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.security.pacl.PACLClassLoaderUtil;
 import com.liferay.portal.service.ServiceContext;
 import com.liferay.portal.util.PortalUtil;
 import com.liferay.portlet.dynamicdatamapping.model.DDMStorageLink;
@@ -164,9 +169,16 @@ public class ExpandoStorageAdapter extends BaseStorageAdapter {
 
 		long[] expandoRowIds = _getExpandoRowIds(ddmStructureId);
 
+		Map<Long, List<ExpandoValue>> expandoValuesMap = _getExpandoValuesMap(
+			expandoRowIds);
+
 		for (long expandoRowId : expandoRowIds) {
-			List<ExpandoValue> expandoValues =
-				ExpandoValueLocalServiceUtil.getRowValues(expandoRowId);
+			List<ExpandoValue> expandoValues = expandoValuesMap.get(
+				expandoRowId);
+
+			if (expandoValues == null) {
+				expandoValues = Collections.emptyList();
+			}
 
 			if ((expression == null) ||
 				((expression != null) &&
@@ -293,9 +305,16 @@ public class ExpandoStorageAdapter extends BaseStorageAdapter {
 		DDMStructure ddmStructure = DDMStructureLocalServiceUtil.getStructure(
 			ddmStructureId);
 
+		Map<Long, List<ExpandoValue>> expandoValuesMap = _getExpandoValuesMap(
+			expandoRowIds);
+
 		for (long expandoRowId : expandoRowIds) {
-			List<ExpandoValue> expandoValues =
-				ExpandoValueLocalServiceUtil.getRowValues(expandoRowId);
+			List<ExpandoValue> expandoValues = expandoValuesMap.get(
+				expandoRowId);
+
+			if (expandoValues == null) {
+				expandoValues = Collections.emptyList();
+			}
 
 			if ((expression == null) ||
 				((expression != null) &&
@@ -409,6 +428,51 @@ public class ExpandoStorageAdapter extends BaseStorageAdapter {
 		return expandoTable;
 	}
 
+	@SuppressWarnings("unchecked")
+	private Map<Long, List<ExpandoValue>> _getExpandoValuesMap(
+			long[] expandoRowIds)
+		throws SystemException {
+
+		Map<Long, List<ExpandoValue>> expandoValuesMap =
+			new HashMap<Long, List<ExpandoValue>>();
+
+		for (int i = 0; i < expandoRowIds.length; i += _ROW_IDS_BATCH_SIZE) {
+			int end = Math.min(i + _ROW_IDS_BATCH_SIZE, expandoRowIds.length);
+
+			List<Object> batchExpandoRowIds = new ArrayList<Object>(end - i);
+
+			for (int j = i; j < end; j++) {
+				batchExpandoRowIds.add(expandoRowIds[j]);
+			}
+
+			DynamicQuery dynamicQuery = DynamicQueryFactoryUtil.forClass(
+				ExpandoValue.class, PACLClassLoaderUtil.getPortalClassLoader());
+
+			Property property = PropertyFactoryUtil.forName("rowId");
+
+			dynamicQuery.add(property.in(batchExpandoRowIds));
+
+			List<ExpandoValue> expandoValues =
+				ExpandoValueLocalServiceUtil.dynamicQuery(dynamicQuery);
+
+			for (ExpandoValue expandoValue : expandoValues) {
+				List<ExpandoValue> rowExpandoValues = expandoValuesMap.get(
+					expandoValue.getRowId());
+
+				if (rowExpandoValues == null) {
+					rowExpandoValues = new ArrayList<ExpandoValue>();
+
+					expandoValuesMap.put(
+						expandoValue.getRowId(), rowExpandoValues);
+				}
+
+				rowExpandoValues.add(expandoValue);
+			}
+		}
+
+		return expandoValuesMap;
+	}
+
 	private Expression _parseExpression(Condition condition) {
 		String expression = _toExpression(condition);
 
@@ -501,6 +565,8 @@ public class ExpandoStorageAdapter extends BaseStorageAdapter {
 		}
 	}
 
+	private static final int _ROW_IDS_BATCH_SIZE = 500;
+
 	private static Log _log = LogFactoryUtil.getLog(
 		ExpandoStorageAdapter.class);
 
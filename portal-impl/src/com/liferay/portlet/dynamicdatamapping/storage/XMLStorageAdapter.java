@@ -14,11 +14,12 @@
 
 package com.liferay.portlet.dynamicdatamapping.storage;
 
-import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackRegistryUtil;
+import com.liferay.portal.kernel.util.AutoResetThreadLocal;
 import com.liferay.portal.kernel.util.HtmlUtil;
 import com.liferay.portal.kernel.util.OrderByComparator;
-import com.liferay.portal.kernel.util.StringBundler;
-import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.xml.Document;
 import com.liferay.portal.kernel.xml.Element;
 import com.liferay.portal.kernel.xml.Node;
@@ -32,12 +33,7 @@ import com.liferay.portlet.dynamicdatamapping.model.DDMStructure;
 import com.liferay.portlet.dynamicdatamapping.service.DDMContentLocalServiceUtil;
 import com.liferay.portlet.dynamicdatamapping.service.DDMStorageLinkLocalServiceUtil;
 import com.liferay.portlet.dynamicdatamapping.service.DDMStructureLocalServiceUtil;
-import com.liferay.portlet.dynamicdatamapping.storage.query.ComparisonOperator;
 import com.liferay.portlet.dynamicdatamapping.storage.query.Condition;
-import com.liferay.portlet.dynamicdatamapping.storage.query.FieldCondition;
-import com.liferay.portlet.dynamicdatamapping.storage.query.FieldConditionImpl;
-import com.liferay.portlet.dynamicdatamapping.storage.query.Junction;
-import com.liferay.portlet.dynamicdatamapping.storage.query.LogicalOperator;
 
 import java.io.Serializable;
 
@@ -45,9 +41,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * @author Eduardo Lundgren
@@ -99,11 +98,18 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 			classNameId, ddmContent.getPrimaryKey(), ddmStructureId,
 			serviceContext);
 
+		_invalidateFieldIndex(ddmStructureId);
+
 		return ddmContent.getPrimaryKey();
 	}
 
 	@Override
 	protected void doDeleteByClass(long classPK) throws Exception {
+		DDMStorageLink ddmStorageLink =
+			DDMStorageLinkLocalServiceUtil.getClassStorageLink(classPK);
+
+		_invalidateFieldIndex(ddmStorageLink.getStructureId());
+
 		DDMContentLocalServiceUtil.deleteDDMContent(classPK);
 
 		DDMStorageLinkLocalServiceUtil.deleteClassStorageLink(classPK);
@@ -124,6 +130,8 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 
 		DDMStorageLinkLocalServiceUtil.deleteStructureStorageLinks(
 			ddmStructureId);
+
+		_invalidateFieldIndex(ddmStructureId);
 	}
 
 	@Override
@@ -133,7 +141,7 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 		throws Exception {
 
 		return _doQuery(
-			ddmStructureId, classPKs, fieldNames, null, orderByComparator);
+			ddmStructureId, classPKs, fieldNames, orderByComparator);
 	}
 
 	@Override
@@ -167,31 +175,13 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 	protected int doQueryCount(long ddmStructureId, Condition condition)
 		throws Exception {
 
-		XPath conditionXPath = null;
-
-		if (condition != null) {
-			conditionXPath = _parseCondition(condition);
-		}
-
-		int count = 0;
-
-		long[] classPKs = _getStructureClassPKs(ddmStructureId);
-
-		for (long classPK : classPKs) {
-			DDMContent ddmContent = DDMContentLocalServiceUtil.getContent(
-				classPK);
-
-			Document document = SAXReaderUtil.read(ddmContent.getXml());
-
-			if ((conditionXPath == null) ||
-				((conditionXPath != null) &&
-				 conditionXPath.booleanValueOf(document))) {
+		DDMStructure ddmStructure =
+			DDMStructureLocalServiceUtil.getDDMStructure(ddmStructureId);
 
-				count++;
-			}
-		}
+		XMLStorageFieldIndex xmlStorageFieldIndex = _getFieldIndex(
+			ddmStructureId);
 
-		return count;
+		return xmlStorageFieldIndex.getClassPKsCount(ddmStructure, condition);
 	}
 
 	@Override
@@ -250,6 +240,11 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 		DDMContentLocalServiceUtil.updateContent(
 			ddmContent.getPrimaryKey(), ddmContent.getName(),
 			ddmContent.getDescription(), ddmContent.getXml(), serviceContext);
+
+		DDMStorageLink ddmStorageLink =
+			DDMStorageLinkLocalServiceUtil.getClassStorageLink(classPK);
+
+		_invalidateFieldIndex(ddmStorageLink.getStructureId());
 	}
 
 	private Element _appendField(
@@ -270,9 +265,17 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 			OrderByComparator orderByComparator)
 		throws Exception {
 
+		DDMStructure ddmStructure =
+			DDMStructureLocalServiceUtil.getDDMStructure(ddmStructureId);
+
+		XMLStorageFieldIndex xmlStorageFieldIndex = _getFieldIndex(
+			ddmStructureId);
+
+		long[] classPKs = xmlStorageFieldIndex.getClassPKs(
+			ddmStructure, condition);
+
 		return _doQuery(
-			ddmStructureId, _getStructureClassPKs(ddmStructureId), fieldNames,
-			condition, orderByComparator);
+			ddmStructureId, classPKs, fieldNames, orderByComparator);
 	}
 
 	private Map<Long, Fields> _doQuery(
@@ -282,7 +285,7 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 		Map<Long, Fields> fieldsMap = new HashMap<Long, Fields>();
 
 		List<Fields> fieldsList = _doQuery(
-			ddmStructureId, classPKs, fieldNames, null, null);
+			ddmStructureId, classPKs, fieldNames, null);
 
 		for (int i = 0; i < fieldsList.size(); i++) {
 			Fields fields = fieldsList.get(i);
@@ -295,17 +298,11 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 
 	private List<Fields> _doQuery(
 			long ddmStructureId, long[] classPKs, List<String> fieldNames,
-			Condition condition, OrderByComparator orderByComparator)
+			OrderByComparator orderByComparator)
 		throws Exception {
 
 		List<Fields> fieldsList = new ArrayList<Fields>();
 
-		XPath conditionXPath = null;
-
-		if (condition != null) {
-			conditionXPath = _parseCondition(condition);
-		}
-
 		DDMStructure ddmStructure =
 			DDMStructureLocalServiceUtil.getDDMStructure(ddmStructureId);
 
@@ -315,12 +312,6 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 
 			Document document = SAXReaderUtil.read(ddmContent.getXml());
 
-			if ((conditionXPath != null) &&
-				!conditionXPath.booleanValueOf(document)) {
-
-				continue;
-			}
-
 			Fields fields = new Fields();
 
 			Element rootElement = document.getRootElement();
@@ -376,102 +367,136 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 		}
 	}
 
-	private long[] _getStructureClassPKs(long ddmStructureId) throws Exception {
-		List<Long> classPKs = new ArrayList<Long>();
+	/**
+	 * Returns the field index of the structure, building it from the stored
+	 * contents if it is not cached. The index is only cached if no content of
+	 * the structure was changed while it was built and if the current
+	 * transaction has not changed the contents of the structure, so that the
+	 * cache never holds changes that are missing or not committed.
+	 */
+	private XMLStorageFieldIndex _getFieldIndex(long ddmStructureId)
+		throws Exception {
+
+		XMLStorageFieldIndex xmlStorageFieldIndex = _fieldIndexPortalCache.get(
+			ddmStructureId);
+
+		if (xmlStorageFieldIndex != null) {
+			return xmlStorageFieldIndex;
+		}
+
+		long version = _getVersion(ddmStructureId);
+
+		xmlStorageFieldIndex = new XMLStorageFieldIndex();
 
 		List<DDMStorageLink> ddmStorageLinks =
 			DDMStorageLinkLocalServiceUtil.getStructureStorageLinks(
 				ddmStructureId);
 
 		for (DDMStorageLink ddmStorageLink : ddmStorageLinks) {
-			classPKs.add(ddmStorageLink.getClassPK());
+			DDMContent ddmContent = DDMContentLocalServiceUtil.getContent(
+				ddmStorageLink.getClassPK());
+
+			Document document = SAXReaderUtil.read(ddmContent.getXml());
+
+			xmlStorageFieldIndex.addRecord(
+				ddmContent.getPrimaryKey(), _getFieldValues(document));
 		}
 
-		return ArrayUtil.toArray(classPKs.toArray(new Long[classPKs.size()]));
-	}
+		Set<Long> uncommittedDDMStructureIds =
+			_uncommittedDDMStructureIdsThreadLocal.get();
 
-	private XPath _parseCondition(Condition condition) {
-		StringBundler sb = new StringBundler(4);
+		synchronized (_versions) {
+			if ((version == _getVersion(ddmStructureId)) &&
+				!uncommittedDDMStructureIds.contains(ddmStructureId)) {
 
-		sb.append("//dynamic-element");
-		sb.append(StringPool.OPEN_BRACKET);
-		sb.append(_toXPath(condition));
-		sb.append(StringPool.CLOSE_BRACKET);
+				_fieldIndexPortalCache.put(
+					ddmStructureId, xmlStorageFieldIndex);
+			}
+		}
 
-		return SAXReaderUtil.createXPath(sb.toString());
+		return xmlStorageFieldIndex;
 	}
 
-	private String _toXPath(Condition condition) {
-		StringBundler sb = new StringBundler();
+	private Map<String, List<String>> _getFieldValues(Document document) {
+		Map<String, List<String>> fieldValues =
+			new HashMap<String, List<String>>();
 
-		if (condition.isJunction()) {
-			sb.append(StringPool.OPEN_PARENTHESIS);
-			sb.append(_toXPath((Junction)condition));
-			sb.append(StringPool.CLOSE_PARENTHESIS);
-		}
-		else {
-			sb.append(_toXPath((FieldConditionImpl)condition));
-		}
+		Element rootElement = document.getRootElement();
 
-		return sb.toString();
-	}
+		List<Element> dynamicElementElements = rootElement.elements(
+			"dynamic-element");
 
-	private String _toXPath(FieldCondition fieldCondition) {
-		StringBundler sb = new StringBundler(6);
+		for (Element dynamicElementElement : dynamicElementElements) {
+			String fieldName = dynamicElementElement.attributeValue("name");
 
-		sb.append("(@name=");
+			List<String> values = fieldValues.get(fieldName);
 
-		String name = HtmlUtil.escapeXPathAttribute(
-			String.valueOf(fieldCondition.getName()));
+			if (values == null) {
+				values = new ArrayList<String>();
 
-		sb.append(name);
+				fieldValues.put(fieldName, values);
+			}
 
-		ComparisonOperator comparisonOperator =
-			fieldCondition.getComparisonOperator();
+			List<Element> dynamicContentElements =
+				dynamicElementElement.elements("dynamic-content");
 
-		if (comparisonOperator.equals(ComparisonOperator.LIKE)) {
-			sb.append(" and matches(dynamic-content, ");
-		}
-		else {
-			sb.append(" and dynamic-content= ");
+			for (Element dynamicContentElement : dynamicContentElements) {
+				values.add(dynamicContentElement.getText());
+			}
 		}
 
-		String value = HtmlUtil.escapeXPathAttribute(
-			String.valueOf(fieldCondition.getValue()));
+		return fieldValues;
+	}
+
+	private long _getVersion(long ddmStructureId) {
+		synchronized (_versions) {
+			Long version = _versions.get(ddmStructureId);
 
-		sb.append(value);
+			if (version == null) {
+				return 0;
+			}
 
-		if (comparisonOperator.equals(ComparisonOperator.LIKE)) {
-			sb.append(StringPool.CLOSE_PARENTHESIS);
+			return version;
 		}
+	}
 
-		sb.append(StringPool.CLOSE_PARENTHESIS);
+	/**
+	 * Removes the cached field index of the structure now and again once the
+	 * current transaction commits. Removing the index instead of updating it
+	 * invalidates it on the other nodes of a cluster and never exposes changes
+	 * that are rolled back.
+	 */
+	private void _invalidateFieldIndex(final long ddmStructureId) {
+		Set<Long> uncommittedDDMStructureIds =
+			_uncommittedDDMStructureIdsThreadLocal.get();
 
-		return sb.toString();
-	}
+		uncommittedDDMStructureIds.add(ddmStructureId);
 
-	private String _toXPath(Junction junction) {
-		StringBundler sb = new StringBundler();
+		_removeFieldIndex(ddmStructureId);
 
-		LogicalOperator logicalOperator = junction.getLogicalOperator();
+		TransactionCommitCallbackRegistryUtil.registerCallback(
+			new Callable<Void>() {
 
-		String logicalOperatorString = logicalOperator.toString();
+				public Void call() throws Exception {
+					Set<Long> uncommittedDDMStructureIds =
+						_uncommittedDDMStructureIdsThreadLocal.get();
 
-		Iterator<Condition> itr = junction.iterator();
+					uncommittedDDMStructureIds.remove(ddmStructureId);
 
-		while (itr.hasNext()) {
-			Condition condition = itr.next();
+					_removeFieldIndex(ddmStructureId);
 
-			sb.append(_toXPath(condition));
+					return null;
+				}
 
-			if (itr.hasNext()) {
-				sb.append(StringPool.SPACE);
-				sb.append(logicalOperatorString.toLowerCase());
-				sb.append(StringPool.SPACE);
-			}
-		}
+			});
+	}
+
+	private void _removeFieldIndex(long ddmStructureId) {
+		synchronized (_versions) {
+			_versions.put(ddmStructureId, _getVersion(ddmStructureId) + 1);
 
-		return sb.toString();
+			_fieldIndexPortalCache.remove(ddmStructureId);
+		}
 	}
 
 	private void _updateField(
@@ -487,4 +512,15 @@ public class XMLStorageAdapter extends BaseStorageAdapter {
 		dynamicContentElement.addCDATA(value);
 	}
 
+	private static PortalCache<Long, XMLStorageFieldIndex>
+		_fieldIndexPortalCache = MultiVMPoolUtil.getCache(
+			XMLStorageFieldIndex.class.getName());
+	private static ThreadLocal<Set<Long>>
+		_uncommittedDDMStructureIdsThreadLocal =
+			new AutoResetThreadLocal<Set<Long>>(
+				XMLStorageAdapter.class +
+					"._uncommittedDDMStructureIdsThreadLocal",
+				new HashSet<Long>());
+	private static Map<Long, Long> _versions = new HashMap<Long, Long>();
+
 }
\ No newline at end of file
@@ -0,0 +1,466 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.dynamicdatamapping.storage;
+
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portlet.dynamicdatamapping.model.DDMStructure;
+import com.liferay.portlet.dynamicdatamapping.storage.query.ComparisonOperator;
+import com.liferay.portlet.dynamicdatamapping.storage.query.Condition;
+import com.liferay.portlet.dynamicdatamapping.storage.query.FieldCondition;
+import com.liferay.portlet.dynamicdatamapping.storage.query.Junction;
+import com.liferay.portlet.dynamicdatamapping.storage.query.LogicalOperator;
+
+import java.io.Serializable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Indexes the field values of the XML contents stored for a structure so that
+ * queries only have to load and parse the contents that match their
+ * conditions. For every field, the index maps each distinct value to the
+ * sorted primary keys of the contents holding it. A field may hold several
+ * values, one for every locale and for every repetition of the field, and each
+ * of them is indexed.
+ */
+public class XMLStorageFieldIndex implements Serializable {
+
+	public synchronized void addRecord(
+		long classPK, Map<String, List<String>> fieldValues) {
+
+		_classPKs.add(classPK);
+
+		for (Map.Entry<String, List<String>> entry : fieldValues.entrySet()) {
+			String fieldName = entry.getKey();
+
+			Map<String, ClassPKs> valuesMap = _fieldValuesMap.get(fieldName);
+
+			if (valuesMap == null) {
+				valuesMap = new HashMap<String, ClassPKs>();
+
+				_fieldValuesMap.put(fieldName, valuesMap);
+			}
+
+			for (String value : entry.getValue()) {
+				value = GetterUtil.getString(value);
+
+				ClassPKs classPKs = valuesMap.get(value);
+
+				if (classPKs == null) {
+					classPKs = new ClassPKs();
+
+					valuesMap.put(value, classPKs);
+				}
+
+				classPKs.add(classPK);
+			}
+		}
+	}
+
+	public synchronized long[] getClassPKs(
+		DDMStructure ddmStructure, Condition condition) {
+
+		if (condition == null) {
+			long[] classPKs = _classPKs.toArray();
+
+			return classPKs.clone();
+		}
+
+		return match(ddmStructure, condition);
+	}
+
+	public synchronized int getClassPKsCount(
+		DDMStructure ddmStructure, Condition condition) {
+
+		if (condition == null) {
+			long[] classPKs = _classPKs.toArray();
+
+			return classPKs.length;
+		}
+
+		long[] classPKs = match(ddmStructure, condition);
+
+		return classPKs.length;
+	}
+
+	protected int compare(String dataType, String value1, String value2) {
+		if (dataType.equals(FieldConstants.DATE) ||
+			dataType.equals(FieldConstants.INTEGER) ||
+			dataType.equals(FieldConstants.LONG) ||
+			dataType.equals(FieldConstants.SHORT)) {
+
+			long long1 = GetterUtil.getLong(value1);
+			long long2 = GetterUtil.getLong(value2);
+
+			if (long1 < long2) {
+				return -1;
+			}
+			else if (long1 > long2) {
+				return 1;
+			}
+			else {
+				return 0;
+			}
+		}
+		else if (dataType.equals(FieldConstants.DOUBLE) ||
+				 dataType.equals(FieldConstants.FLOAT) ||
+				 dataType.equals(FieldConstants.NUMBER)) {
+
+			return Double.compare(
+				GetterUtil.getDouble(value1), GetterUtil.getDouble(value2));
+		}
+
+		return value1.compareTo(value2);
+	}
+
+	protected String getDataType(DDMStructure ddmStructure, String fieldName) {
+		try {
+			return GetterUtil.getString(
+				ddmStructure.getFieldDataType(fieldName),
+				FieldConstants.STRING);
+		}
+		catch (Exception e) {
+			return FieldConstants.STRING;
+		}
+	}
+
+	protected Set<String> getValues(Object value) {
+		Set<String> values = new HashSet<String>();
+
+		if (value instanceof Collection<?>) {
+			for (Object curValue : (Collection<?>)value) {
+				values.add(toString(curValue));
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object curValue : (Object[])value) {
+				values.add(toString(curValue));
+			}
+		}
+		else {
+			for (String curValue : StringUtil.split(toString(value))) {
+				values.add(curValue);
+			}
+		}
+
+		return values;
+	}
+
+	protected long[] intersect(long[] classPKs1, long[] classPKs2) {
+		long[] classPKs = new long[
+			Math.min(classPKs1.length, classPKs2.length)];
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while ((i < classPKs1.length) && (j < classPKs2.length)) {
+			if (classPKs1[i] < classPKs2[j]) {
+				i++;
+			}
+			else if (classPKs1[i] > classPKs2[j]) {
+				j++;
+			}
+			else {
+				classPKs[k++] = classPKs1[i];
+
+				i++;
+				j++;
+			}
+		}
+
+		return Arrays.copyOf(classPKs, k);
+	}
+
+	protected long[] match(DDMStructure ddmStructure, Condition condition) {
+		if (condition.isJunction()) {
+			return match(ddmStructure, (Junction)condition);
+		}
+		else {
+			return match(ddmStructure, (FieldCondition)condition);
+		}
+	}
+
+	protected long[] match(
+		DDMStructure ddmStructure, FieldCondition fieldCondition) {
+
+		Map<String, ClassPKs> valuesMap = _fieldValuesMap.get(
+			fieldCondition.getName());
+
+		if (valuesMap == null) {
+			return new long[0];
+		}
+
+		ComparisonOperator comparisonOperator =
+			fieldCondition.getComparisonOperator();
+
+		if (comparisonOperator.equals(ComparisonOperator.EQUALS) ||
+			comparisonOperator.equals(ComparisonOperator.JOIN)) {
+
+			ClassPKs valueClassPKs = valuesMap.get(
+				toString(fieldCondition.getValue()));
+
+			if (valueClassPKs == null) {
+				return new long[0];
+			}
+
+			long[] classPKs = valueClassPKs.toArray();
+
+			return classPKs.clone();
+		}
+
+		ClassPKs classPKs = new ClassPKs();
+
+		if (comparisonOperator.equals(ComparisonOperator.IN)) {
+			for (String value : getValues(fieldCondition.getValue())) {
+				ClassPKs valueClassPKs = valuesMap.get(value);
+
+				if (valueClassPKs != null) {
+					classPKs.addAll(valueClassPKs.toArray());
+				}
+			}
+
+			return classPKs.toArray();
+		}
+
+		String dataType = getDataType(ddmStructure, fieldCondition.getName());
+
+		Pattern pattern = null;
+		Set<String> values = null;
+
+		if (comparisonOperator.equals(ComparisonOperator.LIKE)) {
+			pattern = Pattern.compile(toString(fieldCondition.getValue()));
+		}
+		else if (comparisonOperator.equals(ComparisonOperator.NOT_IN)) {
+			values = getValues(fieldCondition.getValue());
+		}
+
+		String conditionValue = toString(fieldCondition.getValue());
+
+		for (Map.Entry<String, ClassPKs> entry : valuesMap.entrySet()) {
+			String value = entry.getKey();
+
+			boolean matches = false;
+
+			if (pattern != null) {
+				Matcher matcher = pattern.matcher(value);
+
+				matches = matcher.find();
+			}
+			else if (values != null) {
+				matches = !values.contains(value);
+			}
+			else if (comparisonOperator.equals(
+						ComparisonOperator.NOT_EQUALS)) {
+
+				matches = !value.equals(conditionValue);
+			}
+			else {
+				int result = compare(dataType, value, conditionValue);
+
+				if (comparisonOperator.equals(
+						ComparisonOperator.GREATER_THAN)) {
+
+					matches = (result > 0);
+				}
+				else if (comparisonOperator.equals(
+							ComparisonOperator.GREATER_THAN_OR_EQUAL_TO)) {
+
+					matches = (result >= 0);
+				}
+				else if (comparisonOperator.equals(
+							ComparisonOperator.LESS_THAN)) {
+
+					matches = (result < 0);
+				}
+				else if (comparisonOperator.equals(
+							ComparisonOperator.LESS_THAN_OR_EQUAL_TO)) {
+
+					matches = (result <= 0);
+				}
+				else {
+					matches = (result == 0);
+				}
+			}
+
+			if (matches) {
+				ClassPKs valueClassPKs = entry.getValue();
+
+				classPKs.addAll(valueClassPKs.toArray());
+			}
+		}
+
+		return classPKs.toArray();
+	}
+
+	protected long[] match(DDMStructure ddmStructure, Junction junction) {
+		LogicalOperator logicalOperator = junction.getLogicalOperator();
+
+		long[] classPKs = null;
+
+		Iterator<Condition> itr = junction.iterator();
+
+		while (itr.hasNext()) {
+			long[] conditionClassPKs = match(ddmStructure, itr.next());
+
+			if (classPKs == null) {
+				classPKs = conditionClassPKs;
+			}
+			else if (logicalOperator.equals(LogicalOperator.AND)) {
+				classPKs = intersect(classPKs, conditionClassPKs);
+			}
+			else {
+				classPKs = union(classPKs, conditionClassPKs);
+			}
+
+			if (logicalOperator.equals(LogicalOperator.AND) &&
+				(classPKs.length == 0)) {
+
+				break;
+			}
+		}
+
+		if (classPKs == null) {
+			classPKs = new long[0];
+		}
+
+		if (logicalOperator.equals(LogicalOperator.NOT)) {
+			classPKs = subtract(_classPKs.toArray(), classPKs);
+		}
+
+		return classPKs;
+	}
+
+	protected long[] subtract(long[] classPKs1, long[] classPKs2) {
+		long[] classPKs = new long[classPKs1.length];
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < classPKs1.length) {
+			if ((j == classPKs2.length) || (classPKs1[i] < classPKs2[j])) {
+				classPKs[k++] = classPKs1[i];
+
+				i++;
+			}
+			else if (classPKs1[i] > classPKs2[j]) {
+				j++;
+			}
+			else {
+				i++;
+				j++;
+			}
+		}
+
+		return Arrays.copyOf(classPKs, k);
+	}
+
+	protected String toString(Object value) {
+		if (value instanceof Date) {
+			Date date = (Date)value;
+
+			return String.valueOf(date.getTime());
+		}
+
+		return String.valueOf(value);
+	}
+
+	protected long[] union(long[] classPKs1, long[] classPKs2) {
+		ClassPKs classPKs = new ClassPKs();
+
+		classPKs.addAll(classPKs1);
+		classPKs.addAll(classPKs2);
+
+		return classPKs.toArray();
+	}
+
+	private ClassPKs _classPKs = new ClassPKs();
+	private Map<String, Map<String, ClassPKs>> _fieldValuesMap =
+		new HashMap<String, Map<String, ClassPKs>>();
+
+	/**
+	 * Holds primary keys in a growable primitive array that is sorted and
+	 * stripped of duplicates when it is read.
+	 */
+	private static class ClassPKs implements Serializable {
+
+		public void add(long classPK) {
+			if (_size > 0) {
+				long lastClassPK = _classPKs[_size - 1];
+
+				if (lastClassPK == classPK) {
+					return;
+				}
+
+				if (lastClassPK > classPK) {
+					_sorted = false;
+				}
+			}
+
+			if (_size == _classPKs.length) {
+				_classPKs = Arrays.copyOf(
+					_classPKs, Math.max(_size * 2, 1));
+			}
+
+			_classPKs[_size++] = classPK;
+		}
+
+		public void addAll(long[] classPKs) {
+			for (long classPK : classPKs) {
+				add(classPK);
+			}
+		}
+
+		public long[] toArray() {
+			if (!_sorted) {
+				Arrays.sort(_classPKs, 0, _size);
+
+				int size = 0;
+
+				for (int i = 0; i < _size; i++) {
+					if ((size == 0) || (_classPKs[size - 1] != _classPKs[i])) {
+						_classPKs[size++] = _classPKs[i];
+					}
+				}
+
+				_size = size;
+				_sorted = true;
+			}
+
+			if (_classPKs.length != _size) {
+				_classPKs = Arrays.copyOf(_classPKs, _size);
+			}
+
+			return _classPKs;
+		}
+
+		private long[] _classPKs = new long[1];
+		private int _size;
+		private boolean _sorted = true;
+
+	}
+
+}
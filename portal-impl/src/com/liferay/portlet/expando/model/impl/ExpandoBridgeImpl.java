@@ -264,9 +264,27 @@ public class ExpandoBridgeImpl implements ExpandoBridge {
 			}
 		}
 
+		if (columns.isEmpty()) {
+			return attributes;
+		}
+
+		List<String> names = new ArrayList<String>(columns.size());
+
 		for (ExpandoColumn column : columns) {
-			attributes.put(
-				column.getName(), getAttribute(column.getName(), secure));
+			names.add(column.getName());
+		}
+
+		Map<String, Serializable> attributeValues = getAttributes(
+			names, secure);
+
+		for (String name : names) {
+			Serializable attributeValue = null;
+
+			if (attributeValues != null) {
+				attributeValue = attributeValues.get(name);
+			}
+
+			attributes.put(name, attributeValue);
 		}
 
 		return attributes;
@@ -14,6 +14,9 @@
 
 package com.liferay.portlet.expando.service.impl;
 
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.security.auth.CompanyThreadLocal;
@@ -29,6 +32,7 @@ import com.liferay.portlet.expando.service.base.ExpandoValueLocalServiceBaseImpl
 
 import java.io.Serializable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -1218,26 +1222,79 @@ public class ExpandoValueLocalServiceImpl
 			Collection<String> columnNames, long classPK)
 		throws PortalException, SystemException {
 
+		Map<Long, Map<String, Serializable>> attributeValuesMap =
+			expandoValueLocalService.getData(
+				companyId, className, tableName, columnNames,
+				new long[] {classPK});
+
+		return attributeValuesMap.get(classPK);
+	}
+
+	/**
+	 * Returns the values of the columns for each of the rows, loading the
+	 * values of all the rows at once instead of one column and row at a time.
+	 * Each value is converted to the type of its column, and columns without a
+	 * value for a row are set to their default data.
+	 *
+	 * @return the maps of column names to values, keyed by the primary key of
+	 *         the rows
+	 */
+	public Map<Long, Map<String, Serializable>> getData(
+			long companyId, String className, String tableName,
+			Collection<String> columnNames, long[] classPKs)
+		throws PortalException, SystemException {
+
 		List<ExpandoColumn> columns = expandoColumnLocalService.getColumns(
 			companyId, className, tableName, columnNames);
 
-		Map<String, Serializable> attributeValues =
-			new HashMap<String, Serializable>((int)(columnNames.size() * 1.4));
+		Map<Long, Map<Long, ExpandoValue>> valuesMap =
+			new HashMap<Long, Map<Long, ExpandoValue>>();
 
-		ExpandoValue value = new ExpandoValueImpl();
+		if (!columns.isEmpty()) {
+			ExpandoColumn firstColumn = columns.get(0);
 
-		for (ExpandoColumn column : columns) {
-			value.setColumn(column);
-			value.setData(column.getDefaultData());
+			List<ExpandoValue> values = getValues(
+				firstColumn.getTableId(), classPKs);
+
+			for (ExpandoValue value : values) {
+				Map<Long, ExpandoValue> rowValues = valuesMap.get(
+					value.getClassPK());
+
+				if (rowValues == null) {
+					rowValues = new HashMap<Long, ExpandoValue>();
+
+					valuesMap.put(value.getClassPK(), rowValues);
+				}
+
+				rowValues.put(value.getColumnId(), value);
+			}
+		}
+
+		Map<Long, Map<String, Serializable>> attributeValuesMap =
+			new HashMap<Long, Map<String, Serializable>>();
 
-			Serializable attributeValue = doGetData(
-				companyId, className, tableName, column.getName(), classPK,
-				value, column.getType());
+		for (long classPK : classPKs) {
+			Map<Long, ExpandoValue> rowValues = valuesMap.get(classPK);
 
-			attributeValues.put(column.getName(), attributeValue);
+			if (rowValues == null) {
+				rowValues = Collections.emptyMap();
+			}
+
+			Map<String, Serializable> attributeValues =
+				new HashMap<String, Serializable>(
+					(int)(columnNames.size() * 1.4));
+
+			for (ExpandoColumn column : columns) {
+				Serializable attributeValue = getData(
+					column, rowValues.get(column.getColumnId()));
+
+				attributeValues.put(column.getName(), attributeValue);
+			}
+
+			attributeValuesMap.put(classPK, attributeValues);
 		}
 
-		return attributeValues;
+		return attributeValuesMap;
 	}
 
 	public Serializable getData(
@@ -2114,4 +2171,85 @@ public class ExpandoValueLocalServiceImpl
 		}
 	}
 
-}
\ No newline at end of file
+	protected Serializable getData(ExpandoColumn column, ExpandoValue value)
+		throws PortalException, SystemException {
+
+		if (value == null) {
+			int type = column.getType();
+
+			if (type == ExpandoColumnConstants.BOOLEAN_ARRAY) {
+				return new boolean[0];
+			}
+			else if (type == ExpandoColumnConstants.DATE_ARRAY) {
+				return new Date[0];
+			}
+			else if (type == ExpandoColumnConstants.DOUBLE_ARRAY) {
+				return new double[0];
+			}
+			else if (type == ExpandoColumnConstants.FLOAT_ARRAY) {
+				return new float[0];
+			}
+			else if (type == ExpandoColumnConstants.INTEGER_ARRAY) {
+				return new int[0];
+			}
+			else if (type == ExpandoColumnConstants.LONG_ARRAY) {
+				return new long[0];
+			}
+			else if (type == ExpandoColumnConstants.NUMBER_ARRAY) {
+				return new Number[0];
+			}
+			else if (type == ExpandoColumnConstants.SHORT_ARRAY) {
+				return new short[0];
+			}
+			else if (type == ExpandoColumnConstants.STRING_ARRAY) {
+				return new String[0];
+			}
+
+			value = new ExpandoValueImpl();
+
+			value.setData(column.getDefaultData());
+		}
+
+		value.setColumn(column);
+
+		return value.getSerializable();
+	}
+
+	@SuppressWarnings("unchecked")
+	protected List<ExpandoValue> getValues(long tableId, long[] classPKs)
+		throws SystemException {
+
+		if (classPKs.length == 1) {
+			return expandoValuePersistence.findByT_CPK(tableId, classPKs[0]);
+		}
+
+		List<ExpandoValue> values = new ArrayList<ExpandoValue>();
+
+		for (int i = 0; i < classPKs.length; i += _CLASS_PKS_BATCH_SIZE) {
+			int end = Math.min(i + _CLASS_PKS_BATCH_SIZE, classPKs.length);
+
+			List<Object> batchClassPKs = new ArrayList<Object>(end - i);
+
+			for (int j = i; j < end; j++) {
+				batchClassPKs.add(classPKs[j]);
+			}
+
+			DynamicQuery dynamicQuery = dynamicQuery();
+
+			Property tableIdProperty = PropertyFactoryUtil.forName("tableId");
+
+			dynamicQuery.add(tableIdProperty.eq(tableId));
+
+			Property classPKProperty = PropertyFactoryUtil.forName("classPK");
+
+			dynamicQuery.add(classPKProperty.in(batchClassPKs));
+
+			values.addAll(dynamicQuery(dynamicQuery));
+		}
+
+		return values;
+	}
+
+	private static final int _CLASS_PKS_BATCH_SIZE = 500;
+
+}
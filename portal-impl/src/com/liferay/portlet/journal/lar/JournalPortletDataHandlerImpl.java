@@ -15,6 +15,10 @@
 package com.liferay.portlet.journal.lar;
 
 import com.liferay.portal.NoSuchImageException;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.DynamicQueryFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
@@ -47,12 +51,14 @@ import com.liferay.portal.model.Image;
 import com.liferay.portal.model.Layout;
 import com.liferay.portal.model.RepositoryEntry;
 import com.liferay.portal.model.User;
+import com.liferay.portal.security.pacl.PACLClassLoaderUtil;
 import com.liferay.portal.service.GroupLocalServiceUtil;
 import com.liferay.portal.service.LayoutLocalServiceUtil;
 import com.liferay.portal.service.ServiceContext;
 import com.liferay.portal.service.UserLocalServiceUtil;
 import com.liferay.portal.service.persistence.ImageUtil;
 import com.liferay.portal.service.persistence.LayoutUtil;
+import com.liferay.portal.staging.StagingChangeJournalUtil;
 import com.liferay.portal.util.PortletKeys;
 import com.liferay.portal.util.PropsValues;
 import com.liferay.portlet.documentlibrary.lar.DLPortletDataHandlerImpl;
@@ -72,6 +78,7 @@ import com.liferay.portlet.journal.model.JournalFolderConstants;
 import com.liferay.portlet.journal.model.JournalStructure;
 import com.liferay.portlet.journal.model.JournalTemplate;
 import com.liferay.portlet.journal.service.JournalArticleLocalServiceUtil;
+import com.liferay.portlet.journal.service.JournalArticleResourceLocalServiceUtil;
 import com.liferay.portlet.journal.service.JournalFeedLocalServiceUtil;
 import com.liferay.portlet.journal.service.JournalFolderLocalServiceUtil;
 import com.liferay.portlet.journal.service.JournalStructureLocalServiceUtil;
@@ -93,9 +100,11 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -1629,6 +1638,64 @@ public class JournalPortletDataHandlerImpl extends BasePortletDataHandler {
 		return sb.toString();
 	}
 
+	protected static void exportChangedArticles(
+			PortletDataContext portletDataContext, Element foldersElement,
+			Element articlesElement, Element structuresElement,
+			Element templatesElement, Element dlFileEntryTypesElement,
+			Element dlFoldersElement, Element dlFileEntriesElement,
+			Element dlFileRanksElement, Element dlRepositoriesElement,
+			Element dlRepositoryEntriesElement, long[] folderIds,
+			long[] articleIds)
+		throws Exception {
+
+		for (long folderId : folderIds) {
+			JournalFolder folder = JournalFolderUtil.fetchByPrimaryKey(
+				folderId);
+
+			if ((folder != null) &&
+				portletDataContext.isWithinDateRange(
+					folder.getModifiedDate())) {
+
+				exportParentFolder(
+					portletDataContext, foldersElement, folderId);
+			}
+		}
+
+		List<JournalArticle> articles = new ArrayList<JournalArticle>(
+			articleIds.length);
+
+		for (long articleId : articleIds) {
+			JournalArticle article = JournalArticleUtil.fetchByPrimaryKey(
+				articleId);
+
+			if (article != null) {
+				articles.add(article);
+			}
+		}
+
+		Collections.sort(articles, new ArticleIDComparator(true));
+
+		for (JournalArticle article : articles) {
+			if (!portletDataContext.getBooleanParameter(
+					_NAMESPACE, "version-history") &&
+				!JournalArticleLocalServiceUtil.isLatestVersion(
+					article.getGroupId(), article.getArticleId(),
+					article.getVersion(), WorkflowConstants.STATUS_APPROVED)) {
+
+				continue;
+			}
+
+			exportParentFolder(
+				portletDataContext, foldersElement, article.getFolderId());
+
+			exportArticle(
+				portletDataContext, articlesElement, structuresElement,
+				templatesElement, dlFileEntryTypesElement, dlFoldersElement,
+				dlFileEntriesElement, dlFileRanksElement, dlRepositoriesElement,
+				dlRepositoryEntriesElement, article, true);
+		}
+	}
+
 	protected static void exportFeed(
 			PortletDataContext portletDataContext, Element feedsElement,
 			JournalFeed feed)
@@ -2409,6 +2476,53 @@ public class JournalPortletDataHandlerImpl extends BasePortletDataHandler {
 		return content;
 	}
 
+	/**
+	 * Loads the article resources of the imported articles that already exist
+	 * in the scope group with one query per batch of UUIDs, so that the lookups
+	 * by UUID done for each article are served from the finder cache.
+	 */
+	protected static void prefetchArticleResources(
+			PortletDataContext portletDataContext,
+			List<Element> articleElements)
+		throws SystemException {
+
+		Set<String> articleResourceUuids = new HashSet<String>();
+
+		for (Element articleElement : articleElements) {
+			String articleResourceUuid = articleElement.attributeValue(
+				"article-resource-uuid");
+
+			if (Validator.isNotNull(articleResourceUuid)) {
+				articleResourceUuids.add(articleResourceUuid);
+			}
+		}
+
+		List<Object> uuids = new ArrayList<Object>(articleResourceUuids);
+
+		for (int i = 0; i < uuids.size(); i += _PREFETCH_BATCH_SIZE) {
+			int end = Math.min(i + _PREFETCH_BATCH_SIZE, uuids.size());
+
+			DynamicQuery dynamicQuery = DynamicQueryFactoryUtil.forClass(
+				JournalArticleResource.class,
+				PACLClassLoaderUtil.getPortalClassLoader());
+
+			Property groupIdProperty = PropertyFactoryUtil.forName("groupId");
+
+			dynamicQuery.add(
+				groupIdProperty.eq(portletDataContext.getScopeGroupId()));
+
+			Property uuidProperty = PropertyFactoryUtil.forName("uuid");
+
+			dynamicQuery.add(uuidProperty.in(uuids.subList(i, end)));
+
+			List<JournalArticleResource> articleResources =
+				JournalArticleResourceLocalServiceUtil.dynamicQuery(
+					dynamicQuery);
+
+			JournalArticleResourceUtil.cacheResult(articleResources);
+		}
+	}
+
 	protected static void prepareLanguagesForImport(JournalArticle article)
 		throws PortalException {
 
@@ -2520,6 +2634,26 @@ public class JournalPortletDataHandlerImpl extends BasePortletDataHandler {
 		Element articlesElement = rootElement.addElement("articles");
 
 		if (portletDataContext.getBooleanParameter(_NAMESPACE, "web-content")) {
+			long[] folderIds = StagingChangeJournalUtil.getClassPKs(
+				portletDataContext.getScopeGroupId(),
+				JournalFolder.class.getName(),
+				portletDataContext.getStartDate());
+			long[] articleIds = StagingChangeJournalUtil.getClassPKs(
+				portletDataContext.getScopeGroupId(),
+				JournalArticle.class.getName(),
+				portletDataContext.getStartDate());
+
+			if ((folderIds != null) && (articleIds != null)) {
+				exportChangedArticles(
+					portletDataContext, foldersElement, articlesElement,
+					structuresElement, templatesElement,
+					dlFileEntryTypesElement, dlFoldersElement, dlFilesElement,
+					dlFileRanksElement, dlRepositoriesElement,
+					dlRepositoryEntriesElement, folderIds, articleIds);
+
+				return document.formattedString();
+			}
+
 			List<JournalFolder> folders = JournalFolderUtil.findByGroupId(
 				portletDataContext.getScopeGroupId());
 
@@ -2614,6 +2748,10 @@ public class JournalPortletDataHandlerImpl extends BasePortletDataHandler {
 
 			List<Element> articleElements = articlesElement.elements("article");
 
+			if (portletDataContext.isDataStrategyMirror()) {
+				prefetchArticleResources(portletDataContext, articleElements);
+			}
+
 			for (Element articleElement : articleElements) {
 				try {
 					importArticle(portletDataContext, articleElement);
@@ -2639,6 +2777,8 @@ public class JournalPortletDataHandlerImpl extends BasePortletDataHandler {
 
 	private static final String _NAMESPACE = "journal";
 
+	private static final int _PREFETCH_BATCH_SIZE = 500;
+
 	private static Log _log = LogFactoryUtil.getLog(
 		JournalPortletDataHandlerImpl.class);
 
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.journalcontent.jmx;
+
+import com.liferay.portlet.journalcontent.util.JournalContentImpl;
+
+public class JournalContentCacheManager
+	implements JournalContentCacheManagerMBean {
+
+	public long getCacheHitCount() {
+		return _journalContentImpl.getCacheHitCount();
+	}
+
+	public long getCacheMissCount() {
+		return _journalContentImpl.getCacheMissCount();
+	}
+
+	public long getCoalescedCacheMissCount() {
+		return _journalContentImpl.getCoalescedCacheMissCount();
+	}
+
+	public int getPendingArticleDisplayCount() {
+		return _journalContentImpl.getPendingArticleDisplayCount();
+	}
+
+	public long getRefreshCount() {
+		return _journalContentImpl.getRefreshCount();
+	}
+
+	public long getStaleCacheHitCount() {
+		return _journalContentImpl.getStaleCacheHitCount();
+	}
+
+	public void reset() {
+		_journalContentImpl.resetStatistics();
+	}
+
+	public void setJournalContentImpl(JournalContentImpl journalContentImpl) {
+		_journalContentImpl = journalContentImpl;
+	}
+
+	private JournalContentImpl _journalContentImpl;
+
+}
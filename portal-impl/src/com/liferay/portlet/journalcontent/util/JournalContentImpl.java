@@ -16,12 +16,14 @@ package com.liferay.portlet.journalcontent.util;
 
 import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
 import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.SingleVMPoolUtil;
 import com.liferay.portal.kernel.lar.ImportExportThreadLocal;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Time;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.model.Layout;
 import com.liferay.portal.model.LayoutSet;
@@ -32,6 +34,11 @@ import com.liferay.portlet.journal.model.JournalArticleDisplay;
 import com.liferay.portlet.journal.service.JournalArticleLocalServiceUtil;
 import com.liferay.portlet.journal.service.permission.JournalArticlePermission;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -50,12 +57,25 @@ public class JournalContentImpl implements JournalContent {
 		}
 
 		portalCache.removeAll();
+		refreshTimePortalCache.removeAll();
 	}
 
 	public void clearCache(long groupId, String articleId, String templateId) {
 		clearCache();
 	}
 
+	public long getCacheHitCount() {
+		return _cacheHitCount.get();
+	}
+
+	public long getCacheMissCount() {
+		return _cacheMissCount.get();
+	}
+
+	public long getCoalescedCacheMissCount() {
+		return _coalescedCacheMissCount.get();
+	}
+
 	public String getContent(
 		long groupId, String articleId, String viewMode, String languageId,
 		String xmlRequest) {
@@ -143,21 +163,40 @@ public class JournalContentImpl implements JournalContent {
 			groupId, articleId, version, templateId, layoutSetId, viewMode,
 			languageId, page, secure);
 
-		JournalArticleDisplay articleDisplay = portalCache.get(key);
+		JournalArticleDisplay articleDisplay = null;
 
 		boolean lifecycleRender = isLifecycleRender(themeDisplay, xmlRequest);
 
-		if ((articleDisplay == null) || !lifecycleRender) {
-			articleDisplay = getArticleDisplay(
-				groupId, articleId, templateId, viewMode, languageId, page,
-				xmlRequest, themeDisplay);
+		if (lifecycleRender) {
+			articleDisplay = portalCache.get(key);
 
-			if ((articleDisplay != null) && articleDisplay.isCacheable() &&
-				lifecycleRender) {
+			if (articleDisplay == null) {
+				_cacheMissCount.incrementAndGet();
 
-				portalCache.put(key, articleDisplay);
+				articleDisplay = loadArticleDisplay(
+					key, groupId, articleId, templateId, viewMode, languageId,
+					page, xmlRequest, themeDisplay);
+			}
+			else {
+				_cacheHitCount.incrementAndGet();
+
+				if (PropsValues.JOURNAL_CONTENT_CACHE_SOFT_TTL > 0) {
+					JournalArticleDisplay refreshedArticleDisplay =
+						refreshArticleDisplay(
+							key, groupId, articleId, templateId, viewMode,
+							languageId, page, xmlRequest, themeDisplay);
+
+					if (refreshedArticleDisplay != null) {
+						articleDisplay = refreshedArticleDisplay;
+					}
+				}
 			}
 		}
+		else {
+			articleDisplay = getArticleDisplay(
+				groupId, articleId, templateId, viewMode, languageId, page,
+				xmlRequest, themeDisplay);
+		}
 
 		try {
 			if (PropsValues.JOURNAL_ARTICLE_VIEW_PERMISSION_CHECK_ENABLED &&
@@ -236,6 +275,46 @@ public class JournalContentImpl implements JournalContent {
 			null);
 	}
 
+	public int getPendingArticleDisplayCount() {
+		return _articleDisplayFutureTasks.size();
+	}
+
+	public long getRefreshCount() {
+		return _refreshCount.get();
+	}
+
+	public long getStaleCacheHitCount() {
+		return _staleCacheHitCount.get();
+	}
+
+	public void resetStatistics() {
+		_cacheHitCount.set(0);
+		_cacheMissCount.set(0);
+		_coalescedCacheMissCount.set(0);
+		_refreshCount.set(0);
+		_staleCacheHitCount.set(0);
+	}
+
+	protected JournalArticleDisplay cacheArticleDisplay(
+		String key, long groupId, String articleId, String templateId,
+		String viewMode, String languageId, int page, String xmlRequest,
+		ThemeDisplay themeDisplay) {
+
+		JournalArticleDisplay articleDisplay = getArticleDisplay(
+			groupId, articleId, templateId, viewMode, languageId, page,
+			xmlRequest, themeDisplay);
+
+		if ((articleDisplay != null) && articleDisplay.isCacheable()) {
+			portalCache.put(key, articleDisplay);
+
+			if (PropsValues.JOURNAL_CONTENT_CACHE_SOFT_TTL > 0) {
+				refreshTimePortalCache.put(key, System.currentTimeMillis());
+			}
+		}
+
+		return articleDisplay;
+	}
+
 	protected String encodeKey(
 		long groupId, String articleId, double version, String templateId,
 		long layoutSetId, String viewMode, String languageId, int page,
@@ -320,13 +399,183 @@ public class JournalContentImpl implements JournalContent {
 		}
 	}
 
+	protected JournalArticleDisplay loadArticleDisplay(
+		final String key, final long groupId, final String articleId,
+		final String templateId, final String viewMode,
+		final String languageId, final int page, final String xmlRequest,
+		final ThemeDisplay themeDisplay) {
+
+		if (!PropsValues.JOURNAL_CONTENT_CACHE_BLOCKING_ENABLED) {
+			return cacheArticleDisplay(
+				key, groupId, articleId, templateId, viewMode, languageId,
+				page, xmlRequest, themeDisplay);
+		}
+
+		ArticleDisplayFutureTask articleDisplayFutureTask =
+			new ArticleDisplayFutureTask(
+				key,
+				new Callable<JournalArticleDisplay>() {
+
+					public JournalArticleDisplay call() {
+						return cacheArticleDisplay(
+							key, groupId, articleId, templateId, viewMode,
+							languageId, page, xmlRequest, themeDisplay);
+					}
+
+				});
+
+		ArticleDisplayFutureTask previousArticleDisplayFutureTask =
+			_articleDisplayFutureTasks.putIfAbsent(
+				key, articleDisplayFutureTask);
+
+		if (previousArticleDisplayFutureTask == null) {
+			articleDisplayFutureTask.run();
+		}
+		else {
+			_coalescedCacheMissCount.incrementAndGet();
+
+			articleDisplayFutureTask = previousArticleDisplayFutureTask;
+		}
+
+		JournalArticleDisplay articleDisplay = null;
+
+		try {
+			articleDisplay = articleDisplayFutureTask.get();
+		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn("Unable to wait for article display " + key, e);
+			}
+		}
+
+		if ((previousArticleDisplayFutureTask != null) &&
+			((articleDisplay == null) || !articleDisplay.isCacheable())) {
+
+			// The winning thread produced a request specific display that
+			// cannot be shared, so render it again for this request
+
+			articleDisplay = getArticleDisplay(
+				groupId, articleId, templateId, viewMode, languageId, page,
+				xmlRequest, themeDisplay);
+		}
+
+		return articleDisplay;
+	}
+
+	/**
+	 * Renders a fresh copy of a display whose soft time to live has passed.
+	 * Only the first request that finds the display stale renders it, with its
+	 * own theme display, while concurrent requests keep getting the stale
+	 * display. The display is never refreshed in the background because the
+	 * theme display and request XML belong to the current request.
+	 *
+	 * @return the fresh display, or <code>null</code> if the cached display
+	 *         is not stale or is being refreshed by another request
+	 */
+	protected JournalArticleDisplay refreshArticleDisplay(
+		final String key, final long groupId, final String articleId,
+		final String templateId, final String viewMode,
+		final String languageId, final int page, final String xmlRequest,
+		final ThemeDisplay themeDisplay) {
+
+		Long refreshTime = refreshTimePortalCache.get(key);
+
+		long now = System.currentTimeMillis();
+
+		if (refreshTime == null) {
+			refreshTimePortalCache.put(key, now);
+
+			return null;
+		}
+
+		if ((now - refreshTime) <
+				(PropsValues.JOURNAL_CONTENT_CACHE_SOFT_TTL * Time.SECOND)) {
+
+			return null;
+		}
+
+		ArticleDisplayFutureTask articleDisplayFutureTask =
+			new ArticleDisplayFutureTask(
+				key,
+				new Callable<JournalArticleDisplay>() {
+
+					public JournalArticleDisplay call() {
+						return cacheArticleDisplay(
+							key, groupId, articleId, templateId, viewMode,
+							languageId, page, xmlRequest, themeDisplay);
+					}
+
+				});
+
+		if (_articleDisplayFutureTasks.putIfAbsent(
+				key, articleDisplayFutureTask) != null) {
+
+			return null;
+		}
+
+		_staleCacheHitCount.incrementAndGet();
+
+		refreshTimePortalCache.put(key, now);
+
+		articleDisplayFutureTask.run();
+
+		try {
+			JournalArticleDisplay articleDisplay =
+				articleDisplayFutureTask.get();
+
+			_refreshCount.incrementAndGet();
+
+			return articleDisplay;
+		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn("Unable to refresh article display " + key, e);
+			}
+
+			return null;
+		}
+	}
+
 	protected static final String CACHE_NAME = JournalContent.class.getName();
+	protected static final String REFRESH_TIME_CACHE_NAME =
+		JournalContentImpl.class.getName() + "_REFRESH_TIME";
 
 	protected static Pattern lifecycleRenderPhasePattern = Pattern.compile(
 		"<lifecycle>\\s*RENDER_PHASE\\s*</lifecycle>");
 	protected static PortalCache<String, JournalArticleDisplay> portalCache =
 		MultiVMPoolUtil.getCache(CACHE_NAME);
+	protected static PortalCache<String, Long> refreshTimePortalCache =
+		SingleVMPoolUtil.getCache(REFRESH_TIME_CACHE_NAME);
 
 	private static Log _log = LogFactoryUtil.getLog(JournalContentImpl.class);
 
+	private final ConcurrentMap<String, ArticleDisplayFutureTask>
+		_articleDisplayFutureTasks =
+			new ConcurrentHashMap<String, ArticleDisplayFutureTask>();
+	private final AtomicLong _cacheHitCount = new AtomicLong();
+	private final AtomicLong _cacheMissCount = new AtomicLong();
+	private final AtomicLong _coalescedCacheMissCount = new AtomicLong();
+	private final AtomicLong _refreshCount = new AtomicLong();
+	private final AtomicLong _staleCacheHitCount = new AtomicLong();
+
+	private class ArticleDisplayFutureTask
+		extends FutureTask<JournalArticleDisplay> {
+
+		public ArticleDisplayFutureTask(
+			String key, Callable<JournalArticleDisplay> callable) {
+
+			super(callable);
+
+			_key = key;
+		}
+
+		@Override
+		protected void done() {
+			_articleDisplayFutureTasks.remove(_key, this);
+		}
+
+		private final String _key;
+
+	}
+
 }
\ No newline at end of file
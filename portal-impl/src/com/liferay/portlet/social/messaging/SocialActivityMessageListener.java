@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.social.messaging;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.util.PropsValues;
+import com.liferay.portlet.social.model.SocialActivity;
+import com.liferay.portlet.social.service.SocialActivityCounterLocalServiceUtil;
+import com.liferay.portlet.social.service.SocialActivityLocalServiceUtil;
+import com.liferay.portlet.social.util.SocialActivityQueue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SocialActivityMessageListener extends BaseMessageListener {
+
+	/**
+	 * Logs the activities that are still queued when the portal shuts down.
+	 * The queue only lives in memory, so they are lost.
+	 */
+	public void destroy() {
+		int size = SocialActivityQueue.getSize();
+
+		if ((size > 0) && _log.isWarnEnabled()) {
+			_log.warn(
+				"Discarding " + size + " queued social activities that were " +
+					"not recorded before shutdown");
+		}
+	}
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		List<SocialActivity[]> activityPairs = SocialActivityQueue.poll(
+			Math.max(PropsValues.SOCIAL_ACTIVITY_QUEUE_BATCH_SIZE, 1));
+
+		if (activityPairs.isEmpty()) {
+			return;
+		}
+
+		List<SocialActivity> activities = new ArrayList<SocialActivity>(
+			activityPairs.size());
+		List<SocialActivity> mirrorActivities = new ArrayList<SocialActivity>(
+			activityPairs.size());
+
+		for (SocialActivity[] activityPair : activityPairs) {
+			activities.add(activityPair[0]);
+			mirrorActivities.add(activityPair[1]);
+		}
+
+		try {
+			SocialActivityLocalServiceUtil.addActivities(
+				activities, mirrorActivities);
+		}
+		catch (Exception e) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(
+					"Unable to add " + activities.size() +
+						" activities at once, adding them one by one",
+					e);
+			}
+
+			activities = addActivities(activities, mirrorActivities);
+		}
+
+		for (SocialActivity activity : activities) {
+			try {
+				SocialActivityCounterLocalServiceUtil.addActivityCounters(
+					activity);
+			}
+			catch (Exception e) {
+				_log.error(
+					"Unable to add activity counters for activity " +
+						activity.getActivityId(),
+					e);
+			}
+		}
+	}
+
+	protected List<SocialActivity> addActivities(
+		List<SocialActivity> activities,
+		List<SocialActivity> mirrorActivities) {
+
+		List<SocialActivity> addedActivities = new ArrayList<SocialActivity>(
+			activities.size());
+
+		for (int i = 0; i < activities.size(); i++) {
+			SocialActivity activity = activities.get(i);
+			SocialActivity mirrorActivity = mirrorActivities.get(i);
+
+			// The primary keys set by the rolled back transaction were not
+			// persisted
+
+			activity.setActivityId(0);
+
+			if (mirrorActivity != null) {
+				mirrorActivity.setActivityId(0);
+				mirrorActivity.setMirrorActivityId(0);
+			}
+
+			try {
+				SocialActivityLocalServiceUtil.addActivities(
+					Collections.singletonList(activity),
+					Collections.singletonList(mirrorActivity));
+
+				addedActivities.add(activity);
+			}
+			catch (Exception e) {
+				_log.error(
+					"Unable to add activity " + activity.getClassName() + " " +
+						activity.getClassPK(),
+					e);
+			}
+		}
+
+		return addedActivities;
+	}
+
+	private static Log _log = LogFactoryUtil.getLog(
+		SocialActivityMessageListener.class);
+
+}
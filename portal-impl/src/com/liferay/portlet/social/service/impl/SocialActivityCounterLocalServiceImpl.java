@@ -21,6 +21,8 @@ import com.liferay.portal.kernel.dao.db.DBFactoryUtil;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
+import com.liferay.portal.kernel.increment.BufferedIncrement;
+import com.liferay.portal.kernel.increment.NumberIncrement;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.transaction.Propagation;
@@ -1003,6 +1005,72 @@ public class SocialActivityCounterLocalServiceImpl
 			SocialActivityCounterConstants.PERIOD_LENGTH_SYSTEM);
 	}
 
+	/**
+	 * Increments the latest activity counter, adding a new activity counter if
+	 * there is none or if its period has ended.
+	 *
+	 * <p>
+	 * When <code>social.activity.counter.buffered.increment.enabled</code> is
+	 * set in <code>portal.properties</code>, the increments are buffered and
+	 * this method is called asynchronously once with the sum of the
+	 * increments of the same counter.
+	 * </p>
+	 *
+	 * @param  groupId the primary key of the group
+	 * @param  classNameId the primary key of the entity's class the counter
+	 *         belongs to
+	 * @param  classPK the primary key of the entity the counter belongs to
+	 * @param  name the counter's name
+	 * @param  ownerType the counter's owner type
+	 * @param  periodLength the period length in days,
+	 *         <code>PERIOD_LENGTH_INFINITE</code> for never ending counters or
+	 *         <code>PERIOD_LENGTH_SYSTEM</code> for the period length defined
+	 *         in <code>portal-ext.properties</code>
+	 * @param  increment the value to add to the counter
+	 * @throws PortalException if the group or the previous activity counter
+	 *         could not be found
+	 * @throws SystemException if a system exception occurred
+	 */
+	@BufferedIncrement(incrementClass = NumberIncrement.class, parallel = false)
+	public void updateActivityCounter(
+			long groupId, long classNameId, long classPK, String name,
+			int ownerType, int periodLength, int increment)
+		throws PortalException, SystemException {
+
+		SocialActivityCounter activityCounter = fetchLatestActivityCounter(
+			groupId, classNameId, classPK, name, ownerType);
+
+		if (activityCounter == null) {
+			activityCounter = addActivityCounter(
+				groupId, classNameId, classPK, name, ownerType, 0, 0,
+				SocialCounterPeriodUtil.getStartPeriod(),
+				SocialActivityCounterConstants.END_PERIOD_UNDEFINED);
+
+			if (periodLength > 0) {
+				activityCounter.setStartPeriod(
+					SocialCounterPeriodUtil.getActivityDay());
+			}
+		}
+
+		if (!activityCounter.isActivePeriod(periodLength)) {
+			activityCounter = addActivityCounter(
+				activityCounter.getGroupId(), activityCounter.getClassNameId(),
+				activityCounter.getClassPK(), activityCounter.getName(),
+				activityCounter.getOwnerType(), 0,
+				activityCounter.getTotalValue(),
+				SocialCounterPeriodUtil.getStartPeriod(),
+				SocialActivityCounterConstants.END_PERIOD_UNDEFINED,
+				activityCounter.getActivityCounterId(), periodLength);
+		}
+
+		activityCounter.setCurrentValue(
+			activityCounter.getCurrentValue() + increment);
+		activityCounter.setTotalValue(
+			activityCounter.getTotalValue() + increment);
+
+		socialActivityCounterPersistence.update(activityCounter, false);
+	}
+
 	protected boolean addActivityCounter(
 		User user, User assetEntryUser,
 		SocialActivityCounterDefinition activityCounterDefinition) {
@@ -1199,38 +1267,16 @@ public class SocialActivityCounterLocalServiceImpl
 			int ownerType, int increment, int periodLength)
 		throws PortalException, SystemException {
 
-		SocialActivityCounter activityCounter = fetchLatestActivityCounter(
-			groupId, classNameId, classPK, name, ownerType);
-
-		if (activityCounter == null) {
-			activityCounter = addActivityCounter(
-				groupId, classNameId, classPK, name, ownerType, 0, 0,
-				SocialCounterPeriodUtil.getStartPeriod(),
-				SocialActivityCounterConstants.END_PERIOD_UNDEFINED);
-
-			if (periodLength > 0) {
-				activityCounter.setStartPeriod(
-					SocialCounterPeriodUtil.getActivityDay());
-			}
+		if (PropsValues.SOCIAL_ACTIVITY_COUNTER_BUFFERED_INCREMENT_ENABLED) {
+			socialActivityCounterLocalService.updateActivityCounter(
+				groupId, classNameId, classPK, name, ownerType, periodLength,
+				increment);
 		}
-
-		if (!activityCounter.isActivePeriod(periodLength)) {
-			activityCounter = addActivityCounter(
-				activityCounter.getGroupId(), activityCounter.getClassNameId(),
-				activityCounter.getClassPK(), activityCounter.getName(),
-				activityCounter.getOwnerType(), 0,
-				activityCounter.getTotalValue(),
-				SocialCounterPeriodUtil.getStartPeriod(),
-				SocialActivityCounterConstants.END_PERIOD_UNDEFINED,
-				activityCounter.getActivityCounterId(), periodLength);
+		else {
+			updateActivityCounter(
+				groupId, classNameId, classPK, name, ownerType, periodLength,
+				increment);
 		}
-
-		activityCounter.setCurrentValue(
-			activityCounter.getCurrentValue() + increment);
-		activityCounter.setTotalValue(
-			activityCounter.getTotalValue() + increment);
-
-		socialActivityCounterPersistence.update(activityCounter, false);
 	}
 
 	protected void incrementActivityCounter(
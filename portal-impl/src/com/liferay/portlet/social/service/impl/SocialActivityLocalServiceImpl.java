@@ -18,19 +18,26 @@ import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.lar.ImportExportThreadLocal;
+import com.liferay.portal.kernel.messaging.DestinationNames;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBusUtil;
 import com.liferay.portal.kernel.messaging.async.Async;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackRegistryUtil;
 import com.liferay.portal.model.Group;
 import com.liferay.portal.model.Layout;
 import com.liferay.portal.model.User;
 import com.liferay.portal.util.PortalUtil;
+import com.liferay.portal.util.PropsValues;
 import com.liferay.portlet.asset.model.AssetEntry;
 import com.liferay.portlet.social.NoSuchActivityException;
 import com.liferay.portlet.social.model.SocialActivity;
 import com.liferay.portlet.social.model.SocialActivityDefinition;
 import com.liferay.portlet.social.service.base.SocialActivityLocalServiceBaseImpl;
+import com.liferay.portlet.social.util.SocialActivityQueue;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * The social activity local service. This service provides the means to record
@@ -53,6 +60,33 @@ import java.util.List;
 public class SocialActivityLocalServiceImpl
 	extends SocialActivityLocalServiceBaseImpl {
 
+	/**
+	 * Records the activities and their mirror activities in the database in a
+	 * single transaction. The activity counters are not updated.
+	 *
+	 * <p>
+	 * This method is called by the "liferay/social_activity" destination to
+	 * write the activities queued after their transactions committed.
+	 * </p>
+	 *
+	 * @param  activities the activities to be recorded
+	 * @param  mirrorActivities the mirror activities of the activities, with
+	 *         <code>null</code> elements for the activities without a mirror
+	 *         activity
+	 * @throws PortalException if an activity or mirror activity already had a
+	 *         primary key
+	 * @throws SystemException if a system exception occurred
+	 */
+	public void addActivities(
+			List<SocialActivity> activities,
+			List<SocialActivity> mirrorActivities)
+		throws PortalException, SystemException {
+
+		for (int i = 0; i < activities.size(); i++) {
+			doAddActivity(activities.get(i), mirrorActivities.get(i));
+		}
+	}
+
 	/**
 	 * Records an activity with the given time in the database.
 	 *
@@ -150,7 +184,12 @@ public class SocialActivityLocalServiceImpl
 			mirrorActivity.setAssetEntry(assetEntry);
 		}
 
-		socialActivityLocalService.addActivity(activity, mirrorActivity);
+		if (PropsValues.SOCIAL_ACTIVITY_QUEUE_ENABLED) {
+			registerActivityCallback(activity, mirrorActivity);
+		}
+		else {
+			socialActivityLocalService.addActivity(activity, mirrorActivity);
+		}
 	}
 
 	/**
@@ -208,40 +247,7 @@ public class SocialActivityLocalServiceImpl
 			return;
 		}
 
-		if ((activity.getActivityId() > 0) ||
-			((mirrorActivity != null) &&
-			 (mirrorActivity.getActivityId() > 0))) {
-
-			throw new PortalException(
-				"Activity and mirror activity must not have primary keys set");
-		}
-
-		SocialActivityDefinition activityDefinition =
-			socialActivitySettingLocalService.getActivityDefinition(
-				activity.getGroupId(), activity.getClassName(),
-				activity.getType());
-
-		if (((activityDefinition == null) && (activity.getType() < 10000)) ||
-			((activityDefinition != null) &&
-				activityDefinition.isLogActivity())) {
-
-			long activityId = counterLocalService.increment(
-				SocialActivity.class.getName());
-
-			activity.setActivityId(activityId);
-
-			socialActivityPersistence.update(activity, false);
-
-			if (mirrorActivity != null) {
-				long mirrorActivityId = counterLocalService.increment(
-					SocialActivity.class.getName());
-
-				mirrorActivity.setActivityId(mirrorActivityId);
-				mirrorActivity.setMirrorActivityId(activity.getPrimaryKey());
-
-				socialActivityPersistence.update(mirrorActivity, false);
-			}
-		}
+		doAddActivity(activity, mirrorActivity);
 
 		socialActivityCounterLocalService.addActivityCounters(activity);
 	}
@@ -656,6 +662,39 @@ public class SocialActivityLocalServiceImpl
 		return socialActivityFinder.findByGroupId(groupId, start, end);
 	}
 
+	/**
+	 * Returns the activities done in the group that follow the activity with
+	 * the create date and primary key, in the same order as {@link
+	 * #getGroupActivities(long, int, int)}.
+	 *
+	 * <p>
+	 * This method only finds activities without mirrors.
+	 * </p>
+	 *
+	 * <p>
+	 * Useful when paginating large feeds. Passing the create date and primary
+	 * key of the last activity of a page returns the next page without the
+	 * database having to read the activities of all the previous pages. Pass
+	 * <code>Long.MAX_VALUE</code> as the create date to get the first page.
+	 * </p>
+	 *
+	 * @param  groupId the primary key of the group
+	 * @param  createDate the create date of the last activity of the previous
+	 *         page
+	 * @param  activityId the primary key of the last activity of the previous
+	 *         page
+	 * @param  count the maximum number of activities to return
+	 * @return the matching activities
+	 * @throws SystemException if a system exception occurred
+	 */
+	public List<SocialActivity> getGroupActivities(
+			long groupId, long createDate, long activityId, int count)
+		throws SystemException {
+
+		return socialActivityFinder.findByG_CD_A(
+			groupId, createDate, activityId, count);
+	}
+
 	/**
 	 * Returns the number of activities done in the group.
 	 *
@@ -1065,4 +1104,66 @@ public class SocialActivityLocalServiceImpl
 		return socialActivityFinder.countByUserOrganizations(userId);
 	}
 
+	protected void doAddActivity(
+			SocialActivity activity, SocialActivity mirrorActivity)
+		throws PortalException, SystemException {
+
+		if ((activity.getActivityId() > 0) ||
+			((mirrorActivity != null) &&
+			 (mirrorActivity.getActivityId() > 0))) {
+
+			throw new PortalException(
+				"Activity and mirror activity must not have primary keys set");
+		}
+
+		SocialActivityDefinition activityDefinition =
+			socialActivitySettingLocalService.getActivityDefinition(
+				activity.getGroupId(), activity.getClassName(),
+				activity.getType());
+
+		if (((activityDefinition == null) && (activity.getType() < 10000)) ||
+			((activityDefinition != null) &&
+				activityDefinition.isLogActivity())) {
+
+			long activityId = counterLocalService.increment(
+				SocialActivity.class.getName());
+
+			activity.setActivityId(activityId);
+
+			socialActivityPersistence.update(activity, false);
+
+			if (mirrorActivity != null) {
+				long mirrorActivityId = counterLocalService.increment(
+					SocialActivity.class.getName());
+
+				mirrorActivity.setActivityId(mirrorActivityId);
+				mirrorActivity.setMirrorActivityId(activity.getPrimaryKey());
+
+				socialActivityPersistence.update(mirrorActivity, false);
+			}
+		}
+	}
+
+	protected void registerActivityCallback(
+		final SocialActivity activity, final SocialActivity mirrorActivity) {
+
+		TransactionCommitCallbackRegistryUtil.registerCallback(
+			new Callable<Void>() {
+
+				public Void call() throws Exception {
+					if (SocialActivityQueue.add(activity, mirrorActivity)) {
+						MessageBusUtil.sendMessage(
+							DestinationNames.SOCIAL_ACTIVITY, new Message());
+					}
+					else {
+						socialActivityLocalService.addActivity(
+							activity, mirrorActivity);
+					}
+
+					return null;
+				}
+
+			});
+	}
+
 }
\ No newline at end of file
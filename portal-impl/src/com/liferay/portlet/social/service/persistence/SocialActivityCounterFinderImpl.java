@@ -29,6 +29,7 @@ import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.model.User;
 import com.liferay.portal.service.persistence.impl.BasePersistenceImpl;
 import com.liferay.portal.util.PortalUtil;
+import com.liferay.portal.util.PropsValues;
 import com.liferay.portlet.social.model.SocialActivityCounter;
 import com.liferay.portlet.social.model.impl.SocialActivityCounterImpl;
 import com.liferay.portlet.social.util.SocialCounterPeriodUtil;
@@ -65,47 +66,27 @@ public class SocialActivityCounterFinderImpl
 	public int countU_ByG_N(long groupId, String[] names)
 		throws SystemException {
 
-		Session session = null;
-
-		try {
-			session = openSession();
-
-			String sql = CustomSQLUtil.get(COUNT_U_BY_G_C_N_S_E);
-
-			sql = StringUtil.replace(sql, "[$NAME$]", getNames(names));
-
-			SQLQuery q = session.createSQLQuery(sql);
-
-			q.addScalar(COUNT_COLUMN_NAME, Type.LONG);
-
-			QueryPos qPos = QueryPos.getInstance(q);
+		if (PropsValues.SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE <=
+				0) {
 
-			qPos.add(groupId);
-			qPos.add(PortalUtil.getClassNameId(User.class.getName()));
-
-			setNames(qPos, names);
-
-			qPos.add(SocialCounterPeriodUtil.getPeriodLength());
-			qPos.add(SocialCounterPeriodUtil.getActivityDay());
+			return doCountU_ByG_N(groupId, names);
+		}
 
-			Iterator<Long> itr = q.iterate();
+		String key = getRankingKey(
+			"countU_ByG_N", groupId, names, QueryUtil.ALL_POS,
+			QueryUtil.ALL_POS);
 
-			if (itr.hasNext()) {
-				Long count = itr.next();
+		Integer count = (Integer)_activityCounters.get(key);
 
-				if (count != null) {
-					return count.intValue();
-				}
-			}
+		if (count == null) {
+			count = doCountU_ByG_N(groupId, names);
 
-			return 0;
-		}
-		catch (Exception e) {
-			throw new SystemException(e);
-		}
-		finally {
-			closeSession(session);
+			_activityCounters.put(
+				key, count,
+				PropsValues.SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE);
 		}
+
+		return count;
 	}
 
 	public List<SocialActivityCounter> findAC_ByG_N_S_E_1(
@@ -297,6 +278,78 @@ public class SocialActivityCounterFinderImpl
 			return null;
 		}
 
+		if (PropsValues.SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE <=
+				0) {
+
+			return doFindU_ByG_N(groupId, names, start, end);
+		}
+
+		String key = getRankingKey("findU_ByG_N", groupId, names, start, end);
+
+		List<Long> userIds = (List<Long>)_activityCounters.get(key);
+
+		if (userIds == null) {
+			userIds = new ArrayList<Long>(
+				doFindU_ByG_N(groupId, names, start, end));
+
+			_activityCounters.put(
+				key, (Serializable)userIds,
+				PropsValues.SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE);
+		}
+
+		return userIds;
+	}
+
+	protected int doCountU_ByG_N(long groupId, String[] names)
+		throws SystemException {
+
+		Session session = null;
+
+		try {
+			session = openSession();
+
+			String sql = CustomSQLUtil.get(COUNT_U_BY_G_C_N_S_E);
+
+			sql = StringUtil.replace(sql, "[$NAME$]", getNames(names));
+
+			SQLQuery q = session.createSQLQuery(sql);
+
+			q.addScalar(COUNT_COLUMN_NAME, Type.LONG);
+
+			QueryPos qPos = QueryPos.getInstance(q);
+
+			qPos.add(groupId);
+			qPos.add(PortalUtil.getClassNameId(User.class.getName()));
+
+			setNames(qPos, names);
+
+			qPos.add(SocialCounterPeriodUtil.getPeriodLength());
+			qPos.add(SocialCounterPeriodUtil.getActivityDay());
+
+			Iterator<Long> itr = q.iterate();
+
+			if (itr.hasNext()) {
+				Long count = itr.next();
+
+				if (count != null) {
+					return count.intValue();
+				}
+			}
+
+			return 0;
+		}
+		catch (Exception e) {
+			throw new SystemException(e);
+		}
+		finally {
+			closeSession(session);
+		}
+	}
+
+	protected List<Long> doFindU_ByG_N(
+			long groupId, String[] names, int start, int end)
+		throws SystemException {
+
 		Session session = null;
 
 		try {
@@ -347,6 +400,26 @@ public class SocialActivityCounterFinderImpl
 		return sb.toString();
 	}
 
+	protected String getRankingKey(
+		String methodName, long groupId, String[] names, int start, int end) {
+
+		StringBundler sb = new StringBundler(11);
+
+		sb.append(methodName);
+		sb.append(StringPool.POUND);
+		sb.append(groupId);
+		sb.append(StringPool.POUND);
+		sb.append(StringUtil.merge(names));
+		sb.append(StringPool.POUND);
+		sb.append(SocialCounterPeriodUtil.getStartPeriod());
+		sb.append(StringPool.POUND);
+		sb.append(start);
+		sb.append(StringPool.POUND);
+		sb.append(end);
+
+		return sb.toString();
+	}
+
 	protected void setNames(QueryPos qPos, String[] names) {
 		if ((names != null) && (names.length > 0)) {
 			for (String name : names) {
@@ -64,6 +64,9 @@ public class SocialActivityFinderImpl
 	public static final String COUNT_BY_USER_ORGANIZATIONS =
 		SocialActivityFinder.class.getName() + ".countByUserOrganizations";
 
+	public static final String FIND_BY_G_CD_A =
+		SocialActivityFinder.class.getName() + ".findByG_CD_A";
+
 	public static final String FIND_BY_GROUP_ID =
 		SocialActivityFinder.class.getName() + ".findByGroupId";
 
@@ -429,6 +432,39 @@ public class SocialActivityFinderImpl
 		}
 	}
 
+	public List<SocialActivity> findByG_CD_A(
+			long groupId, long createDate, long activityId, int count)
+		throws SystemException {
+
+		Session session = null;
+
+		try {
+			session = openSession();
+
+			String sql = CustomSQLUtil.get(FIND_BY_G_CD_A);
+
+			SQLQuery q = session.createSQLQuery(sql);
+
+			q.addEntity("SocialActivity", SocialActivityImpl.class);
+
+			QueryPos qPos = QueryPos.getInstance(q);
+
+			qPos.add(groupId);
+			qPos.add(createDate);
+			qPos.add(createDate);
+			qPos.add(activityId);
+
+			return (List<SocialActivity>)QueryUtil.list(
+				q, getDialect(), 0, count);
+		}
+		catch (Exception e) {
+			throw new SystemException(e);
+		}
+		finally {
+			closeSession(session);
+		}
+	}
+
 	public List<SocialActivity> findByGroupId(long groupId, int start, int end)
 		throws SystemException {
 
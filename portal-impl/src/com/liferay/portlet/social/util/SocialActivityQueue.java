@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.social.util;
+
+import com.liferay.portal.util.PropsValues;
+import com.liferay.portlet.social.model.SocialActivity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * <p>
+ * Holds the social activities whose transactions have committed until the
+ * "liferay/social_activity" destination records them. The queue is bounded by
+ * the <code>social.activity.queue.capacity</code> property so that a slow
+ * database cannot make it grow without limit.
+ * </p>
+ *
+ * <p>
+ * Every activity added to the queue must be matched by one message sent to
+ * the destination, whose listener polls the next batch of activities.
+ * </p>
+ *
+ * <p>
+ * The queue only lives in memory. Activities that are still queued when the
+ * portal shuts down or crashes are lost.
+ * </p>
+ */
+public class SocialActivityQueue {
+
+	/**
+	 * Adds the activity and its mirror activity to the queue.
+	 *
+	 * @return <code>true</code> if the activities were queued;
+	 *         <code>false</code> if the queue is full, in which case the caller
+	 *         must record them itself
+	 */
+	public static boolean add(
+		SocialActivity activity, SocialActivity mirrorActivity) {
+
+		SocialActivity[] activities = {activity, mirrorActivity};
+
+		return _activities.offer(activities);
+	}
+
+	public static int getSize() {
+		return _activities.size();
+	}
+
+	/**
+	 * Removes and returns up to the given number of queued activities, in the
+	 * order they were added, as arrays holding the activity and its mirror
+	 * activity, which may be <code>null</code>.
+	 */
+	public static List<SocialActivity[]> poll(int maxSize) {
+		List<SocialActivity[]> activities = new ArrayList<SocialActivity[]>();
+
+		_activities.drainTo(activities, maxSize);
+
+		return activities;
+	}
+
+	private static BlockingQueue<SocialActivity[]> _activities =
+		new ArrayBlockingQueue<SocialActivity[]>(
+			Math.max(PropsValues.SOCIAL_ACTIVITY_QUEUE_CAPACITY, 1));
+
+}
@@ -18,6 +18,7 @@ import com.liferay.portal.kernel.io.unsync.UnsyncByteArrayInputStream;
 import com.liferay.portal.kernel.transaction.Transactional;
 import com.liferay.portal.kernel.util.SetUtil;
 import com.liferay.portal.service.ServiceTestUtil;
+import com.liferay.portal.service.persistence.BatchSessionUtil;
 import com.liferay.portal.test.EnvironmentExecutionTestListener;
 import com.liferay.portal.test.ExecutionTestListeners;
 import com.liferay.portal.test.LiferayIntegrationJUnitTestRunner;
@@ -139,6 +140,37 @@ public class DBStoreTest {
 				companyId, repositoryId, fileName, Store.VERSION_DEFAULT));
 	}
 
+	@Test
+	public void testAddFileWithInputStreamInBatchSession() throws Exception {
+		long companyId = ServiceTestUtil.nextLong();
+		long repositoryId = ServiceTestUtil.nextLong();
+		String fileName = ServiceTestUtil.randomString();
+		File file = createFile(_DATA_VERSION_1);
+
+		boolean batchSessionEnabled = BatchSessionUtil.isEnabled();
+
+		try {
+			BatchSessionUtil.setEnabled(true);
+
+			_store.addFile(
+				companyId, repositoryId, fileName, new FileInputStream(file));
+		}
+		finally {
+			BatchSessionUtil.setEnabled(batchSessionEnabled);
+		}
+
+		InputStream inputStream = _store.getFileAsStream(
+			companyId, repositoryId, fileName);
+
+		for (int i = 0; i < _DATA_SIZE; i++) {
+			Assert.assertEquals(_DATA_VERSION_1[i], (byte)inputStream.read());
+		}
+
+		Assert.assertEquals(-1, inputStream.read());
+
+		inputStream.close();
+	}
+
 	@Test
 	public void testDeleteDirectory() throws Exception {
 
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.journal.lar;
+
+import com.liferay.portal.kernel.dao.orm.FinderCacheUtil;
+import com.liferay.portal.kernel.lar.PortletDataContext;
+import com.liferay.portal.kernel.util.StringBundler;
+import com.liferay.portal.kernel.util.StringPool;
+import com.liferay.portal.kernel.util.Time;
+import com.liferay.portal.kernel.xml.Document;
+import com.liferay.portal.kernel.xml.Element;
+import com.liferay.portal.kernel.xml.SAXReaderUtil;
+import com.liferay.portal.kernel.zip.ZipWriterFactoryUtil;
+import com.liferay.portal.lar.PortletDataContextImpl;
+import com.liferay.portal.model.Group;
+import com.liferay.portal.service.ServiceContext;
+import com.liferay.portal.service.ServiceTestUtil;
+import com.liferay.portal.test.EnvironmentExecutionTestListener;
+import com.liferay.portal.test.ExecutionTestListeners;
+import com.liferay.portal.test.LiferayIntegrationJUnitTestRunner;
+import com.liferay.portal.test.TransactionalExecutionTestListener;
+import com.liferay.portal.util.PortletKeys;
+import com.liferay.portal.util.TestPropsValues;
+import com.liferay.portlet.journal.model.JournalArticle;
+import com.liferay.portlet.journal.model.JournalFolder;
+import com.liferay.portlet.journal.service.JournalArticleLocalServiceUtil;
+import com.liferay.portlet.journal.service.JournalFolderLocalServiceUtil;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@ExecutionTestListeners(
+	listeners = {
+		EnvironmentExecutionTestListener.class,
+		TransactionalExecutionTestListener.class
+	})
+@RunWith(LiferayIntegrationJUnitTestRunner.class)
+public class JournalPortletDataHandlerImplTest {
+
+	@Before
+	public void setUp() {
+		FinderCacheUtil.clearCache();
+	}
+
+	@Test
+	public void testExportDataWithDateRange() throws Exception {
+		Group group = ServiceTestUtil.addGroup();
+
+		JournalFolder folder = _addFolder(group.getGroupId(), "Test Folder");
+
+		_addArticle(
+			group.getGroupId(), folder.getFolderId(), "Test Article",
+			"This is a test article.");
+
+		Date endDate = new Date(System.currentTimeMillis() + Time.MINUTE);
+
+		Date startDate = new Date(endDate.getTime() - Time.DAY);
+
+		Document document = _exportData(group, startDate, endDate);
+
+		Element rootElement = document.getRootElement();
+
+		Element foldersElement = rootElement.element("folders");
+
+		List<Element> folderElements = foldersElement.elements("folder");
+
+		Assert.assertEquals(1, folderElements.size());
+
+		Element articlesElement = rootElement.element("articles");
+
+		List<Element> articleElements = articlesElement.elements("article");
+
+		Assert.assertEquals(1, articleElements.size());
+
+		startDate = new Date(endDate.getTime() - Time.SECOND);
+
+		document = _exportData(group, startDate, endDate);
+
+		rootElement = document.getRootElement();
+
+		articlesElement = rootElement.element("articles");
+
+		articleElements = articlesElement.elements("article");
+
+		Assert.assertTrue(articleElements.isEmpty());
+	}
+
+	private JournalArticle _addArticle(
+			long groupId, long folderId, String name, String content)
+		throws Exception {
+
+		Map<Locale, String> titleMap = new HashMap<Locale, String>();
+
+		Locale englishLocale = new Locale("en", "US");
+
+		titleMap.put(englishLocale, name);
+
+		Map<Locale, String> descriptionMap = new HashMap<Locale, String>();
+
+		ServiceContext serviceContext = ServiceTestUtil.getServiceContext();
+
+		StringBundler sb = new StringBundler();
+
+		sb.append("<?xml version=\"1.0\"?><root available-locales=");
+		sb.append("\"en_US\" default-locale=\"en_US\">");
+		sb.append("<static-content language-id=\"en_US\"><![CDATA[<p>");
+		sb.append(content);
+		sb.append("</p>]]>");
+		sb.append("</static-content></root>");
+
+		return JournalArticleLocalServiceUtil.addArticle(
+			TestPropsValues.getUserId(), groupId, folderId, 0, 0,
+			StringPool.BLANK, true, 1, titleMap, descriptionMap, sb.toString(),
+			"general", null, null, null, 1, 1, 1965, 0, 0, 0, 0, 0, 0, 0, true,
+			0, 0, 0, 0, 0, true, false, false, null, null, null, null,
+			serviceContext);
+	}
+
+	private JournalFolder _addFolder(long groupId, String name)
+		throws Exception {
+
+		ServiceContext serviceContext = ServiceTestUtil.getServiceContext();
+
+		return JournalFolderLocalServiceUtil.addFolder(
+			TestPropsValues.getUserId(), groupId, 0, name,
+			"This is a test folder.", serviceContext);
+	}
+
+	private Document _exportData(Group group, Date startDate, Date endDate)
+		throws Exception {
+
+		PortletDataContext portletDataContext = new PortletDataContextImpl(
+			group.getCompanyId(), group.getGroupId(),
+			new HashMap<String, String[]>(), new HashSet<String>(), startDate,
+			endDate, ZipWriterFactoryUtil.getZipWriter());
+
+		JournalPortletDataHandlerImpl journalPortletDataHandlerImpl =
+			new JournalPortletDataHandlerImpl();
+
+		String data = journalPortletDataHandlerImpl.exportData(
+			portletDataContext, PortletKeys.JOURNAL, null);
+
+		return SAXReaderUtil.read(data);
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.cache.memory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemoryPortalCacheTest {
+
+	@Test
+	public void testMaxSize() {
+		MemoryPortalCache<String, String> memoryPortalCache =
+			new MemoryPortalCache<String, String>("testMaxSize", 16, 10, 0);
+
+		for (int i = 0; i < 100; i++) {
+			memoryPortalCache.put(String.valueOf(i), String.valueOf(i));
+		}
+
+		Assert.assertEquals(10, memoryPortalCache.getSize());
+		Assert.assertEquals(90, memoryPortalCache.getCacheEvictions());
+		Assert.assertEquals(100, memoryPortalCache.getCachePuts());
+
+		Assert.assertNull(memoryPortalCache.get("0"));
+		Assert.assertEquals("99", memoryPortalCache.get("99"));
+	}
+
+	@Test
+	public void testRemove() {
+		MemoryPortalCache<String, String> memoryPortalCache =
+			new MemoryPortalCache<String, String>("testRemove", 16, 2, 0);
+
+		memoryPortalCache.put("a", "a");
+		memoryPortalCache.put("b", "b");
+
+		memoryPortalCache.remove("a");
+
+		memoryPortalCache.put("c", "c");
+
+		Assert.assertEquals(2, memoryPortalCache.getSize());
+		Assert.assertEquals(0, memoryPortalCache.getCacheEvictions());
+		Assert.assertEquals("b", memoryPortalCache.get("b"));
+		Assert.assertEquals("c", memoryPortalCache.get("c"));
+
+		memoryPortalCache.removeAll();
+
+		memoryPortalCache.put("d", "d");
+		memoryPortalCache.put("e", "e");
+
+		Assert.assertEquals(2, memoryPortalCache.getSize());
+		Assert.assertEquals(0, memoryPortalCache.getCacheEvictions());
+	}
+
+	@Test
+	public void testScanResistance() {
+		MemoryPortalCache<String, String> memoryPortalCache =
+			new MemoryPortalCache<String, String>(
+				"testScanResistance", 16, 10, 0);
+
+		for (int i = 0; i < 5; i++) {
+			memoryPortalCache.put("hot" + i, "hot" + i);
+		}
+
+		for (int i = 0; i < 5; i++) {
+			memoryPortalCache.get("hot" + i);
+		}
+
+		for (int i = 0; i < 100; i++) {
+			memoryPortalCache.put("scan" + i, "scan" + i);
+		}
+
+		for (int i = 0; i < 5; i++) {
+			Assert.assertEquals("hot" + i, memoryPortalCache.get("hot" + i));
+		}
+
+		Assert.assertEquals(10, memoryPortalCache.getSize());
+	}
+
+	@Test
+	public void testStatistics() {
+		MemoryPortalCache<String, String> memoryPortalCache =
+			new MemoryPortalCache<String, String>("testStatistics", 16, 0, 0);
+
+		memoryPortalCache.put("a", "a");
+
+		memoryPortalCache.get("a");
+		memoryPortalCache.get("a");
+		memoryPortalCache.get("b");
+
+		Assert.assertEquals(2, memoryPortalCache.getCacheHits());
+		Assert.assertEquals(1, memoryPortalCache.getCacheMisses());
+		Assert.assertEquals(1, memoryPortalCache.getCachePuts());
+
+		memoryPortalCache.resetStatistics();
+
+		Assert.assertEquals(0, memoryPortalCache.getCacheHits());
+		Assert.assertEquals(0, memoryPortalCache.getCacheMisses());
+		Assert.assertEquals(0, memoryPortalCache.getCachePuts());
+	}
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.freemarker;
+
+import freemarker.template.Configuration;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.Template;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateScalarModel;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LiferayTemplateHashModelTest {
+
+	@Before
+	public void setUp() {
+		Map<String, Object> context = new HashMap<String, Object>();
+
+		context.put("color", "red");
+		context.put("size", "large");
+
+		Map<String, Object> helperUtilities = new HashMap<String, Object>();
+
+		helperUtilities.put("color", "blue");
+		helperUtilities.put("shape", "round");
+
+		_liferayTemplateHashModel = new LiferayTemplateHashModel(
+			context, helperUtilities, ObjectWrapper.DEFAULT_WRAPPER);
+	}
+
+	@Test
+	public void testKeys() throws Exception {
+		List<String> keys = _toList(_liferayTemplateHashModel.keys());
+
+		Assert.assertEquals(3, keys.size());
+		Assert.assertTrue(keys.contains("color"));
+		Assert.assertTrue(keys.contains("shape"));
+		Assert.assertTrue(keys.contains("size"));
+	}
+
+	@Test
+	public void testListDataModelKeys() throws Exception {
+		Template template = new Template(
+			"test",
+			new StringReader(
+				"<#list .data_model?keys?sort as key>${key}=" +
+					"${.data_model[key]} </#list>${.data_model?size}"),
+			new Configuration());
+
+		StringWriter stringWriter = new StringWriter();
+
+		template.process(_liferayTemplateHashModel, stringWriter);
+
+		Assert.assertEquals(
+			"color=red shape=round size=large 3", stringWriter.toString());
+	}
+
+	@Test
+	public void testSize() {
+		Assert.assertEquals(3, _liferayTemplateHashModel.size());
+	}
+
+	@Test
+	public void testValues() throws Exception {
+		List<String> values = _toList(_liferayTemplateHashModel.values());
+
+		Assert.assertEquals(3, values.size());
+		Assert.assertTrue(values.contains("large"));
+		Assert.assertTrue(values.contains("red"));
+		Assert.assertTrue(values.contains("round"));
+	}
+
+	private List<String> _toList(
+			TemplateCollectionModel templateCollectionModel)
+		throws Exception {
+
+		List<String> list = new ArrayList<String>();
+
+		TemplateModelIterator templateModelIterator =
+			templateCollectionModel.iterator();
+
+		while (templateModelIterator.hasNext()) {
+			TemplateScalarModel templateScalarModel =
+				(TemplateScalarModel)templateModelIterator.next();
+
+			list.add(templateScalarModel.getAsString());
+		}
+
+		return list;
+	}
+
+	private LiferayTemplateHashModel _liferayTemplateHashModel;
+
+}
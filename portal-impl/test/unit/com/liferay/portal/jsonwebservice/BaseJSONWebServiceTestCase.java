@@ -14,7 +14,12 @@
 
 package com.liferay.portal.jsonwebservice;
 
+import com.liferay.portal.executor.PortalExecutorFactoryImpl;
+import com.liferay.portal.executor.PortalExecutorManagerImpl;
 import com.liferay.portal.json.JSONFactoryImpl;
+import com.liferay.portal.kernel.concurrent.AbortPolicy;
+import com.liferay.portal.kernel.concurrent.ThreadPoolHandlerAdapter;
+import com.liferay.portal.kernel.executor.PortalExecutorManagerUtil;
 import com.liferay.portal.kernel.json.JSONFactoryUtil;
 import com.liferay.portal.kernel.json.JSONSerializable;
 import com.liferay.portal.kernel.json.JSONSerializer;
@@ -27,6 +32,8 @@ import com.liferay.portal.util.MethodParametersResolverImpl;
 
 import java.lang.reflect.Method;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.powermock.api.mockito.PowerMockito;
@@ -54,6 +61,31 @@ public abstract class BaseJSONWebServiceTestCase extends PowerMockito {
 
 		methodParametersResolverUtil.setMethodParametersResolver(
 			new MethodParametersResolverImpl());
+
+		PortalExecutorFactoryImpl portalExecutorFactoryImpl =
+			new PortalExecutorFactoryImpl();
+
+		portalExecutorFactoryImpl.setAllowCoreThreadTimeout(true);
+		portalExecutorFactoryImpl.setKeepAliveTime(60);
+		portalExecutorFactoryImpl.setMaxPoolSize(2);
+		portalExecutorFactoryImpl.setMaxQueueSize(Integer.MAX_VALUE);
+		portalExecutorFactoryImpl.setRejectedExecutionHandler(
+			new AbortPolicy());
+		portalExecutorFactoryImpl.setThreadPoolHandler(
+			new ThreadPoolHandlerAdapter());
+		portalExecutorFactoryImpl.setTimeUnit(TimeUnit.SECONDS);
+
+		PortalExecutorManagerImpl portalExecutorManagerImpl =
+			new PortalExecutorManagerImpl();
+
+		portalExecutorManagerImpl.setPortalExecutorFactory(
+			portalExecutorFactoryImpl);
+
+		PortalExecutorManagerUtil portalExecutorManagerUtil =
+			new PortalExecutorManagerUtil();
+
+		portalExecutorManagerUtil.setPortalExecutorManager(
+			portalExecutorManagerImpl);
 	}
 
 	protected static void registerActionClass(Class<?> actionClass) {
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.jsonwebservice;
+
+import com.liferay.portal.jsonwebservice.action.JSONWebServiceInvokerAction;
+import com.liferay.portal.kernel.jsonwebservice.JSONWebServiceAction;
+
+import java.lang.reflect.InvocationTargetException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs the invoker tests with parallel batch execution enabled.
+ */
+public class JSONWebServiceInvokerParallelTest
+	extends JSONWebServiceInvokerTest {
+
+	@BeforeClass
+	public static void init() throws Exception {
+		JSONWebServiceInvokerTest.init();
+
+		registerActionClass(ParallelService.class);
+	}
+
+	@Test
+	public void testParallelBatchCalls() throws Exception {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("[");
+
+		for (int i = 0; i < 4; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+			map.put("/parallel/await", _createParameters("id", i));
+
+			sb.append(toJSON(map));
+		}
+
+		sb.append("]");
+
+		JSONWebServiceAction jsonWebServiceAction = prepareInvokerAction(
+			sb.toString());
+
+		JSONWebServiceInvokerAction.InvokerResult invokerResult =
+			(JSONWebServiceInvokerAction.InvokerResult)
+				jsonWebServiceAction.invoke();
+
+		List<Object> results = (List<Object>)invokerResult.getResult();
+
+		Assert.assertEquals(4, results.size());
+
+		for (int i = 0; i < 4; i++) {
+			Assert.assertEquals(i, results.get(i));
+		}
+	}
+
+	@Test
+	public void testParallelBatchCallsFailure() throws Exception {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+		map.put("/parallel/fail", _createParameters("message", "Failed"));
+
+		String json = toJSON(_createHelloWorldCommand(1));
+
+		json = "[" + json + ", " + toJSON(map) + ", " + json + "]";
+
+		JSONWebServiceAction jsonWebServiceAction = prepareInvokerAction(json);
+
+		try {
+			jsonWebServiceAction.invoke();
+
+			Assert.fail();
+		}
+		catch (InvocationTargetException ite) {
+			Throwable cause = ite.getCause();
+
+			Assert.assertTrue(cause instanceof IllegalStateException);
+			Assert.assertEquals("Failed", cause.getMessage());
+		}
+	}
+
+	@Test
+	public void testParallelBatchCallsWithInnerCalls() throws Exception {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+		Map<String, Object> params = new LinkedHashMap<String, Object>();
+
+		map.put("$data = /foo/get-foo-data", params);
+
+		params.put("id", 173);
+
+		Map<String, Object> worldParams = _createParameters(
+			"@userId", "$data.id");
+
+		worldParams.put("worldName", "Jupiter");
+
+		params.put("$world = /foo/hello-world", worldParams);
+
+		String json =
+			"[" + toJSON(_createHelloWorldCommand(1)) + ", " +
+				toJSON(map) + "]";
+
+		JSONWebServiceAction jsonWebServiceAction = prepareInvokerAction(json);
+
+		JSONWebServiceInvokerAction.InvokerResult invokerResult =
+			(JSONWebServiceInvokerAction.InvokerResult)
+				jsonWebServiceAction.invoke();
+
+		List<Object> results = (List<Object>)invokerResult.getResult();
+
+		Assert.assertEquals(2, results.size());
+		Assert.assertEquals("Welcome 1 to Jupiter", results.get(0));
+
+		Map<String, Object> data = (Map<String, Object>)results.get(1);
+
+		Assert.assertEquals(173, data.get("id"));
+		Assert.assertEquals("Welcome 173 to Jupiter", data.get("world"));
+	}
+
+	@Test
+	public void testParallelBatchCallsWithMissingAction() throws Exception {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+		map.put("/foo/no-such-method", new LinkedHashMap<String, Object>());
+
+		String json = toJSON(_createHelloWorldCommand(1));
+
+		json = "[" + json + ", " + toJSON(map) + ", " + json + "]";
+
+		JSONWebServiceAction jsonWebServiceAction = prepareInvokerAction(json);
+
+		try {
+			jsonWebServiceAction.invoke();
+
+			Assert.fail();
+		}
+		catch (RuntimeException re) {
+			String message = re.getMessage();
+
+			Assert.assertTrue(
+				message,
+				message.startsWith(
+					"No JSON web service action with path " +
+						"/foo/no-such-method"));
+		}
+	}
+
+	@Override
+	protected JSONWebServiceAction prepareInvokerAction(String content)
+		throws Exception {
+
+		JSONWebServiceInvokerAction jsonWebServiceInvokerAction =
+			(JSONWebServiceInvokerAction)super.prepareInvokerAction(content);
+
+		jsonWebServiceInvokerAction.setParallelEnabled(true);
+
+		return jsonWebServiceInvokerAction;
+	}
+
+	private Map<String, Object> _createHelloWorldCommand(int userId) {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+		Map<String, Object> params = _createParameters("userId", userId);
+
+		params.put("worldName", "Jupiter");
+
+		map.put("/foo/hello-world", params);
+
+		return map;
+	}
+
+	private Map<String, Object> _createParameters(String key, Object value) {
+		Map<String, Object> params = new LinkedHashMap<String, Object>();
+
+		params.put(key, value);
+
+		return params;
+	}
+
+}
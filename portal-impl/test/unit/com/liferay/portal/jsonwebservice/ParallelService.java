@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.jsonwebservice;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelService {
+
+	/**
+	 * Returns the ID once another call is waiting as well, and times out if
+	 * no other call runs at the same time.
+	 */
+	public static int await(int id) throws Exception {
+		_cyclicBarrier.await(10, TimeUnit.SECONDS);
+
+		return id;
+	}
+
+	public static String fail(String message) {
+		throw new IllegalStateException(message);
+	}
+
+	private static CyclicBarrier _cyclicBarrier = new CyclicBarrier(2);
+
+}
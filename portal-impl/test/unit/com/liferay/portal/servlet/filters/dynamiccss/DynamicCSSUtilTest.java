@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portal.servlet.filters.dynamiccss;
+
+import com.liferay.portal.kernel.util.DigesterUtil;
+import com.liferay.portal.kernel.util.FileUtil;
+import com.liferay.portal.kernel.util.JavaConstants;
+import com.liferay.portal.kernel.util.PropsUtil;
+import com.liferay.portal.model.Theme;
+import com.liferay.portal.theme.ThemeDisplay;
+import com.liferay.portal.util.DigesterImpl;
+import com.liferay.portal.util.FileImpl;
+import com.liferay.portal.util.Portal;
+import com.liferay.portal.util.PortalUtil;
+import com.liferay.portal.util.PropsImpl;
+import com.liferay.portal.util.WebKeys;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+
+public class DynamicCSSUtilTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+		DigesterUtil digesterUtil = new DigesterUtil();
+
+		digesterUtil.setDigester(new DigesterImpl());
+
+		FileUtil fileUtil = new FileUtil();
+
+		fileUtil.setFile(new FileImpl());
+
+		Portal portal = Mockito.mock(Portal.class);
+
+		Mockito.when(
+			portal.getPathContext()
+		).thenReturn(
+			""
+		);
+
+		PortalUtil portalUtil = new PortalUtil();
+
+		portalUtil.setPortal(portal);
+
+		PropsUtil.setProps(new PropsImpl());
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		_tempDir = new File(
+			System.getProperty("java.io.tmpdir"),
+			"DynamicCSSUtilTest-" + System.nanoTime());
+
+		FileUtil.write(new File(_tempDir, "WEB-INF/web.xml"), "<web-app />");
+
+		_servletContext = new MockServletContext(
+			"file:" + _tempDir.getAbsolutePath());
+
+		_servletContext.setAttribute(
+			JavaConstants.JAVAX_SERVLET_CONTEXT_TEMPDIR, _tempDir);
+
+		_theme = Mockito.mock(Theme.class);
+
+		Mockito.when(
+			_theme.getCssPath()
+		).thenReturn(
+			"/css"
+		);
+		Mockito.when(
+			_theme.getStaticResourcePath()
+		).thenReturn(
+			"/classic-theme"
+		);
+	}
+
+	@After
+	public void tearDown() {
+		FileUtil.deltree(_tempDir);
+	}
+
+	@Test
+	public void testParseSassWithThemeDisplayFindsPrecompiledFile()
+		throws Exception {
+
+		String content = "body {\n\tcolor: red;\n}";
+
+		File parsedCacheFile = DynamicCSSUtil.getParsedCacheFile(
+			_servletContext, _RESOURCE_PATH, content, _theme);
+
+		FileUtil.write(parsedCacheFile, _PRECOMPILED_CONTENT);
+
+		ThemeDisplay themeDisplay = Mockito.mock(ThemeDisplay.class);
+
+		Mockito.when(
+			themeDisplay.getPathThemeCss()
+		).thenReturn(
+			"http://cdn.example.com/classic-theme/css"
+		);
+		Mockito.when(
+			themeDisplay.getPathThemeImages()
+		).thenReturn(
+			"http://cdn.example.com/classic-theme/images"
+		);
+		Mockito.when(
+			themeDisplay.getTheme()
+		).thenReturn(
+			_theme
+		);
+		Mockito.when(
+			themeDisplay.isThemeCssFastLoad()
+		).thenReturn(
+			true
+		);
+
+		MockHttpServletRequest mockHttpServletRequest =
+			new MockHttpServletRequest();
+
+		mockHttpServletRequest.setAttribute(
+			WebKeys.THEME_DISPLAY, themeDisplay);
+
+		Assert.assertEquals(
+			_PRECOMPILED_CONTENT,
+			DynamicCSSUtil.parseSass(
+				_servletContext, mockHttpServletRequest, _RESOURCE_PATH,
+				content));
+	}
+
+	private static final String _PRECOMPILED_CONTENT =
+		"body{color:red}/* precompiled */";
+
+	private static final String _RESOURCE_PATH = "/css/main.css";
+
+	private MockServletContext _servletContext;
+	private File _tempDir;
+	private Theme _theme;
+
+}
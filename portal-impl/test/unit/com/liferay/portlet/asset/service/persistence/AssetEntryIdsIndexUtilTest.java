@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.asset.service.persistence;
+
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+public class AssetEntryIdsIndexUtilTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+		MultiVMPoolUtil multiVMPoolUtil = new MultiVMPoolUtil();
+
+		multiVMPoolUtil.setMultiVMPool(Mockito.mock(MultiVMPool.class));
+	}
+
+	@Test
+	public void testIntersect() {
+		_assertEquals(
+			new long[] {3, 5},
+			AssetEntryIdsIndexUtil.intersect(
+				new long[] {1, 3, 5, 7}, new long[] {2, 3, 5, 8}));
+		_assertEquals(
+			new long[0],
+			AssetEntryIdsIndexUtil.intersect(
+				new long[] {1, 3}, new long[] {2, 4}));
+		_assertEquals(
+			new long[0],
+			AssetEntryIdsIndexUtil.intersect(new long[0], new long[] {1, 2}));
+	}
+
+	@Test
+	public void testIntersectWithAllEntries() {
+		long[] entryIds = {1, 2, 3};
+
+		Assert.assertNull(AssetEntryIdsIndexUtil.intersect(null, null));
+		Assert.assertSame(
+			entryIds, AssetEntryIdsIndexUtil.intersect(null, entryIds));
+		Assert.assertSame(
+			entryIds, AssetEntryIdsIndexUtil.intersect(entryIds, null));
+	}
+
+	@Test
+	public void testQuerySemantics() {
+
+		// Each entry is assigned to the categories of the bits of its primary key
+
+		long[][] categoryEntryIds = new long[4][];
+
+		for (int i = 0; i < categoryEntryIds.length; i++) {
+			categoryEntryIds[i] = _getCategoryEntryIds(i);
+		}
+
+		// All of categories 0 and 1, none of category 3
+
+		long[] entryIds = AssetEntryIdsIndexUtil.intersect(
+			AssetEntryIdsIndexUtil.intersect(null, categoryEntryIds[0]),
+			categoryEntryIds[1]);
+
+		entryIds = AssetEntryIdsIndexUtil.subtract(
+			entryIds, categoryEntryIds[3]);
+
+		long[] expectedEntryIds = _filter(
+			new boolean[] {true, true, false, false},
+			new boolean[] {false, false, false, true});
+
+		_assertEquals(expectedEntryIds, entryIds);
+
+		// Any of categories 1 and 2, not all of categories 0 and 3
+
+		entryIds = AssetEntryIdsIndexUtil.union(
+			categoryEntryIds[1], categoryEntryIds[2]);
+
+		entryIds = AssetEntryIdsIndexUtil.subtract(
+			entryIds,
+			AssetEntryIdsIndexUtil.intersect(
+				categoryEntryIds[0], categoryEntryIds[3]));
+
+		expectedEntryIds = new long[0];
+
+		for (long entryId = 1; entryId <= _ENTRIES_COUNT; entryId++) {
+			if ((_isAssigned(entryId, 1) || _isAssigned(entryId, 2)) &&
+				!(_isAssigned(entryId, 0) && _isAssigned(entryId, 3))) {
+
+				expectedEntryIds = _append(expectedEntryIds, entryId);
+			}
+		}
+
+		_assertEquals(expectedEntryIds, entryIds);
+	}
+
+	@Test
+	public void testSubtract() {
+		_assertEquals(
+			new long[] {1, 7},
+			AssetEntryIdsIndexUtil.subtract(
+				new long[] {1, 3, 5, 7}, new long[] {2, 3, 5, 8}));
+		_assertEquals(
+			new long[0],
+			AssetEntryIdsIndexUtil.subtract(
+				new long[] {1, 2}, new long[] {1, 2, 3}));
+		_assertEquals(
+			new long[0],
+			AssetEntryIdsIndexUtil.subtract(new long[0], new long[] {1}));
+		_assertEquals(
+			new long[] {1, 2},
+			AssetEntryIdsIndexUtil.subtract(new long[] {1, 2}, new long[0]));
+	}
+
+	@Test
+	public void testUnion() {
+		_assertEquals(
+			new long[] {1, 2, 3, 5, 7, 8},
+			AssetEntryIdsIndexUtil.union(
+				new long[] {1, 3, 5, 7}, new long[] {2, 3, 5, 8}));
+		_assertEquals(
+			new long[] {1, 2, 3},
+			AssetEntryIdsIndexUtil.union(new long[] {1, 2, 3}, new long[] {2}));
+		_assertEquals(
+			new long[] {1, 2},
+			AssetEntryIdsIndexUtil.union(new long[0], new long[] {1, 2}));
+		_assertEquals(
+			new long[] {1, 2},
+			AssetEntryIdsIndexUtil.union(new long[] {1, 2}, new long[0]));
+		_assertEquals(
+			new long[0],
+			AssetEntryIdsIndexUtil.union(new long[0], new long[0]));
+	}
+
+	private long[] _append(long[] entryIds, long entryId) {
+		long[] newEntryIds = Arrays.copyOf(entryIds, entryIds.length + 1);
+
+		newEntryIds[entryIds.length] = entryId;
+
+		return newEntryIds;
+	}
+
+	private void _assertEquals(long[] expectedEntryIds, long[] entryIds) {
+		Assert.assertEquals(
+			Arrays.toString(expectedEntryIds), Arrays.toString(entryIds));
+	}
+
+	private long[] _filter(
+		boolean[] allCategories, boolean[] notAnyCategories) {
+
+		long[] entryIds = new long[0];
+
+		for (long entryId = 1; entryId <= _ENTRIES_COUNT; entryId++) {
+			boolean matches = true;
+
+			for (int i = 0; i < allCategories.length; i++) {
+				if ((allCategories[i] && !_isAssigned(entryId, i)) ||
+					(notAnyCategories[i] && _isAssigned(entryId, i))) {
+
+					matches = false;
+				}
+			}
+
+			if (matches) {
+				entryIds = _append(entryIds, entryId);
+			}
+		}
+
+		return entryIds;
+	}
+
+	private long[] _getCategoryEntryIds(int category) {
+		long[] entryIds = new long[0];
+
+		for (long entryId = 1; entryId <= _ENTRIES_COUNT; entryId++) {
+			if (_isAssigned(entryId, category)) {
+				entryIds = _append(entryIds, entryId);
+			}
+		}
+
+		return entryIds;
+	}
+
+	private boolean _isAssigned(long entryId, int category) {
+		return ((entryId >> category) & 1) == 1;
+	}
+
+	private static final int _ENTRIES_COUNT = 15;
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.dynamicdatamapping.storage;
+
+import com.liferay.portlet.dynamicdatamapping.model.DDMStructure;
+import com.liferay.portlet.dynamicdatamapping.storage.query.Condition;
+import com.liferay.portlet.dynamicdatamapping.storage.query.ConditionFactory;
+import com.liferay.portlet.dynamicdatamapping.storage.query.ConditionFactoryImpl;
+import com.liferay.portlet.dynamicdatamapping.storage.query.Junction;
+import com.liferay.portlet.dynamicdatamapping.storage.query.JunctionImpl;
+import com.liferay.portlet.dynamicdatamapping.storage.query.LogicalOperator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.powermock.api.mockito.PowerMockito;
+
+public class XMLStorageFieldIndexTest extends PowerMockito {
+
+	@Before
+	public void setUp() throws Exception {
+		when(
+			_ddmStructure.getFieldDataType("age")
+		).thenReturn(
+			FieldConstants.INTEGER
+		);
+
+		when(
+			_ddmStructure.getFieldDataType("name")
+		).thenReturn(
+			FieldConstants.STRING
+		);
+
+		_addRecord(1, "Alice", "30");
+		_addRecord(2, "Bob", "7");
+		_addRecord(3, "Carol", "45");
+		_addRecord(4, "Bob", "45");
+	}
+
+	@Test
+	public void testConjunction() {
+		Junction junction = _conditionFactory.conjunction();
+
+		junction.add(_conditionFactory.eq("name", "Bob"));
+		junction.add(_conditionFactory.gt("age", 10));
+
+		_assertClassPKs(new long[] {4}, junction);
+	}
+
+	@Test
+	public void testDisjunction() {
+		Junction junction = _conditionFactory.disjunction();
+
+		junction.add(_conditionFactory.eq("name", "Alice"));
+		junction.add(_conditionFactory.lt("age", 10));
+
+		_assertClassPKs(new long[] {1, 2}, junction);
+	}
+
+	@Test
+	public void testEquals() {
+		_assertClassPKs(new long[] {2, 4}, _conditionFactory.eq("name", "Bob"));
+		_assertClassPKs(new long[0], _conditionFactory.eq("name", "Dave"));
+	}
+
+	@Test
+	public void testIn() {
+		_assertClassPKs(
+			new long[] {1, 3},
+			_conditionFactory.in("name", Arrays.asList("Alice", "Carol")));
+		_assertClassPKs(
+			new long[] {2, 4},
+			_conditionFactory.notIn("name", new String[] {"Alice", "Carol"}));
+	}
+
+	@Test
+	public void testLike() {
+		_assertClassPKs(new long[] {1, 3}, _conditionFactory.like("name", "l"));
+	}
+
+	@Test
+	public void testMultipleValues() {
+		_addRecord(5, new String[] {"Dave", "Davide"}, "20");
+
+		_assertClassPKs(new long[] {5}, _conditionFactory.eq("name", "Dave"));
+		_assertClassPKs(new long[] {5}, _conditionFactory.eq("name", "Davide"));
+
+		Assert.assertEquals(
+			5, _xmlStorageFieldIndex.getClassPKsCount(_ddmStructure, null));
+	}
+
+	@Test
+	public void testNegation() {
+		Junction junction = new JunctionImpl(LogicalOperator.NOT);
+
+		junction.add(_conditionFactory.eq("name", "Bob"));
+		junction.add(_conditionFactory.eq("age", "30"));
+
+		_assertClassPKs(new long[] {3}, junction);
+	}
+
+	@Test
+	public void testNumericComparison() {
+		_assertClassPKs(new long[] {3, 4}, _conditionFactory.gt("age", 30));
+		_assertClassPKs(new long[] {1, 3, 4}, _conditionFactory.gte("age", 30));
+		_assertClassPKs(new long[] {2}, _conditionFactory.lt("age", 30));
+		_assertClassPKs(new long[] {1, 2}, _conditionFactory.lte("age", 30));
+	}
+
+	@Test
+	public void testUnsortedRecords() {
+		_addRecord(0, "Bob", "45");
+		_addRecord(6, new String[] {"Erin", "Erin"}, "45");
+
+		_assertClassPKs(
+			new long[] {0, 2, 4}, _conditionFactory.eq("name", "Bob"));
+		_assertClassPKs(new long[] {6}, _conditionFactory.eq("name", "Erin"));
+		_assertClassPKs(
+			new long[] {0, 3, 4, 6}, _conditionFactory.gt("age", 40));
+
+		Assert.assertArrayEquals(
+			new long[] {0, 1, 2, 3, 4, 6},
+			_xmlStorageFieldIndex.getClassPKs(_ddmStructure, null));
+	}
+
+	private void _addRecord(long classPK, String name, String age) {
+		_addRecord(classPK, new String[] {name}, age);
+	}
+
+	private void _addRecord(long classPK, String[] names, String age) {
+		Map<String, List<String>> fieldValues =
+			new HashMap<String, List<String>>();
+
+		fieldValues.put("age", Arrays.asList(age));
+		fieldValues.put("name", Arrays.asList(names));
+
+		_xmlStorageFieldIndex.addRecord(classPK, fieldValues);
+	}
+
+	private void _assertClassPKs(
+		long[] expectedClassPKs, Condition condition) {
+
+		long[] classPKs = _xmlStorageFieldIndex.getClassPKs(
+			_ddmStructure, condition);
+
+		Assert.assertArrayEquals(expectedClassPKs, classPKs);
+		Assert.assertEquals(
+			expectedClassPKs.length,
+			_xmlStorageFieldIndex.getClassPKsCount(_ddmStructure, condition));
+	}
+
+	private ConditionFactory _conditionFactory = new ConditionFactoryImpl();
+	private DDMStructure _ddmStructure = mock(DDMStructure.class);
+	private XMLStorageFieldIndex _xmlStorageFieldIndex =
+		new XMLStorageFieldIndex();
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.social.messaging;
+
+import com.liferay.portal.kernel.bean.BeanLocator;
+import com.liferay.portal.kernel.bean.PortalBeanLocatorUtil;
+import com.liferay.portal.kernel.exception.SystemException;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portlet.social.model.SocialActivity;
+import com.liferay.portlet.social.service.SocialActivityCounterLocalService;
+import com.liferay.portlet.social.service.SocialActivityLocalService;
+import com.liferay.portlet.social.util.SocialActivityQueue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.powermock.api.mockito.PowerMockito;
+
+public class SocialActivityMessageListenerTest extends PowerMockito {
+
+	@BeforeClass
+	public static void setUpClass() {
+		BeanLocator beanLocator = mock(BeanLocator.class);
+
+		when(
+			beanLocator.locate(
+				SocialActivityCounterLocalService.class.getName())
+		).thenReturn(
+			_socialActivityCounterLocalService
+		);
+
+		when(
+			beanLocator.locate(SocialActivityLocalService.class.getName())
+		).thenReturn(
+			_socialActivityLocalService
+		);
+
+		PortalBeanLocatorUtil.setBeanLocator(beanLocator);
+	}
+
+	@Before
+	public void setUp() {
+		Mockito.reset(
+			_socialActivityCounterLocalService, _socialActivityLocalService);
+
+		for (int i = 0; i < _activities.length; i++) {
+			_activities[i] = mock(SocialActivity.class);
+
+			when(
+				_activities[i].getClassPK()
+			).thenReturn(
+				(long)i
+			);
+
+			SocialActivityQueue.add(_activities[i], null);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		SocialActivityQueue.poll(Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void testReceive() throws Exception {
+		_socialActivityMessageListener.receive(new Message());
+
+		Mockito.verify(
+			_socialActivityLocalService, Mockito.times(1)
+		).addActivities(
+			Mockito.anyList(), Mockito.anyList()
+		);
+
+		for (SocialActivity activity : _activities) {
+			Mockito.verify(
+				_socialActivityCounterLocalService
+			).addActivityCounters(
+				activity
+			);
+		}
+	}
+
+	@Test
+	public void testReceiveWithFailingActivity() throws Exception {
+		Mockito.doAnswer(
+			new Answer<Void>() {
+
+				public Void answer(InvocationOnMock invocationOnMock)
+					throws Throwable {
+
+					Object[] arguments = invocationOnMock.getArguments();
+
+					List<SocialActivity> activities =
+						(List<SocialActivity>)arguments[0];
+
+					SocialActivity activity = activities.get(0);
+
+					if ((activities.size() > 1) ||
+						(activity.getClassPK() == 1)) {
+
+						throw new SystemException();
+					}
+
+					return null;
+				}
+
+			}
+		).when(
+			_socialActivityLocalService
+		).addActivities(
+			Mockito.anyList(), Mockito.anyList()
+		);
+
+		_socialActivityMessageListener.receive(new Message());
+
+		Mockito.verify(
+			_socialActivityLocalService, Mockito.times(4)
+		).addActivities(
+			Mockito.anyList(), Mockito.anyList()
+		);
+
+		Mockito.verify(
+			_socialActivityCounterLocalService
+		).addActivityCounters(
+			_activities[0]
+		);
+		Mockito.verify(
+			_socialActivityCounterLocalService, Mockito.never()
+		).addActivityCounters(
+			_activities[1]
+		);
+		Mockito.verify(
+			_socialActivityCounterLocalService
+		).addActivityCounters(
+			_activities[2]
+		);
+
+		Mockito.verify(_activities[1]).setActivityId(0);
+	}
+
+	private static SocialActivityCounterLocalService
+		_socialActivityCounterLocalService = mock(
+			SocialActivityCounterLocalService.class);
+	private static SocialActivityLocalService _socialActivityLocalService =
+		mock(SocialActivityLocalService.class);
+
+	private SocialActivity[] _activities = new SocialActivity[3];
+	private SocialActivityMessageListener _socialActivityMessageListener =
+		new SocialActivityMessageListener();
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.social.util;
+
+import com.liferay.portal.util.PropsValues;
+import com.liferay.portlet.social.model.SocialActivity;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.powermock.api.mockito.PowerMockito;
+
+public class SocialActivityQueueTest extends PowerMockito {
+
+	@After
+	public void tearDown() {
+		SocialActivityQueue.poll(Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void testAdd() {
+		SocialActivity activity = mock(SocialActivity.class);
+		SocialActivity mirrorActivity = mock(SocialActivity.class);
+
+		Assert.assertTrue(SocialActivityQueue.add(activity, mirrorActivity));
+		Assert.assertTrue(SocialActivityQueue.add(activity, null));
+
+		Assert.assertEquals(2, SocialActivityQueue.getSize());
+
+		List<SocialActivity[]> activityPairs = SocialActivityQueue.poll(10);
+
+		Assert.assertEquals(2, activityPairs.size());
+
+		SocialActivity[] activityPair = activityPairs.get(0);
+
+		Assert.assertSame(activity, activityPair[0]);
+		Assert.assertSame(mirrorActivity, activityPair[1]);
+
+		activityPair = activityPairs.get(1);
+
+		Assert.assertSame(activity, activityPair[0]);
+		Assert.assertNull(activityPair[1]);
+	}
+
+	@Test
+	public void testAddWhenFull() {
+		SocialActivity activity = mock(SocialActivity.class);
+
+		int size = 0;
+
+		while (SocialActivityQueue.add(activity, null)) {
+			size++;
+		}
+
+		Assert.assertEquals(PropsValues.SOCIAL_ACTIVITY_QUEUE_CAPACITY, size);
+		Assert.assertEquals(size, SocialActivityQueue.getSize());
+
+		SocialActivityQueue.poll(1);
+
+		Assert.assertTrue(SocialActivityQueue.add(activity, null));
+	}
+
+	@Test
+	public void testPoll() {
+		SocialActivity[] activities = new SocialActivity[3];
+
+		for (int i = 0; i < activities.length; i++) {
+			activities[i] = mock(SocialActivity.class);
+
+			SocialActivityQueue.add(activities[i], null);
+		}
+
+		List<SocialActivity[]> activityPairs = SocialActivityQueue.poll(2);
+
+		Assert.assertEquals(2, activityPairs.size());
+		Assert.assertSame(activities[0], activityPairs.get(0)[0]);
+		Assert.assertSame(activities[1], activityPairs.get(1)[0]);
+		Assert.assertEquals(1, SocialActivityQueue.getSize());
+
+		activityPairs = SocialActivityQueue.poll(2);
+
+		Assert.assertEquals(1, activityPairs.size());
+		Assert.assertSame(activities[2], activityPairs.get(0)[0]);
+
+		activityPairs = SocialActivityQueue.poll(2);
+
+		Assert.assertTrue(activityPairs.isEmpty());
+	}
+
+}
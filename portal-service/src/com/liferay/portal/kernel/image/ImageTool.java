@@ -61,6 +61,9 @@ public interface ImageTool {
 
 	public ImageBag read(File file) throws IOException;
 
+	public ImageBag read(File file, int maxHeight, int maxWidth)
+		throws IOException;
+
 	public ImageBag read(InputStream inputStream) throws IOException;
 
 	public RenderedImage scale(RenderedImage renderedImage, int width);
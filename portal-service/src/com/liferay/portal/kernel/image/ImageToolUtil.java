@@ -151,6 +151,28 @@ public class ImageToolUtil {
 		return getImageTool().read(file);
 	}
 
+	/**
+	 * Detects the image format and creates an {@link
+	 * com.liferay.portal.kernel.image.ImageBag} containing the {@link
+	 * java.awt.image.RenderedImage} and image type. Large images are decoded
+	 * at a reduced resolution that is still sufficient to scale them to the
+	 * maximum height and width given, so that the full resolution image is
+	 * never held in memory.
+	 *
+	 * @param  file the file to read
+	 * @param  maxHeight the maximum height the image will be scaled to, or
+	 *         <code>0</code> if the height is not bounded
+	 * @param  maxWidth the maximum width the image will be scaled to, or
+	 *         <code>0</code> if the width is not bounded
+	 * @return the {@link com.liferay.portal.kernel.image.ImageBag}
+	 * @throws IOException if an IO exception occurred
+	 */
+	public static ImageBag read(File file, int maxHeight, int maxWidth)
+		throws IOException {
+
+		return getImageTool().read(file, maxHeight, maxWidth);
+	}
+
 	public static ImageBag read(InputStream inputStream) throws IOException {
 		return getImageTool().read(inputStream);
 	}
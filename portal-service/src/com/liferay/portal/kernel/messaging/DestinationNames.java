@@ -134,6 +134,8 @@ public interface DestinationNames {
 
 	public static final String SEARCH_WRITER = "liferay/search_writer";
 
+	public static final String SOCIAL_ACTIVITY = "liferay/social_activity";
+
 	public static final String SUBSCRIPTION_SENDER =
 		"liferay/subscription_sender";
 
@@ -23,7 +23,6 @@ import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.HttpUtil;
 import com.liferay.portal.kernel.util.PropsKeys;
 import com.liferay.portal.kernel.util.PropsUtil;
-import com.liferay.portal.kernel.util.RandomAccessInputStream;
 import com.liferay.portal.kernel.util.ServerDetector;
 import com.liferay.portal.kernel.util.StreamUtil;
 import com.liferay.portal.kernel.util.StringBundler;
@@ -567,12 +566,14 @@ public class ServletResponseUtil {
 			StreamUtil.transfer(byteArrayInputStream, outputStream, length);
 		}
 		else {
-			RandomAccessInputStream randomAccessInputStream =
-				new RandomAccessInputStream(inputStream);
 
-			randomAccessInputStream.seek(start);
+			// Skip to the start of the range instead of caching the skipped
+			// bytes so that streams such as database BLOBs are never copied
+			// beyond the range
 
-			StreamUtil.transfer(randomAccessInputStream, outputStream, length);
+			skip(inputStream, start);
+
+			StreamUtil.transfer(inputStream, outputStream, length);
 		}
 	}
 
@@ -681,6 +682,24 @@ public class ServletResponseUtil {
 		}
 	}
 
+	protected static void skip(InputStream inputStream, long length)
+		throws IOException {
+
+		while (length > 0) {
+			long skipped = inputStream.skip(length);
+
+			if (skipped <= 0) {
+				if (inputStream.read() == -1) {
+					throw new IOException("Unexpected end of stream");
+				}
+
+				skipped = 1;
+			}
+
+			length -= skipped;
+		}
+	}
+
 	private static final String _CLIENT_ABORT_EXCEPTION =
 		"org.apache.catalina.connector.ClientAbortException";
 
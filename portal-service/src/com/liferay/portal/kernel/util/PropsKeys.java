@@ -97,6 +97,10 @@ public interface PropsKeys {
 
 	public static final String ASSET_ENTRY_INCREMENT_VIEW_COUNTER_ENABLED = "asset.entry.increment.view.counter.enabled";
 
+	public static final String ASSET_ENTRY_QUERY_INDEX_ENABLED = "asset.entry.query.index.enabled";
+
+	public static final String ASSET_ENTRY_QUERY_INDEX_MAX_ENTRY_IDS = "asset.entry.query.index.max.entry.ids";
+
 	public static final String ASSET_ENTRY_VALIDATOR = "asset.entry.validator";
 
 	public static final String ASSET_FILTER_SEARCH_LIMIT = "asset.filter.search.limit";
@@ -973,6 +977,10 @@ public interface PropsKeys {
 
 	public static final String JOURNAL_ARTICLES_SEARCH_WITH_INDEX = "journal.articles.search.with.index";
 
+	public static final String JOURNAL_CONTENT_CACHE_BLOCKING_ENABLED = "journal.content.cache.blocking.enabled";
+
+	public static final String JOURNAL_CONTENT_CACHE_SOFT_TTL = "journal.content.cache.soft.ttl";
+
 	public static final String JOURNAL_CONTENT_SEARCH_SHOW_LISTED = "journal.content.search.show.listed";
 
 	public static final String JOURNAL_DEFAULT_DISPLAY_VIEW = "journal.default.display.view";
@@ -1079,6 +1087,8 @@ public interface PropsKeys {
 
 	public static final String JSONWS_WEB_SERVICE_INVALID_HTTP_METHODS = "jsonws.web.service.invalid.http.methods";
 
+	public static final String JSONWS_WEB_SERVICE_INVOKER_PARALLEL_ENABLED = "jsonws.web.service.invoker.parallel.enabled";
+
 	public static final String JSONWS_WEB_SERVICE_STRICT_HTTP_METHOD = "jsonws.web.service.strict.http.method";
 
 	public static final String JSP_WRITER_BUFFER_SIZE = "jsp.writer.buffer.size";
@@ -1245,6 +1255,8 @@ public interface PropsKeys {
 
 	public static final String LDAP_IMPORT_GROUP_SEARCH_FILTER_ENABLED = "ldap.import.group.search.filter.enabled";
 
+	public static final String LDAP_IMPORT_INCREMENTAL_ENABLED = "ldap.import.incremental.enabled";
+
 	public static final String LDAP_IMPORT_INTERVAL = "ldap.import.interval";
 
 	public static final String LDAP_IMPORT_LOCK_EXPIRATION_TIME = "ldap.import.lock.expiration.time";
@@ -2073,16 +2085,26 @@ public interface PropsKeys {
 
 	public static final String SOCIAL_ACTIVITY_CONTRIBUTION_LIMIT_VALUES = "social.activity.contribution.limit.values";
 
+	public static final String SOCIAL_ACTIVITY_COUNTER_BUFFERED_INCREMENT_ENABLED = "social.activity.counter.buffered.increment.enabled";
+
 	public static final String SOCIAL_ACTIVITY_COUNTER_LOCK_RETRY_DELAY = "social.activity.counter.lock.retry.delay";
 
 	public static final String SOCIAL_ACTIVITY_COUNTER_LOCK_TIMEOUT = "social.activity.counter.lock.timeout";
 
 	public static final String SOCIAL_ACTIVITY_COUNTER_PERIOD_LENGTH = "social.activity.counter.period.length";
 
+	public static final String SOCIAL_ACTIVITY_COUNTER_RANKING_CACHE_TIME_TO_LIVE = "social.activity.counter.ranking.cache.time.to.live";
+
 	public static final String SOCIAL_ACTIVITY_PARTICIPATION_INCREMENTS = "social.activity.participation.increments";
 
 	public static final String SOCIAL_ACTIVITY_PARTICIPATION_LIMIT_VALUES = "social.activity.participation.limit.values";
 
+	public static final String SOCIAL_ACTIVITY_QUEUE_BATCH_SIZE = "social.activity.queue.batch.size";
+
+	public static final String SOCIAL_ACTIVITY_QUEUE_CAPACITY = "social.activity.queue.capacity";
+
+	public static final String SOCIAL_ACTIVITY_QUEUE_ENABLED = "social.activity.queue.enabled";
+
 	public static final String SOCIAL_BOOKMARK_JSP = "social.bookmark.jsp";
 
 	public static final String SOCIAL_BOOKMARK_POST_URL = "social.bookmark.post.url";
@@ -2119,6 +2141,14 @@ public interface PropsKeys {
 
 	public static final String SQL_DATA_MAX_PARAMETERS = "sql.data.max.parameters";
 
+	public static final String STAGING_CHANGE_JOURNAL_ENABLED = "staging.change.journal.enabled";
+
+	public static final String STAGING_CHANGE_JOURNAL_MAX_AGE = "staging.change.journal.max.age";
+
+	public static final String STAGING_EXPORT_PARALLEL_ENABLED = "staging.export.parallel.enabled";
+
+	public static final String STAGING_IMPORT_BATCH_ENABLED = "staging.import.batch.enabled";
+
 	public static final String STAGING_LOCK_ENABLED = "staging.lock.enabled";
 
 	public static final String STRIP_CSS_SASS_ENABLED = "strip.css.sass.enabled";
@@ -2155,6 +2185,8 @@ public interface PropsKeys {
 
 	public static final String THEME_CSS_FAST_LOAD = "theme.css.fast.load";
 
+	public static final String THEME_CSS_PRECOMPILE_ENABLED = "theme.css.precompile.enabled";
+
 	public static final String THEME_IMAGES_FAST_LOAD = "theme.images.fast.load";
 
 	public static final String THEME_JSP_OVERRIDE_ENABLED = "theme.jsp.override.enabled";
@@ -103,6 +103,8 @@ public interface WebKeys {
 
 	public static final String PORTLET_RESOURCE_STATIC_URLS = "PORTLET_RESOURCE_STATIC_URLS";
 
+	public static final String PORTLET_URL_CACHE = "PORTLET_URL_CACHE";
+
 	public static final String REDIRECT = "REDIRECT";
 
 	public static final String RENDER_PATH = "RENDER_PATH";
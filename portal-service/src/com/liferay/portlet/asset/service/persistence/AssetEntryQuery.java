@@ -21,8 +21,10 @@ import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.HttpUtil;
 import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.StringBundler;
+import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.util.WebKeys;
@@ -30,6 +32,7 @@ import com.liferay.portal.model.Layout;
 import com.liferay.portal.theme.ThemeDisplay;
 import com.liferay.portal.util.PortalUtil;
 import com.liferay.portlet.asset.model.AssetCategory;
+import com.liferay.portlet.asset.model.AssetEntry;
 import com.liferay.portlet.asset.service.AssetCategoryLocalServiceUtil;
 import com.liferay.portlet.asset.service.AssetTagLocalServiceUtil;
 
@@ -51,6 +54,10 @@ public class AssetEntryQuery {
 		"priority", "viewCount", "ratings"
 	};
 
+	public static final String[] CURSOR_ORDER_BY_COLUMNS = new String[] {
+		"title", "createDate", "modifiedDate", "priority", "viewCount"
+	};
+
 	public static String checkOrderByCol(String orderByCol) {
 		if (orderByCol == null) {
 			return ORDER_BY_COLUMNS[2];
@@ -88,6 +95,7 @@ public class AssetEntryQuery {
 		setAnyTagIds(assetEntryQuery.getAnyTagIds());
 		setClassNameIds(assetEntryQuery.getClassNameIds());
 		setClassTypeIds(assetEntryQuery.getClassTypeIds());
+		setCursor(assetEntryQuery.getCursor());
 		setEnablePermissions(assetEntryQuery.isEnablePermissions());
 		setEnd(assetEntryQuery.getEnd());
 		setExcludeZeroViewCount(assetEntryQuery.isExcludeZeroViewCount());
@@ -210,6 +218,53 @@ public class AssetEntryQuery {
 		return _classTypeIds;
 	}
 
+	public String getCursor() {
+		return _cursor;
+	}
+
+	/**
+	 * Returns the cursor that makes this query return the entries that follow
+	 * the entry, or <code>null</code> if the ordering of this query cannot be
+	 * paginated with cursors.
+	 *
+	 * <p>
+	 * A cursor holds the values of the ordering columns and the primary key of
+	 * the last entry of a page. Unlike the start position, it lets the
+	 * database seek to the next page through the index of the ordering columns
+	 * instead of reading and discarding all the entries of the previous pages.
+	 * When a cursor is set, the start and end positions are relative to the
+	 * entry the cursor was obtained from.
+	 * </p>
+	 */
+	public String getCursor(AssetEntry entry) {
+		if (!isCursorSupported()) {
+			return null;
+		}
+
+		String[] orderByCols = getCursorOrderByCols();
+
+		StringBundler sb = new StringBundler(orderByCols.length * 2 + 1);
+
+		for (String orderByCol : orderByCols) {
+			sb.append(_getCursorValue(entry, orderByCol));
+			sb.append(StringPool.COMMA);
+		}
+
+		sb.append(entry.getEntryId());
+
+		return sb.toString();
+	}
+
+	public String[] getCursorOrderByCols() {
+		if (Validator.isNotNull(_orderByCol2) &&
+			!_orderByCol2.equals(_orderByCol1)) {
+
+			return new String[] {_orderByCol1, _orderByCol2};
+		}
+
+		return new String[] {_orderByCol1};
+	}
+
 	public int getEnd() {
 		return _end;
 	}
@@ -282,6 +337,20 @@ public class AssetEntryQuery {
 		return _start;
 	}
 
+	public boolean isCursorSupported() {
+		if (Validator.isNull(_orderByCol1)) {
+			return false;
+		}
+
+		for (String orderByCol : getCursorOrderByCols()) {
+			if (!ArrayUtil.contains(CURSOR_ORDER_BY_COLUMNS, orderByCol)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	public boolean isEnablePermissions() {
 		return _enablePermissions;
 	}
@@ -348,6 +417,12 @@ public class AssetEntryQuery {
 		_toString = null;
 	}
 
+	public void setCursor(String cursor) {
+		_cursor = cursor;
+
+		_toString = null;
+	}
+
 	public void setEnablePermissions(boolean enablePermissions) {
 		_enablePermissions = enablePermissions;
 	}
@@ -470,7 +545,7 @@ public class AssetEntryQuery {
 			return _toString;
 		}
 
-		StringBundler sb = new StringBundler(47);
+		StringBundler sb = new StringBundler(49);
 
 		sb.append("{allCategoryIds=");
 		sb.append(StringUtil.merge(_allCategoryIds));
@@ -484,6 +559,8 @@ public class AssetEntryQuery {
 		sb.append(StringUtil.merge(_classNameIds));
 		sb.append(", classTypeIds=");
 		sb.append(StringUtil.merge(_classTypeIds));
+		sb.append(", cursor=");
+		sb.append(_cursor);
 
 		if (_layout != null) {
 			sb.append(", layout=");
@@ -546,6 +623,28 @@ public class AssetEntryQuery {
 			tagIdsList.toArray(new Long[tagIdsList.size()]));
 	}
 
+	private String _getCursorValue(AssetEntry entry, String orderByCol) {
+		if (orderByCol.equals("createDate")) {
+			Date createDate = entry.getCreateDate();
+
+			return String.valueOf(createDate.getTime());
+		}
+		else if (orderByCol.equals("modifiedDate")) {
+			Date modifiedDate = entry.getModifiedDate();
+
+			return String.valueOf(modifiedDate.getTime());
+		}
+		else if (orderByCol.equals("priority")) {
+			return String.valueOf(entry.getPriority());
+		}
+		else if (orderByCol.equals("viewCount")) {
+			return String.valueOf(entry.getViewCount());
+		}
+		else {
+			return HttpUtil.encodeURL(entry.getTitle());
+		}
+	}
+
 	private long[] _getLeftAndRightCategoryIds(long[] categoryIds) {
 		long[] leftRightIds = new long[categoryIds.length * 3];
 
@@ -577,6 +676,7 @@ public class AssetEntryQuery {
 	private long[] _anyTagIds = new long[0];
 	private long[] _classNameIds = new long[0];
 	private long[] _classTypeIds = new long[0];
+	private String _cursor;
 	private boolean _enablePermissions;
 	private int _end = QueryUtil.ALL_POS;
 	private boolean _excludeZeroViewCount;
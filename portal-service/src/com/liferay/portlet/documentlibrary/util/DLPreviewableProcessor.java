@@ -19,6 +19,7 @@ import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.image.ImageBag;
 import com.liferay.portal.kernel.image.ImageToolUtil;
 import com.liferay.portal.kernel.io.FileFilter;
+import com.liferay.portal.kernel.lar.ImportExportThreadLocal;
 import com.liferay.portal.kernel.lar.PortletDataContext;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
@@ -835,6 +836,34 @@ public abstract class DLPreviewableProcessor implements DLProcessor {
 		return new File(thumbnailTempFilePath);
 	}
 
+	protected int getThumbnailMaxHeight(int index) throws Exception {
+		if (index == THUMBNAIL_INDEX_CUSTOM_1) {
+			return PrefsPropsUtil.getInteger(
+				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_1_MAX_HEIGHT);
+		}
+		else if (index == THUMBNAIL_INDEX_CUSTOM_2) {
+			return PrefsPropsUtil.getInteger(
+				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_2_MAX_HEIGHT);
+		}
+
+		return PrefsPropsUtil.getInteger(
+			PropsKeys.DL_FILE_ENTRY_THUMBNAIL_MAX_HEIGHT);
+	}
+
+	protected int getThumbnailMaxWidth(int index) throws Exception {
+		if (index == THUMBNAIL_INDEX_CUSTOM_1) {
+			return PrefsPropsUtil.getInteger(
+				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_1_MAX_WIDTH);
+		}
+		else if (index == THUMBNAIL_INDEX_CUSTOM_2) {
+			return PrefsPropsUtil.getInteger(
+				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_2_MAX_WIDTH);
+		}
+
+		return PrefsPropsUtil.getInteger(
+			PropsKeys.DL_FILE_ENTRY_THUMBNAIL_MAX_WIDTH);
+	}
+
 	protected String getThumbnailTempFilePath(String id) {
 		return getThumbnailTempFilePath(id, getThumbnailType());
 	}
@@ -1167,13 +1196,56 @@ public abstract class DLPreviewableProcessor implements DLProcessor {
 		return false;
 	}
 
+	/**
+	 * Reads the image to generate the thumbnails from at the lowest resolution
+	 * that still fits all the enabled thumbnail sizes, so that every thumbnail
+	 * is scaled from a single decode that is much smaller than the original
+	 * image.
+	 */
+	protected ImageBag readThumbnailSourceImage(File file) throws Exception {
+		int maxHeight = -1;
+		int maxWidth = -1;
+
+		int[] indexes = {
+			THUMBNAIL_INDEX_DEFAULT, THUMBNAIL_INDEX_CUSTOM_1,
+			THUMBNAIL_INDEX_CUSTOM_2
+		};
+
+		for (int index : indexes) {
+			if (!isThumbnailEnabled(index)) {
+				continue;
+			}
+
+			int thumbnailMaxHeight = getThumbnailMaxHeight(index);
+
+			if ((maxHeight == 0) || (thumbnailMaxHeight == 0)) {
+				maxHeight = 0;
+			}
+			else {
+				maxHeight = Math.max(maxHeight, thumbnailMaxHeight);
+			}
+
+			int thumbnailMaxWidth = getThumbnailMaxWidth(index);
+
+			if ((maxWidth == 0) || (thumbnailMaxWidth == 0)) {
+				maxWidth = 0;
+			}
+			else {
+				maxWidth = Math.max(maxWidth, thumbnailMaxWidth);
+			}
+		}
+
+		return ImageToolUtil.read(
+			file, Math.max(maxHeight, 0), Math.max(maxWidth, 0));
+	}
+
 	protected void sendGenerationMessage(
 		String destinationName, boolean synchronous,
 		FileVersion sourceFileVersion, FileVersion destinationFileVersion) {
 
-		Object[] payload = {sourceFileVersion, destinationFileVersion};
-
 		if (synchronous) {
+			Object[] payload = {sourceFileVersion, destinationFileVersion};
+
 			try {
 				MessageBusUtil.sendSynchronousMessage(destinationName, payload);
 			}
@@ -1183,15 +1255,18 @@ public abstract class DLPreviewableProcessor implements DLProcessor {
 				}
 			}
 		}
-		else {
-			MessageBusUtil.sendMessage(destinationName, payload);
+		else if (DLProcessorQueue.add(
+					destinationName, sourceFileVersion, destinationFileVersion,
+					!ImportExportThreadLocal.isImportInProcess())) {
+
+			MessageBusUtil.sendMessage(destinationName, null);
 		}
 	}
 
 	protected void storeThumbnailImages(FileVersion fileVersion, File file)
 		throws Exception {
 
-		ImageBag imageBag = ImageToolUtil.read(file);
+		ImageBag imageBag = readThumbnailSourceImage(file);
 
 		RenderedImage renderedImage = imageBag.getRenderedImage();
 
@@ -1219,25 +1294,9 @@ public abstract class DLPreviewableProcessor implements DLProcessor {
 
 		String type = getThumbnailType(fileVersion);
 
-		String maxHeightPropsKey = PropsKeys.DL_FILE_ENTRY_THUMBNAIL_MAX_HEIGHT;
-		String maxWidthPropsKey = PropsKeys.DL_FILE_ENTRY_THUMBNAIL_MAX_WIDTH;
-
-		if (index == THUMBNAIL_INDEX_CUSTOM_1) {
-			maxHeightPropsKey =
-				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_1_MAX_HEIGHT;
-			maxWidthPropsKey =
-				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_1_MAX_WIDTH;
-		}
-		else if (index == THUMBNAIL_INDEX_CUSTOM_2) {
-			maxHeightPropsKey =
-				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_2_MAX_HEIGHT;
-			maxWidthPropsKey =
-				PropsKeys.DL_FILE_ENTRY_THUMBNAIL_CUSTOM_2_MAX_WIDTH;
-		}
-
 		RenderedImage thumbnailRenderedImage = ImageToolUtil.scale(
-			renderedImage, PrefsPropsUtil.getInteger(maxHeightPropsKey),
-			PrefsPropsUtil.getInteger(maxWidthPropsKey));
+			renderedImage, getThumbnailMaxHeight(index),
+			getThumbnailMaxWidth(index));
 
 		byte[] bytes = ImageToolUtil.getBytes(thumbnailRenderedImage, type);
 
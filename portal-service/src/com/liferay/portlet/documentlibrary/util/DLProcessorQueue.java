@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.documentlibrary.util;
+
+import com.liferay.portal.kernel.repository.model.FileVersion;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Holds the file versions waiting to be processed by each processor
+ * destination. A file version is only queued once no matter how many times
+ * its generation is triggered, and file versions triggered interactively are
+ * processed before the ones triggered in bulk, such as during an import.
+ * </p>
+ *
+ * <p>
+ * Every file version added to the queue must be matched by one message sent
+ * to the destination, whose listener polls the next file version to process.
+ * </p>
+ */
+public class DLProcessorQueue {
+
+	/**
+	 * Adds the file versions to the queue of the destination.
+	 *
+	 * @return <code>true</code> if the file version was not queued yet and a
+	 *         message must be sent to the destination; <code>false</code> if
+	 *         it was already queued, in which case its payload is replaced and
+	 *         it is promoted if it is now triggered interactively
+	 */
+	public static boolean add(
+		String destinationName, FileVersion sourceFileVersion,
+		FileVersion destinationFileVersion, boolean interactive) {
+
+		ProcessorQueue processorQueue = _processorQueues.get(destinationName);
+
+		if (processorQueue == null) {
+			processorQueue = new ProcessorQueue();
+
+			ProcessorQueue previousProcessorQueue =
+				_processorQueues.putIfAbsent(destinationName, processorQueue);
+
+			if (previousProcessorQueue != null) {
+				processorQueue = previousProcessorQueue;
+			}
+		}
+
+		return processorQueue.add(
+			sourceFileVersion, destinationFileVersion, interactive);
+	}
+
+	public static int getSize(String destinationName) {
+		ProcessorQueue processorQueue = _processorQueues.get(destinationName);
+
+		if (processorQueue == null) {
+			return 0;
+		}
+
+		return processorQueue.getSize();
+	}
+
+	/**
+	 * Removes and returns the next file versions to process for the
+	 * destination as an array holding the source and destination file
+	 * versions, or <code>null</code> if there is nothing queued.
+	 */
+	public static Object[] poll(String destinationName) {
+		ProcessorQueue processorQueue = _processorQueues.get(destinationName);
+
+		if (processorQueue == null) {
+			return null;
+		}
+
+		return processorQueue.poll();
+	}
+
+	private static ConcurrentMap<String, ProcessorQueue> _processorQueues =
+		new ConcurrentHashMap<String, ProcessorQueue>();
+
+	private static class ProcessorQueue {
+
+		public synchronized boolean add(
+			FileVersion sourceFileVersion, FileVersion destinationFileVersion,
+			boolean interactive) {
+
+			Long fileVersionId = destinationFileVersion.getFileVersionId();
+
+			Object[] payload = {sourceFileVersion, destinationFileVersion};
+
+			if (_interactivePayloads.containsKey(fileVersionId)) {
+				_interactivePayloads.put(fileVersionId, payload);
+
+				return false;
+			}
+
+			Object[] bulkPayload = _bulkPayloads.remove(fileVersionId);
+
+			if (interactive) {
+				_interactivePayloads.put(fileVersionId, payload);
+			}
+			else {
+				_bulkPayloads.put(fileVersionId, payload);
+			}
+
+			if (bulkPayload != null) {
+				return false;
+			}
+
+			return true;
+		}
+
+		public synchronized int getSize() {
+			return _interactivePayloads.size() + _bulkPayloads.size();
+		}
+
+		public synchronized Object[] poll() {
+			Object[] payload = poll(_interactivePayloads);
+
+			if (payload == null) {
+				payload = poll(_bulkPayloads);
+			}
+
+			return payload;
+		}
+
+		protected Object[] poll(Map<Long, Object[]> payloads) {
+			Iterator<Object[]> itr = payloads.values().iterator();
+
+			if (!itr.hasNext()) {
+				return null;
+			}
+
+			Object[] payload = itr.next();
+
+			itr.remove();
+
+			return payload;
+		}
+
+		private Map<Long, Object[]> _bulkPayloads =
+			new LinkedHashMap<Long, Object[]>();
+		private Map<Long, Object[]> _interactivePayloads =
+			new LinkedHashMap<Long, Object[]>();
+
+	}
+
+}
@@ -663,6 +663,18 @@ public interface ExpandoValueLocalService extends BaseLocalService,
 		throws com.liferay.portal.kernel.exception.PortalException,
 			com.liferay.portal.kernel.exception.SystemException;
 
+	/**
+	* Returns the values of the columns for each of the rows, loading the values of all the rows at once instead of one column and row at a time. Each value is converted to the type of its column, and columns without a value for a row are set to their default data.
+	*
+	* @return the maps of column names to values, keyed by the primary key of the rows
+	*/
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public java.util.Map<java.lang.Long, java.util.Map<java.lang.String, java.io.Serializable>> getData(
+		long companyId, java.lang.String className, java.lang.String tableName,
+		java.util.Collection<java.lang.String> columnNames, long[] classPKs)
+		throws com.liferay.portal.kernel.exception.PortalException,
+			com.liferay.portal.kernel.exception.SystemException;
+
 	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public java.io.Serializable getData(long companyId,
 		java.lang.String className, java.lang.String tableName,
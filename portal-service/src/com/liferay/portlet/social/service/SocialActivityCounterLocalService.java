@@ -759,4 +759,36 @@ public interface SocialActivityCounterLocalService extends BaseLocalService,
 	public void incrementUserAchievementCounter(long userId, long groupId)
 		throws com.liferay.portal.kernel.exception.PortalException,
 			com.liferay.portal.kernel.exception.SystemException;
+
+	/**
+	* Increments the latest activity counter, adding a new activity counter if
+	* there is none or if its period has ended.
+	*
+	* <p>
+	* When <code>social.activity.counter.buffered.increment.enabled</code> is
+	* set in <code>portal.properties</code>, the increments are buffered and
+	* this method is called asynchronously once with the sum of the
+	* increments of the same counter.
+	* </p>
+	*
+	* @param groupId the primary key of the group
+	* @param classNameId the primary key of the entity's class the counter
+	belongs to
+	* @param classPK the primary key of the entity the counter belongs to
+	* @param name the counter's name
+	* @param ownerType the counter's owner type
+	* @param periodLength the period length in days,
+	<code>PERIOD_LENGTH_INFINITE</code> for never ending counters or
+	<code>PERIOD_LENGTH_SYSTEM</code> for the period length defined
+	in <code>portal-ext.properties</code>
+	* @param increment the value to add to the counter
+	* @throws PortalException if the group or the previous activity counter
+	could not be found
+	* @throws SystemException if a system exception occurred
+	*/
+	public void updateActivityCounter(long groupId,
+		long classNameId, long classPK, java.lang.String name, int ownerType,
+		int periodLength, int increment)
+		throws com.liferay.portal.kernel.exception.PortalException,
+			com.liferay.portal.kernel.exception.SystemException;
 }
\ No newline at end of file
@@ -849,6 +849,42 @@ public class SocialActivityCounterLocalServiceUtil {
 		getService().incrementUserAchievementCounter(userId, groupId);
 	}
 
+	/**
+	* Increments the latest activity counter, adding a new activity counter if
+	* there is none or if its period has ended.
+	*
+	* <p>
+	* When <code>social.activity.counter.buffered.increment.enabled</code> is
+	* set in <code>portal.properties</code>, the increments are buffered and
+	* this method is called asynchronously once with the sum of the
+	* increments of the same counter.
+	* </p>
+	*
+	* @param groupId the primary key of the group
+	* @param classNameId the primary key of the entity's class the counter
+	belongs to
+	* @param classPK the primary key of the entity the counter belongs to
+	* @param name the counter's name
+	* @param ownerType the counter's owner type
+	* @param periodLength the period length in days,
+	<code>PERIOD_LENGTH_INFINITE</code> for never ending counters or
+	<code>PERIOD_LENGTH_SYSTEM</code> for the period length defined
+	in <code>portal-ext.properties</code>
+	* @param increment the value to add to the counter
+	* @throws PortalException if the group or the previous activity counter
+	could not be found
+	* @throws SystemException if a system exception occurred
+	*/
+	public static void updateActivityCounter(long groupId,
+		long classNameId, long classPK, java.lang.String name, int ownerType,
+		int periodLength, int increment)
+		throws com.liferay.portal.kernel.exception.PortalException,
+			com.liferay.portal.kernel.exception.SystemException {
+		getService()
+			.updateActivityCounter(groupId, classNameId, classPK, name,
+			ownerType, periodLength, increment);
+	}
+
 	public static SocialActivityCounterLocalService getService() {
 		if (_service == null) {
 			_service = (SocialActivityCounterLocalService)PortalBeanLocatorUtil.locate(SocialActivityCounterLocalService.class.getName());
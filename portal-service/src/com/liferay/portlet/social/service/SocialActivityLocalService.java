@@ -243,6 +243,29 @@ public interface SocialActivityLocalService extends BaseLocalService,
 	*/
 	public void setBeanIdentifier(java.lang.String beanIdentifier);
 
+	/**
+	* Records the activities and their mirror activities in the database in a
+	* single transaction. The activity counters are not updated.
+	*
+	* <p>
+	* This method is called by the "liferay/social_activity" destination to
+	* write the activities queued after their transactions committed.
+	* </p>
+	*
+	* @param activities the activities to be recorded
+	* @param mirrorActivities the mirror activities of the activities, with
+	<code>null</code> elements for the activities without a mirror
+	activity
+	* @throws PortalException if an activity or mirror activity already had a
+	primary key
+	* @throws SystemException if a system exception occurred
+	*/
+	public void addActivities(
+		java.util.List<com.liferay.portlet.social.model.SocialActivity> activities,
+		java.util.List<com.liferay.portlet.social.model.SocialActivity> mirrorActivities)
+		throws com.liferay.portal.kernel.exception.PortalException,
+			com.liferay.portal.kernel.exception.SystemException;
+
 	/**
 	* Records an activity with the given time in the database.
 	*
@@ -630,6 +653,36 @@ public interface SocialActivityLocalService extends BaseLocalService,
 		long groupId, int start, int end)
 		throws com.liferay.portal.kernel.exception.SystemException;
 
+	/**
+	* Returns the activities done in the group that follow the activity with
+	* the create date and primary key, in the same order as {@link
+	* #getGroupActivities(long, int, int)}.
+	*
+	* <p>
+	* This method only finds activities without mirrors.
+	* </p>
+	*
+	* <p>
+	* Useful when paginating large feeds. Passing the create date and primary
+	* key of the last activity of a page returns the next page without the
+	* database having to read the activities of all the previous pages. Pass
+	* <code>Long.MAX_VALUE</code> as the create date to get the first page.
+	* </p>
+	*
+	* @param groupId the primary key of the group
+	* @param createDate the create date of the last activity of the previous
+	page
+	* @param activityId the primary key of the last activity of the previous
+	page
+	* @param count the maximum number of activities to return
+	* @return the matching activities
+	* @throws SystemException if a system exception occurred
+	*/
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public java.util.List<com.liferay.portlet.social.model.SocialActivity> getGroupActivities(
+		long groupId, long createDate, long activityId, int count)
+		throws com.liferay.portal.kernel.exception.SystemException;
+
 	/**
 	* Returns the number of activities done in the group.
 	*
@@ -45,6 +45,10 @@ public interface SocialActivityFinder {
 	public int countByUserOrganizations(long userId)
 		throws com.liferay.portal.kernel.exception.SystemException;
 
+	public java.util.List<com.liferay.portlet.social.model.SocialActivity> findByG_CD_A(
+		long groupId, long createDate, long activityId, int count)
+		throws com.liferay.portal.kernel.exception.SystemException;
+
 	public java.util.List<com.liferay.portlet.social.model.SocialActivity> findByGroupId(
 		long groupId, int start, int end)
 		throws com.liferay.portal.kernel.exception.SystemException;
@@ -66,6 +66,12 @@ public class SocialActivityFinderUtil {
 		return getFinder().countByUserOrganizations(userId);
 	}
 
+	public static java.util.List<com.liferay.portlet.social.model.SocialActivity> findByG_CD_A(
+		long groupId, long createDate, long activityId, int count)
+		throws com.liferay.portal.kernel.exception.SystemException {
+		return getFinder().findByG_CD_A(groupId, createDate, activityId, count);
+	}
+
 	public static java.util.List<com.liferay.portlet.social.model.SocialActivity> findByGroupId(
 		long groupId, int start, int end)
 		throws com.liferay.portal.kernel.exception.SystemException {
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2000-2012 Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.portlet.documentlibrary.util;
+
+import com.liferay.portal.kernel.repository.model.FileVersion;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.powermock.api.mockito.PowerMockito;
+
+public class DLProcessorQueueTest extends PowerMockito {
+
+	@Test
+	public void testAddDuplicate() {
+		String destinationName = "testAddDuplicate";
+
+		FileVersion fileVersion = _getFileVersion(1);
+
+		Assert.assertTrue(
+			DLProcessorQueue.add(destinationName, null, fileVersion, true));
+		Assert.assertFalse(
+			DLProcessorQueue.add(destinationName, null, fileVersion, true));
+		Assert.assertFalse(
+			DLProcessorQueue.add(destinationName, null, fileVersion, false));
+
+		Assert.assertEquals(1, DLProcessorQueue.getSize(destinationName));
+
+		_assertPoll(destinationName, fileVersion);
+
+		Assert.assertNull(DLProcessorQueue.poll(destinationName));
+	}
+
+	@Test
+	public void testPollInteractiveFirst() {
+		String destinationName = "testPollInteractiveFirst";
+
+		FileVersion fileVersion1 = _getFileVersion(1);
+		FileVersion fileVersion2 = _getFileVersion(2);
+		FileVersion fileVersion3 = _getFileVersion(3);
+
+		DLProcessorQueue.add(destinationName, null, fileVersion1, false);
+		DLProcessorQueue.add(destinationName, null, fileVersion2, false);
+		DLProcessorQueue.add(destinationName, null, fileVersion3, true);
+
+		_assertPoll(destinationName, fileVersion3);
+		_assertPoll(destinationName, fileVersion1);
+		_assertPoll(destinationName, fileVersion2);
+	}
+
+	@Test
+	public void testPromote() {
+		String destinationName = "testPromote";
+
+		FileVersion fileVersion1 = _getFileVersion(1);
+		FileVersion fileVersion2 = _getFileVersion(2);
+
+		DLProcessorQueue.add(destinationName, null, fileVersion1, false);
+		DLProcessorQueue.add(destinationName, null, fileVersion2, false);
+
+		Assert.assertFalse(
+			DLProcessorQueue.add(destinationName, null, fileVersion2, true));
+
+		_assertPoll(destinationName, fileVersion2);
+		_assertPoll(destinationName, fileVersion1);
+	}
+
+	private void _assertPoll(
+		String destinationName, FileVersion expectedFileVersion) {
+
+		Object[] payload = DLProcessorQueue.poll(destinationName);
+
+		Assert.assertNotNull(payload);
+		Assert.assertSame(expectedFileVersion, payload[1]);
+	}
+
+	private FileVersion _getFileVersion(long fileVersionId) {
+		FileVersion fileVersion = mock(FileVersion.class);
+
+		when(
+			fileVersion.getFileVersionId()
+		).thenReturn(
+			fileVersionId
+		);
+
+		return fileVersion;
+	}
+
+}